@@ -1,14 +1,27 @@
 package com.hotel.cli;
 
+import com.hotel.parser.ContractDiff;
+import com.hotel.parser.ContractSimilarityIndex;
+import com.hotel.parser.DiffJsonWriter;
 import com.hotel.parser.DocxWriter;
+import com.hotel.parser.ImagePreprocessor;
+import com.hotel.parser.OcrCircuitBreaker;
+import com.hotel.parser.OcrProfile;
+import com.hotel.parser.PageExtractor;
 import com.hotel.parser.PageExtractorOptions;
 import com.hotel.parser.PDFParser;
+import com.hotel.parser.ProcessShardRunner;
+import com.hotel.parser.RasterBufferPool;
+import com.hotel.parser.RenderMemoryGovernor;
+import com.hotel.parser.ShardCoordinator;
+import com.hotel.parser.SharedResourceCache;
 import picocli.CommandLine;
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Option;
 import picocli.CommandLine.Parameters;
 
 import java.io.File;
+import java.time.Duration;
 import java.util.concurrent.Callable;
 import java.util.*;
 
@@ -50,6 +63,108 @@ public class HotelContractParserCLI implements Callable<Integer> {
     )
     private File tessDataDir;
 
+    @Option(
+        names = "--preprocess",
+        description = "Comma-separated image cleanup steps applied before OCR: ${COMPLETION-CANDIDATES}",
+        split = ",",
+        paramLabel = "STEP"
+    )
+    private List<ImagePreprocessor.Step> preprocessSteps = new ArrayList<>();
+
+    @Option(
+        names = "--ocr-page-timeout",
+        description = "Maximum seconds spent on OCR for a single page, 0 for no limit; rendering counts toward it "
+            + "but only recognition is cut off (default: ${DEFAULT-VALUE})",
+        defaultValue = "60",
+        paramLabel = "SECONDS"
+    )
+    private long ocrPageTimeoutSeconds = 60;
+
+    @Option(
+        names = "--render-memory-mb",
+        description = "Memory budget in MB for page rasters; oversized pages are rendered at a lower DPI "
+            + "(default: a quarter of the maximum heap)",
+        paramLabel = "MB"
+    )
+    private Long renderMemoryMb;
+
+    @Option(
+        names = "--ocr-profile",
+        description = "OCR engine profile: default, fast (LSTM only, no dictionaries, tessdata_fast) "
+            + "or accurate (tessdata_best) (default: ${DEFAULT-VALUE})",
+        defaultValue = "default",
+        paramLabel = "PROFILE"
+    )
+    private String ocrProfileName = "default";
+
+    @Option(
+        names = "--ocr-whitelist",
+        description = "Restrict OCR output to these characters",
+        paramLabel = "CHARS"
+    )
+    private String ocrWhitelist;
+
+    @Option(
+        names = "--ocr-languages",
+        description = "Comma-separated Tesseract languages documents may be in, e.g. eng,deu,spa,rus; "
+            + "each OCR page uses only the one detected for it (default: eng)",
+        split = ",",
+        paramLabel = "LANG"
+    )
+    private List<String> ocrLanguages = new ArrayList<>(PageExtractorOptions.DEFAULT_OCR_LANGUAGES);
+
+    @Option(
+        names = "--workers",
+        description = "Split documents larger than one shard across this many worker processes (default: in-process)",
+        paramLabel = "N"
+    )
+    private Integer workers;
+
+    @Option(
+        names = "--shard-pages",
+        description = "Pages per shard when --workers is set (default: ${DEFAULT-VALUE})",
+        defaultValue = "100",
+        paramLabel = "PAGES"
+    )
+    private int shardPages = ShardCoordinator.DEFAULT_PAGES_PER_SHARD;
+
+    @Option(
+        names = "--worker-heap-mb",
+        description = "Maximum heap of each worker process in MB (default: JVM default)",
+        paramLabel = "MB"
+    )
+    private Integer workerHeapMb;
+
+    @Option(
+        names = "--checkpoint-dir",
+        description = "Journal completed pages here so an interrupted parse resumes where it stopped; "
+            + "not supported with --workers",
+        paramLabel = "DIR"
+    )
+    private File checkpointDir;
+
+    @Option(
+        names = "--resource-cache-mb",
+        description = "Share parsed fonts, ICC profiles and decoded images across the parsed documents, "
+            + "up to this many MB (default: per document)",
+        paramLabel = "MB"
+    )
+    private Long resourceCacheMb;
+
+    @Option(
+        names = "--diff-against",
+        description = "Previous version of the contract; writes the changes instead of the full report "
+            + "(JSON when the output ends in .json, DOCX otherwise)",
+        paramLabel = "OLD_PDF"
+    )
+    private File diffAgainst;
+
+    @Option(
+        names = "--no-tables",
+        description = "Skip table detection; the report then holds page text only"
+    )
+    private boolean noTables;
+
     @Override
     public Integer call() throws Exception {
         // Validate input file
@@ -74,6 +189,56 @@ public class HotelContractParserCLI implements Callable<Integer> {
             System.err.println("Error: --tess-data-dir must point to an existing directory");
             return 1;
         }
+        if (diffAgainst != null && (!diffAgainst.isFile() || !diffAgainst.getName().toLowerCase().endsWith(".pdf"))) {
+            System.err.println("Error: --diff-against must point to an existing PDF file");
+            return 1;
+        }
+        if (ocrPageTimeoutSeconds < 0) {
+            System.err.println("Error: --ocr-page-timeout must be zero or greater");
+            return 1;
+        }
+        if (checkpointDir != null && checkpointDir.exists() && !checkpointDir.isDirectory()) {
+            System.err.println("Error: --checkpoint-dir must be a directory");
+            return 1;
+        }
+        if (workers != null && workers <= 0) {
+            System.err.println("Error: --workers must be a positive integer");
+            return 1;
+        }
+        if (workers != null && checkpointDir != null) {
+            System.err.println("Error: --checkpoint-dir cannot be combined with --workers");
+            return 1;
+        }
+        if (shardPages <= 0) {
+            System.err.println("Error: --shard-pages must be a positive integer");
+            return 1;
+        }
+        if (workerHeapMb != null && workerHeapMb <= 0) {
+            System.err.println("Error: --worker-heap-mb must be a positive integer");
+            return 1;
+        }
+        if (renderMemoryMb != null && renderMemoryMb <= 0) {
+            System.err.println("Error: --render-memory-mb must be a positive integer");
+            return 1;
+        }
+        if (resourceCacheMb != null && resourceCacheMb <= 0) {
+            System.err.println("Error: --resource-cache-mb must be a positive integer");
+            return 1;
+        }
+        OcrProfile ocrProfile;
+        try {
+            ocrProfile = OcrProfile.forName(ocrProfileName);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error: --ocr-profile must be one of default, fast, accurate");
+            return 1;
+        }
+        if (ocrWhitelist != null) {
+            ocrProfile = ocrProfile.withCharWhitelist(ocrWhitelist);
+        }
+        if (!ocrLanguages.stream().allMatch(language -> language.matches("[A-Za-z0-9_]+"))) {
+            System.err.println("Error: --ocr-languages must list traineddata names such as eng,deu");
+            return 1;
+        }
 
         System.out.println("Parsing PDF: " + inputFile.getAbsolutePath());
 
@@ -82,23 +247,75 @@ public class HotelContractParserCLI implements Callable<Integer> {
             ocrDpi,
             tessDataDir == null ? null : tessDataDir.getAbsoluteFile(),
             PageExtractorOptions.DEFAULT_MIN_NATIVE_TEXT_LENGTH
-        );
-        PDFParser parser = new PDFParser(options);
-        PDFParser.ParseResult result = parser.parse(inputFile);
-        
-        // Print page count
-        System.out.println("Page count: " + result.getPageCount());
-        
-        // Write output
-        System.out.println("Writing output to: " + outputFile.getAbsolutePath());
-        DocxWriter writer = new DocxWriter();
-        writer.write(result, outputFile);
-        
+        )
+            .withPreprocessSteps(Set.copyOf(preprocessSteps))
+            .withOcrPageTimeout(Duration.ofSeconds(ocrPageTimeoutSeconds))
+            .withOcrProfile(ocrProfile)
+            .withOcrLanguages(ocrLanguages)
+            .withExtractTables(!noTables);
+        RenderMemoryGovernor renderGovernor = renderMemoryMb == null
+            ? RenderMemoryGovernor.shared()
+            : new RenderMemoryGovernor(renderMemoryMb * 1024 * 1024, RenderMemoryGovernor.Policy.BLOCK);
+        ShardCoordinator shardCoordinator = null;
+        if (workers != null) {
+            List<String> jvmArguments = workerHeapMb == null ? List.of() : List.of("-Xmx" + workerHeapMb + "m");
+            // Bound a hung worker by the OCR budget of every page in its shard, plus start-up slack.
+            Duration shardTimeout = ocrPageTimeoutSeconds == 0
+                ? Duration.ZERO
+                : Duration.ofSeconds(ocrPageTimeoutSeconds * shardPages + 60);
+            shardCoordinator = new ShardCoordinator(
+                new ProcessShardRunner(options, jvmArguments, shardTimeout),
+                workers, shardPages, ShardCoordinator.DEFAULT_MAX_ATTEMPTS);
+        }
+        SharedResourceCache resourceCache = resourceCacheMb == null
+            ? null
+            : new SharedResourceCache(resourceCacheMb * 1024 * 1024);
+        // Two versions of a contract mostly share pages, so the previous one reuses the new one's OCR.
+        ContractSimilarityIndex similarityIndex = diffAgainst == null ? null : new ContractSimilarityIndex();
+        try (PDFParser parser = new PDFParser(
+            new PageExtractor(options, new RasterBufferPool(), new OcrCircuitBreaker(), renderGovernor, resourceCache),
+            similarityIndex, shardCoordinator, checkpointDir == null ? null : checkpointDir.getAbsoluteFile())) {
+            PDFParser.ParseResult result = parser.parse(inputFile);
+
+            // Print page count
+            System.out.println("Page count: " + result.getPageCount());
+            if (!result.getTables().isEmpty()) {
+                System.out.println("Tables: " + result.getTables().size());
+            }
+            if (result.getOcrSkippedPageCount() > 0 || result.getOcrDegradedPageCount() > 0) {
+                System.out.println("OCR skipped pages: " + result.getOcrSkippedPageCount()
+                    + ", degraded pages: " + result.getOcrDegradedPageCount());
+            }
+
+            if (diffAgainst != null) {
+                System.out.println("Parsing previous version: " + diffAgainst.getAbsolutePath());
+                PDFParser.ParseResult previous = parser.parse(diffAgainst);
+                ContractDiff.DiffResult diff = new ContractDiff().diff(previous, result);
+                System.out.println(similarityIndex.stats().summary());
+                System.out.println("Changes: " + diff.changes().size());
+
+                System.out.println("Writing output to: " + outputFile.getAbsolutePath());
+                if (outputFile.getName().toLowerCase().endsWith(".json")) {
+                    new DiffJsonWriter().write(diff, outputFile);
+                } else {
+                    new DocxWriter().writeDiff(diff, outputFile);
+                }
+            } else {
+                // Write output
+                System.out.println("Writing output to: " + outputFile.getAbsolutePath());
+                DocxWriter writer = new DocxWriter();
+                writer.write(result, outputFile);
+            }
+        }
+
+        if (resourceCache != null) {
+            System.out.println(resourceCache.stats().summary());
+        }
         System.out.println("Done!");
         return 0;
     }
 
-    private static void configureMacHomebrewNativeLibs() {
+    static void configureMacHomebrewNativeLibs() {
         String os = System.getProperty("os.name", "").toLowerCase(Locale.ROOT);
         if (!os.contains("mac")) return;
 
@@ -0,0 +1,314 @@
+package com.hotel.cli;
+
+import com.hotel.parser.ContractSimilarityIndex;
+import com.hotel.parser.ImagePreprocessor;
+import com.hotel.parser.OcrCircuitBreaker;
+import com.hotel.parser.OcrProfile;
+import com.hotel.parser.PageExtractor;
+import com.hotel.parser.PageExtractorOptions;
+import com.hotel.parser.PDFParser;
+import com.hotel.parser.RasterBufferPool;
+import com.hotel.parser.RenderMemoryGovernor;
+import com.hotel.parser.SharedResourceCache;
+import com.hotel.parser.SyntheticContractCorpus;
+import picocli.CommandLine;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+/**
+ * Load-test tool: generates a reproducible synthetic contract corpus and runs the parser plus the
+ * DOCX writer over it at a configurable concurrency.
+ */
+@Command(
+    name = "loadtest",
+    description = "Measure pages/s, document latency and peak memory on a synthetic contract corpus",
+    mixinStandardHelpOptions = true,
+    version = "1.0.0"
+)
+public class LoadTestCLI implements Callable<Integer> {
+
+    @Option(
+        names = "--documents",
+        description = "Number of synthetic contracts (default: ${DEFAULT-VALUE})",
+        defaultValue = "20"
+    )
+    private int documents = 20;
+
+    @Option(
+        names = "--min-pages",
+        description = "Minimum pages per contract (default: ${DEFAULT-VALUE})",
+        defaultValue = "2"
+    )
+    private int minPages = 2;
+
+    @Option(
+        names = "--max-pages",
+        description = "Maximum pages per contract (default: ${DEFAULT-VALUE})",
+        defaultValue = "10"
+    )
+    private int maxPages = 10;
+
+    @Option(
+        names = "--mix",
+        description = "Relative weight of each page kind, e.g. NATIVE=6,SCANNED=3,MIXED=1 (default: ${DEFAULT-VALUE})",
+        split = ",",
+        defaultValue = "NATIVE=6,SCANNED=3,MIXED=1",
+        paramLabel = "KIND=WEIGHT"
+    )
+    private Map<SyntheticContractCorpus.PageKind, Integer> pageMix = new EnumMap<>(SyntheticContractCorpus.PageKind.class);
+
+    @Option(
+        names = "--scan-dpi",
+        description = "Resolution of the images embedded in scanned pages (default: ${DEFAULT-VALUE})",
+        defaultValue = "150"
+    )
+    private int scanDpi = 150;
+
+    @Option(
+        names = "--seed",
+        description = "Random seed for the corpus (default: ${DEFAULT-VALUE})",
+        defaultValue = "42"
+    )
+    private long seed = 42;
+
+    @Option(
+        names = "--resend-percent",
+        description = "Chance in percent that a contract re-sends an earlier one behind a new cover page "
+            + "(default: ${DEFAULT-VALUE})",
+        defaultValue = "0",
+        paramLabel = "PERCENT"
+    )
+    private int resendPercent;
+
+    @Option(
+        names = "--corpus-dir",
+        description = "Directory the corpus is generated into (default: a temporary directory)",
+        paramLabel = "DIR"
+    )
+    private File corpusDir;
+
+    @Option(
+        names = "--output-dir",
+        description = "Directory for the DOCX reports (default: a temporary directory)",
+        paramLabel = "DIR"
+    )
+    private File outputDir;
+
+    @Option(
+        names = "--concurrency",
+        description = "Documents processed in parallel (default: ${DEFAULT-VALUE})",
+        defaultValue = "4"
+    )
+    private int concurrency = 4;
+
+    @Option(
+        names = "--ocr-workers",
+        description = "Schedule documents needing OCR on a separate pool of this many workers, cheapest first, "
+            + "leaving --concurrency workers for native documents (default: one pool in submission order)",
+        paramLabel = "N"
+    )
+    private int ocrWorkers;
+
+    @Option(
+        names = "--dpi",
+        description = "DPI used for rasterizing pages before OCR (default: ${DEFAULT-VALUE})",
+        defaultValue = "300"
+    )
+    private int ocrDpi = 300;
+
+    @Option(
+        names = "--tess-data-dir",
+        description = "Directory containing Tesseract traineddata files",
+        paramLabel = "DIR"
+    )
+    private File tessDataDir;
+
+    @Option(
+        names = "--ocr-profile",
+        description = "OCR engine profile: default, fast or accurate (default: ${DEFAULT-VALUE})",
+        defaultValue = "default",
+        paramLabel = "PROFILE"
+    )
+    private String ocrProfileName = "default";
+
+    @Option(
+        names = "--preprocess",
+        description = "Comma-separated image cleanup steps applied before OCR: ${COMPLETION-CANDIDATES}",
+        split = ",",
+        paramLabel = "STEP"
+    )
+    private List<ImagePreprocessor.Step> preprocessSteps = new ArrayList<>();
+
+    @Option(
+        names = "--ocr-page-timeout",
+        description = "Maximum seconds spent on OCR for a single page, 0 for no limit; rendering counts toward it "
+            + "but only recognition is cut off (default: ${DEFAULT-VALUE})",
+        defaultValue = "60",
+        paramLabel = "SECONDS"
+    )
+    private long ocrPageTimeoutSeconds = 60;
+
+    @Option(
+        names = "--resource-cache-mb",
+        description = "Share parsed fonts, ICC profiles and decoded images across workers, up to this many MB "
+            + "(default: per document)",
+        paramLabel = "MB"
+    )
+    private Long resourceCacheMb;
+
+    @Option(
+        names = "--reuse-similar",
+        description = "Share a similarity index across workers so OCR text of near-duplicate pages is reused"
+    )
+    private boolean reuseSimilar;
+
+    @Option(
+        names = "--label",
+        description = "Free-form label stored in the report, e.g. the release under test",
+        paramLabel = "TEXT"
+    )
+    private String label = "";
+
+    @Option(
+        names = "--report",
+        description = "JSON report file (default: ${DEFAULT-VALUE})",
+        defaultValue = "loadtest-report.json",
+        paramLabel = "FILE"
+    )
+    private File reportFile;
+
+    @Override
+    public Integer call() throws Exception {
+        if (documents <= 0 || minPages <= 0 || maxPages < minPages) {
+            System.err.println("Error: --documents and --min-pages must be positive and --max-pages at least --min-pages");
+            return 1;
+        }
+        if (concurrency <= 0) {
+            System.err.println("Error: --concurrency must be a positive integer");
+            return 1;
+        }
+        if (ocrWorkers < 0) {
+            System.err.println("Error: --ocr-workers must be zero or greater");
+            return 1;
+        }
+        if (ocrDpi <= 0 || scanDpi <= 0) {
+            System.err.println("Error: --dpi and --scan-dpi must be positive integers");
+            return 1;
+        }
+        if (ocrPageTimeoutSeconds < 0) {
+            System.err.println("Error: --ocr-page-timeout must be zero or greater");
+            return 1;
+        }
+        if (resourceCacheMb != null && resourceCacheMb <= 0) {
+            System.err.println("Error: --resource-cache-mb must be a positive integer");
+            return 1;
+        }
+        if (resendPercent < 0 || resendPercent > 100) {
+            System.err.println("Error: --resend-percent must be between 0 and 100");
+            return 1;
+        }
+        if (tessDataDir != null && !tessDataDir.isDirectory()) {
+            System.err.println("Error: --tess-data-dir must point to an existing directory");
+            return 1;
+        }
+        OcrProfile ocrProfile;
+        try {
+            ocrProfile = OcrProfile.forName(ocrProfileName);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error: --ocr-profile must be one of default, fast, accurate");
+            return 1;
+        }
+        SyntheticContractCorpus.Spec spec;
+        try {
+            spec = new SyntheticContractCorpus.Spec(documents, minPages, maxPages, pageMix, scanDpi, seed,
+                resendPercent);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error: --mix " + e.getMessage());
+            return 1;
+        }
+
+        File corpus = corpusDir != null ? corpusDir : Files.createTempDirectory("contract-corpus-").toFile();
+        File reports = outputDir != null ? outputDir : Files.createTempDirectory("contract-reports-").toFile();
+        System.out.println("Generating corpus in: " + corpus.getAbsolutePath());
+        List<File> files = new SyntheticContractCorpus(spec).generate(corpus);
+
+        PageExtractorOptions options = new PageExtractorOptions(
+            ocrDpi,
+            tessDataDir == null ? null : tessDataDir.getAbsoluteFile(),
+            PageExtractorOptions.DEFAULT_MIN_NATIVE_TEXT_LENGTH
+        )
+            .withPreprocessSteps(Set.copyOf(preprocessSteps))
+            .withOcrPageTimeout(Duration.ofSeconds(ocrPageTimeoutSeconds))
+            .withOcrProfile(ocrProfile);
+        // Pool, breaker and governor are shared across workers as they would be in a batch service.
+        RasterBufferPool bufferPool = new RasterBufferPool();
+        OcrCircuitBreaker breaker = new OcrCircuitBreaker();
+        RenderMemoryGovernor renderGovernor = RenderMemoryGovernor.shared();
+        SharedResourceCache resourceCache = resourceCacheMb == null
+            ? null
+            : new SharedResourceCache(resourceCacheMb * 1024 * 1024);
+        ContractSimilarityIndex similarityIndex = reuseSimilar ? new ContractSimilarityIndex() : null;
+        LoadTestRunner runner = new LoadTestRunner(
+            () -> new PDFParser(new PageExtractor(options, bufferPool, breaker, renderGovernor, resourceCache),
+                similarityIndex),
+            concurrency, ocrWorkers, similarityIndex);
+
+        System.out.println("Running " + files.size() + " documents at concurrency " + concurrency
+            + (ocrWorkers > 0 ? " plus " + ocrWorkers + " OCR workers" : ""));
+        LoadTestReport report = runner.run(files, reports);
+        System.out.println(report.summary());
+        if (resourceCache != null) {
+            System.out.println(resourceCache.stats().summary());
+        }
+        if (similarityIndex != null) {
+            System.out.println(similarityIndex.stats().summary());
+        }
+
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("label", label);
+        settings.put("javaVersion", System.getProperty("java.version"));
+        settings.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        settings.put("maxHeapBytes", Runtime.getRuntime().maxMemory());
+        settings.put("documents", documents);
+        settings.put("minPages", minPages);
+        settings.put("maxPages", maxPages);
+        settings.put("pageMix", new EnumMap<>(spec.pageMix()).toString());
+        settings.put("scanDpi", scanDpi);
+        settings.put("seed", seed);
+        settings.put("resendPercent", resendPercent);
+        settings.put("ocrDpi", ocrDpi);
+        settings.put("ocrProfile", ocrProfile.name());
+        settings.put("preprocess", options.preprocessSteps().toString());
+        settings.put("ocrWorkers", ocrWorkers);
+        settings.put("resourceCacheMb", resourceCacheMb == null ? 0 : resourceCacheMb);
+        settings.put("reuseSimilar", reuseSimilar);
+        if (resourceCache != null) {
+            SharedResourceCache.Stats stats = resourceCache.stats();
+            settings.put("resourceCacheHits", stats.hits());
+            settings.put("resourceCacheMisses", stats.misses());
+        }
+        report.writeJson(reportFile, settings);
+        System.out.println("Report written to: " + reportFile.getAbsolutePath());
+        return report.failedDocuments() == 0 ? 0 : 2;
+    }
+
+    public static void main(String[] args) {
+        HotelContractParserCLI.configureMacHomebrewNativeLibs();
+
+        int exitCode = new CommandLine(new LoadTestCLI())
+            .setCaseInsensitiveEnumValuesAllowed(true)
+            .execute(args);
+        System.exit(exitCode);
+    }
+}
@@ -0,0 +1,96 @@
+package com.hotel.cli;
+
+import com.hotel.parser.ContractSimilarityIndex;
+import com.hotel.parser.DiffJsonWriter;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Outcome of a {@link LoadTestRunner} run. Latencies cover parsing plus writing the DOCX report of
+ * one document; turnaround times run from the start of the run, when every document was
+ * submitted, to the document's report being written, so they include time spent queued. Memory
+ * figures are peaks sampled during the run, with {@code peakRssBytes} -1 where the platform does
+ * not expose it.
+ *
+ * <p>{@code meanOcrMillis} and {@code meanPreprocessMillis} average over the pages OCR was run
+ * on; the second is the share spent in image preprocessing, so runs with and without
+ * {@code --preprocess} can be compared. {@code reusedPages} counts OCR pages whose text came from a
+ * near-duplicate through a {@link ContractSimilarityIndex}, and {@code ocrMillisAvoided} the OCR
+ * time those pages originally took.</p>
+ */
+public record LoadTestReport(int concurrency, int documents, int failedDocuments, int pages, int ocrPages,
+                             int ocrIncompletePages, long wallMillis, double pagesPerSecond,
+                             long p50Millis, long p90Millis, long p99Millis, long maxMillis,
+                             long p50TurnaroundMillis, long p90TurnaroundMillis,
+                             long meanOcrMillis, long meanPreprocessMillis,
+                             int reusedPages, long ocrMillisAvoided,
+                             long peakRssBytes, long peakHeapBytes) {
+
+    /**
+     * One-line human readable summary.
+     */
+    public String summary() {
+        return String.format(Locale.ROOT,
+                "%d documents (%d failed), %d pages (%d OCR, %d incomplete) in %d ms at concurrency %d: "
+                        + "%.2f pages/s, latency p50 %d ms, p90 %d ms, p99 %d ms, max %d ms, "
+                        + "turnaround p50 %d ms, p90 %d ms, OCR %d ms/page (preprocessing %d ms), "
+                        + "%d OCR pages reused (~%d ms avoided), peak RSS %s, peak heap %d MB",
+                documents, failedDocuments, pages, ocrPages, ocrIncompletePages, wallMillis, concurrency,
+                pagesPerSecond, p50Millis, p90Millis, p99Millis, maxMillis, p50TurnaroundMillis, p90TurnaroundMillis,
+                meanOcrMillis, meanPreprocessMillis, reusedPages, ocrMillisAvoided,
+                peakRssBytes < 0 ? "n/a" : (peakRssBytes / (1024 * 1024)) + " MB", peakHeapBytes / (1024 * 1024));
+    }
+
+    /**
+     * Write the report as JSON so runs can be compared across releases.
+     *
+     * @param settings run parameters recorded alongside the results (label, corpus shape, options);
+     *                 numbers and booleans are written as-is, anything else as a string
+     * @throws IOException if the file cannot be written
+     */
+    public void writeJson(File outputFile, Map<String, ?> settings) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(outputFile.toPath(), StandardCharsets.UTF_8)) {
+            out.write("{\n");
+            out.write("  \"settings\": {");
+            boolean first = true;
+            for (Map.Entry<String, ?> entry : settings.entrySet()) {
+                out.write(first ? "\n" : ",\n");
+                out.write("    " + DiffJsonWriter.quote(entry.getKey()) + ": " + jsonValue(entry.getValue()));
+                first = false;
+            }
+            out.write(first ? "},\n" : "\n  },\n");
+            out.write("  \"concurrency\": " + concurrency + ",\n");
+            out.write("  \"documents\": " + documents + ",\n");
+            out.write("  \"failedDocuments\": " + failedDocuments + ",\n");
+            out.write("  \"pages\": " + pages + ",\n");
+            out.write("  \"ocrPages\": " + ocrPages + ",\n");
+            out.write("  \"ocrIncompletePages\": " + ocrIncompletePages + ",\n");
+            out.write("  \"wallMillis\": " + wallMillis + ",\n");
+            out.write("  \"pagesPerSecond\": " + String.format(Locale.ROOT, "%.3f", pagesPerSecond) + ",\n");
+            out.write("  \"latencyMillis\": {\"p50\": " + p50Millis + ", \"p90\": " + p90Millis
+                    + ", \"p99\": " + p99Millis + ", \"max\": " + maxMillis + "},\n");
+            out.write("  \"turnaroundMillis\": {\"p50\": " + p50TurnaroundMillis
+                    + ", \"p90\": " + p90TurnaroundMillis + "},\n");
+            out.write("  \"ocrPageMillis\": {\"mean\": " + meanOcrMillis
+                    + ", \"preprocessMean\": " + meanPreprocessMillis + "},\n");
+            out.write("  \"similarityReuse\": {\"reusedPages\": " + reusedPages
+                    + ", \"ocrMillisAvoided\": " + ocrMillisAvoided + "},\n");
+            out.write("  \"peakRssBytes\": " + peakRssBytes + ",\n");
+            out.write("  \"peakHeapBytes\": " + peakHeapBytes + "\n");
+            out.write("}\n");
+        }
+    }
+
+    private static String jsonValue(Object value) {
+        if (value instanceof Number || value instanceof Boolean) {
+            return value.toString();
+        }
+        return DiffJsonWriter.quote(String.valueOf(value));
+    }
+}
@@ -0,0 +1,328 @@
+package com.hotel.cli;
+
+import com.hotel.parser.BatchScheduler;
+import com.hotel.parser.ContractSimilarityIndex;
+import com.hotel.parser.DocxWriter;
+import com.hotel.parser.PDFParser;
+import com.hotel.parser.PageExtractor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Runs the full parse-and-write pipeline over a set of PDFs at a fixed concurrency and reports
+ * throughput, per-document latency percentiles and peak memory. Each worker thread gets its own
+ * {@link PDFParser} from the supplied factory, since a {@link PageExtractor} keeps per-instance
+ * scratch state; anything the factory shares (buffer pool, circuit breaker, render governor) is
+ * exercised under contention exactly as in production.
+ *
+ * <p>Documents run in submission order on one pool, or on a {@link BatchScheduler} with separate
+ * native and OCR pools when constructed with {@code ocrWorkers}. When the factory's parsers share a
+ * {@link ContractSimilarityIndex}, passing it in as well reports the OCR time its reuse avoided.</p>
+ */
+public class LoadTestRunner {
+    private static final Logger logger = LoggerFactory.getLogger(LoadTestRunner.class);
+
+    private static final long MEMORY_SAMPLE_INTERVAL_MILLIS = 50;
+    private static final Path PROC_STATUS = Path.of("/proc/self/status");
+
+    private final Supplier<PDFParser> parserFactory;
+    private final int concurrency;
+    private final int ocrWorkers;
+    private final ContractSimilarityIndex similarityIndex;
+
+    /**
+     * @param parserFactory creates one parser per worker thread
+     * @param concurrency number of documents processed in parallel
+     */
+    public LoadTestRunner(Supplier<PDFParser> parserFactory, int concurrency) {
+        this(parserFactory, concurrency, 0);
+    }
+
+    /**
+     * @param parserFactory creates one parser per worker thread
+     * @param nativeWorkers workers for documents without OCR pages, or for all documents if
+     *                      {@code ocrWorkers} is 0
+     * @param ocrWorkers workers for documents with OCR pages on a {@link BatchScheduler}, or 0 to run
+     *                   every document in submission order on one pool
+     */
+    public LoadTestRunner(Supplier<PDFParser> parserFactory, int nativeWorkers, int ocrWorkers) {
+        this(parserFactory, nativeWorkers, ocrWorkers, null);
+    }
+
+    /**
+     * @param similarityIndex the index shared by the factory's parsers, or {@code null}
+     */
+    public LoadTestRunner(Supplier<PDFParser> parserFactory, int nativeWorkers, int ocrWorkers,
+                          ContractSimilarityIndex similarityIndex) {
+        if (nativeWorkers <= 0) {
+            throw new IllegalArgumentException("concurrency must be positive");
+        }
+        if (ocrWorkers < 0) {
+            throw new IllegalArgumentException("ocrWorkers must be zero or greater");
+        }
+        this.parserFactory = Objects.requireNonNull(parserFactory, "parserFactory");
+        this.concurrency = nativeWorkers;
+        this.ocrWorkers = ocrWorkers;
+        this.similarityIndex = similarityIndex;
+    }
+
+    /**
+     * Parse every document and write its DOCX report into {@code outputDirectory}. A document that
+     * fails is counted in {@link LoadTestReport#failedDocuments()} and does not stop the run.
+     *
+     * @throws IOException if the output directory cannot be created
+     * @throws InterruptedException if interrupted while waiting for the workers
+     */
+    public LoadTestReport run(List<File> documents, File outputDirectory) throws IOException, InterruptedException {
+        if (!outputDirectory.isDirectory() && !outputDirectory.mkdirs()) {
+            throw new IOException("Cannot create output directory: " + outputDirectory.getAbsolutePath());
+        }
+
+        DocxWriter writer = new DocxWriter();
+        MemorySampler sampler = new MemorySampler();
+        long avoidedBefore = similarityIndex == null ? 0 : similarityIndex.stats().ocrMillisAvoided();
+        long start = System.nanoTime();
+        sampler.start();
+        try {
+            List<DocumentOutcome> outcomes = ocrWorkers == 0
+                    ? runInOrder(documents, writer, outputDirectory, start)
+                    : runScheduled(documents, writer, outputDirectory, start);
+            long wallNanos = System.nanoTime() - start;
+            sampler.stop();
+            long avoided = similarityIndex == null ? 0 : similarityIndex.stats().ocrMillisAvoided() - avoidedBefore;
+            return summarize(outcomes, wallNanos, sampler, avoided);
+        } finally {
+            sampler.stop();
+        }
+    }
+
+    private List<DocumentOutcome> runInOrder(List<File> documents, DocxWriter writer, File outputDirectory,
+                                             long start) throws InterruptedException {
+        List<PDFParser> created = new CopyOnWriteArrayList<>();
+        ThreadLocal<PDFParser> parsers = ThreadLocal.withInitial(() -> {
+            PDFParser parser = parserFactory.get();
+            created.add(parser);
+            return parser;
+        });
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "load-test-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<DocumentOutcome>> futures = new ArrayList<>(documents.size());
+            for (File document : documents) {
+                futures.add(workers.submit(() -> process(parsers.get(), writer, document, outputDirectory, start)));
+            }
+            List<DocumentOutcome> outcomes = new ArrayList<>(futures.size());
+            for (Future<DocumentOutcome> future : futures) {
+                outcomes.add(awaitOutcome(future));
+            }
+            return outcomes;
+        } finally {
+            workers.shutdownNow();
+            created.forEach(PDFParser::close);
+        }
+    }
+
+    private List<DocumentOutcome> runScheduled(List<File> documents, DocxWriter writer, File outputDirectory,
+                                               long start) throws InterruptedException {
+        BatchScheduler scheduler = new BatchScheduler(parserFactory, concurrency, ocrWorkers);
+        try {
+            List<Future<DocumentOutcome>> futures = new ArrayList<>(documents.size());
+            for (File document : documents) {
+                futures.add(scheduler.submit(document,
+                        (parser, file) -> process(parser, writer, file, outputDirectory, start)));
+            }
+            scheduler.shutdown();
+            List<DocumentOutcome> outcomes = new ArrayList<>(futures.size());
+            for (Future<DocumentOutcome> future : futures) {
+                outcomes.add(awaitOutcome(future));
+            }
+            return outcomes;
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private static DocumentOutcome awaitOutcome(Future<DocumentOutcome> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            // process() catches everything it can recover from; anything else is a bug in the harness.
+            throw new IllegalStateException("Load test worker failed", e.getCause());
+        }
+    }
+
+    private static DocumentOutcome process(PDFParser parser, DocxWriter writer, File document, File outputDirectory,
+                                           long runStart) {
+        long start = System.nanoTime();
+        try {
+            PDFParser.ParseResult result = parser.parse(document);
+            writer.write(result, new File(outputDirectory, document.getName().replaceFirst("(?i)\\.pdf$", "") + ".docx"));
+            int ocrPages = 0;
+            int ocrRunPages = 0;
+            int reusedPages = 0;
+            long ocrMillis = 0;
+            long preprocessMillis = 0;
+            for (PageExtractor.Page page : result.getPages()) {
+                if (page.ocrStatus() != PageExtractor.OcrStatus.NOT_NEEDED) {
+                    ocrPages++;
+                }
+                if (page.ocrStatus() == PageExtractor.OcrStatus.REUSED) {
+                    reusedPages++;
+                }
+                if (page.ocrStatus() == PageExtractor.OcrStatus.COMPLETED
+                        || page.ocrStatus() == PageExtractor.OcrStatus.DEGRADED) {
+                    ocrRunPages++;
+                    ocrMillis += page.ocrMillis();
+                    preprocessMillis += page.preprocessMillis();
+                }
+            }
+            long end = System.nanoTime();
+            return new DocumentOutcome(end - start, end - runStart, result.getPageCount(), ocrPages,
+                    result.getOcrSkippedPageCount() + result.getOcrDegradedPageCount(), ocrRunPages, ocrMillis,
+                    preprocessMillis, reusedPages, true);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Load test document {} failed: {}", document.getName(), e.getMessage());
+            long end = System.nanoTime();
+            return new DocumentOutcome(end - start, end - runStart, 0, 0, 0, 0, 0, 0, 0, false);
+        }
+    }
+
+    private LoadTestReport summarize(List<DocumentOutcome> outcomes, long wallNanos, MemorySampler sampler,
+                                     long ocrMillisAvoided) {
+        long[] latencies = new long[outcomes.size()];
+        long[] turnarounds = new long[outcomes.size()];
+        int pages = 0;
+        int ocrPages = 0;
+        int ocrIncompletePages = 0;
+        int ocrRunPages = 0;
+        long ocrMillis = 0;
+        long preprocessMillis = 0;
+        int reusedPages = 0;
+        int failed = 0;
+        for (int i = 0; i < latencies.length; i++) {
+            DocumentOutcome outcome = outcomes.get(i);
+            latencies[i] = outcome.nanos() / 1_000_000;
+            turnarounds[i] = outcome.turnaroundNanos() / 1_000_000;
+            pages += outcome.pages();
+            ocrPages += outcome.ocrPages();
+            ocrIncompletePages += outcome.ocrIncompletePages();
+            ocrRunPages += outcome.ocrRunPages();
+            ocrMillis += outcome.ocrMillis();
+            preprocessMillis += outcome.preprocessMillis();
+            reusedPages += outcome.reusedPages();
+            if (!outcome.succeeded()) {
+                failed++;
+            }
+        }
+        Arrays.sort(latencies);
+        Arrays.sort(turnarounds);
+
+        long wallMillis = wallNanos / 1_000_000;
+        double pagesPerSecond = wallNanos == 0 ? 0 : pages / (wallNanos / 1e9);
+        LoadTestReport report = new LoadTestReport(concurrency + ocrWorkers, outcomes.size(), failed, pages, ocrPages,
+                ocrIncompletePages, wallMillis, pagesPerSecond,
+                percentile(latencies, 50), percentile(latencies, 90), percentile(latencies, 99),
+                latencies.length == 0 ? 0 : latencies[latencies.length - 1],
+                percentile(turnarounds, 50), percentile(turnarounds, 90),
+                ocrRunPages == 0 ? 0 : ocrMillis / ocrRunPages, ocrRunPages == 0 ? 0 : preprocessMillis / ocrRunPages,
+                reusedPages, ocrMillisAvoided, sampler.peakRssBytes(), sampler.peakHeapBytes());
+        logger.info("Load test finished: {}", report.summary());
+        return report;
+    }
+
+    /**
+     * Nearest-rank percentile of an ascending array.
+     */
+    static long percentile(long[] sorted, int percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    /**
+     * Resident set size of this process in bytes, or -1 where {@code /proc} is unavailable.
+     */
+    static long currentRssBytes() {
+        try {
+            for (String line : Files.readAllLines(PROC_STATUS)) {
+                if (line.startsWith("VmRSS:")) {
+                    String[] parts = line.trim().split("\\s+");
+                    return Long.parseLong(parts[1]) * 1024;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // Not Linux, or an unexpected format: RSS is reported as unavailable.
+        }
+        return -1;
+    }
+
+    private record DocumentOutcome(long nanos, long turnaroundNanos, int pages, int ocrPages, int ocrIncompletePages,
+                                   int ocrRunPages, long ocrMillis, long preprocessMillis, int reusedPages,
+                                   boolean succeeded) {
+    }
+
+    /**
+     * Samples RSS and heap usage on a background thread while the run is in progress.
+     */
+    private static final class MemorySampler {
+        private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        private final AtomicLong peakRss = new AtomicLong(-1);
+        private final AtomicLong peakHeap = new AtomicLong();
+        private ScheduledExecutorService timer;
+
+        void start() {
+            timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "load-test-memory-sampler");
+                thread.setDaemon(true);
+                return thread;
+            });
+            timer.scheduleAtFixedRate(this::sample, 0, MEMORY_SAMPLE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        }
+
+        void stop() {
+            if (timer != null) {
+                timer.shutdownNow();
+                timer = null;
+                sample();
+            }
+        }
+
+        private void sample() {
+            peakRss.accumulateAndGet(currentRssBytes(), Math::max);
+            peakHeap.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+        }
+
+        long peakRssBytes() {
+            return peakRss.get();
+        }
+
+        long peakHeapBytes() {
+            return peakHeap.get();
+        }
+    }
+}
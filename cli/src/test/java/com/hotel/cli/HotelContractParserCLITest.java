@@ -8,6 +8,7 @@ import picocli.CommandLine;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -94,6 +95,78 @@ class HotelContractParserCLITest {
         assertEquals(1, exitCode);
     }
 
+    @Test
+    void testUnknownOcrProfile(@TempDir Path tempDir) throws IOException {
+        File testPdf = tempDir.resolve("test.pdf").toFile();
+        try (PDDocument doc = new PDDocument()) {
+            doc.addPage(new PDPage());
+            doc.save(testPdf);
+        }
+
+        HotelContractParserCLI cli = new HotelContractParserCLI();
+        CommandLine cmd = new CommandLine(cli);
+        int exitCode = cmd.execute(testPdf.getAbsolutePath(), "--ocr-profile", "turbo");
+
+        assertEquals(1, exitCode);
+    }
+
+    @Test
+    void testDiffAgainstWritesJson(@TempDir Path tempDir) throws IOException {
+        File oldPdf = tempDir.resolve("old.pdf").toFile();
+        File newPdf = tempDir.resolve("new.pdf").toFile();
+        for (File pdf : new File[]{oldPdf, newPdf}) {
+            try (PDDocument doc = new PDDocument()) {
+                doc.addPage(new PDPage());
+                doc.save(pdf);
+            }
+        }
+
+        File outputFile = tempDir.resolve("changes.json").toFile();
+        HotelContractParserCLI cli = new HotelContractParserCLI();
+        CommandLine cmd = new CommandLine(cli);
+        int exitCode = cmd.execute(newPdf.getAbsolutePath(), "--diff-against", oldPdf.getAbsolutePath(),
+            "-o", outputFile.getAbsolutePath());
+
+        assertEquals(0, exitCode);
+        assertTrue(Files.readString(outputFile.toPath()).contains("\"changes\": []"));
+    }
+
+    @Test
+    void testShardedParse(@TempDir Path tempDir) throws IOException {
+        File testPdf = tempDir.resolve("test.pdf").toFile();
+        try (PDDocument doc = new PDDocument()) {
+            doc.addPage(new PDPage());
+            doc.addPage(new PDPage());
+            doc.addPage(new PDPage());
+            doc.save(testPdf);
+        }
+
+        File outputFile = tempDir.resolve("output.docx").toFile();
+        HotelContractParserCLI cli = new HotelContractParserCLI();
+        CommandLine cmd = new CommandLine(cli);
+        int exitCode = cmd.execute(testPdf.getAbsolutePath(), "--workers", "2", "--shard-pages", "2",
+            "-o", outputFile.getAbsolutePath());
+
+        assertEquals(0, exitCode);
+        assertTrue(outputFile.exists());
+    }
+
+    @Test
+    void testCheckpointDirWithWorkersIsRejected(@TempDir Path tempDir) throws IOException {
+        File testPdf = tempDir.resolve("test.pdf").toFile();
+        try (PDDocument doc = new PDDocument()) {
+            doc.addPage(new PDPage());
+            doc.save(testPdf);
+        }
+
+        HotelContractParserCLI cli = new HotelContractParserCLI();
+        CommandLine cmd = new CommandLine(cli);
+        int exitCode = cmd.execute(testPdf.getAbsolutePath(), "--workers", "2",
+            "--checkpoint-dir", tempDir.resolve("journal").toString());
+
+        assertEquals(1, exitCode);
+    }
+
     @Test
     void testHelpOption() {
         HotelContractParserCLI cli = new HotelContractParserCLI();
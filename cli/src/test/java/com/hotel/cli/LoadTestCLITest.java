@@ -0,0 +1,42 @@
+package com.hotel.cli;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import picocli.CommandLine;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoadTestCLITest {
+
+    @Test
+    void testRunWritesReport(@TempDir Path tempDir) throws IOException {
+        File reportFile = tempDir.resolve("report.json").toFile();
+        CommandLine cmd = new CommandLine(new LoadTestCLI()).setCaseInsensitiveEnumValuesAllowed(true);
+        int exitCode = cmd.execute(
+            "--documents", "2", "--min-pages", "1", "--max-pages", "2",
+            "--mix", "native=1", "--concurrency", "2",
+            "--corpus-dir", tempDir.resolve("corpus").toString(),
+            "--output-dir", tempDir.resolve("out").toString(),
+            "--label", "ci", "--report", reportFile.getAbsolutePath());
+
+        assertEquals(0, exitCode);
+        String report = Files.readString(reportFile.toPath());
+        assertTrue(report.contains("\"label\": \"ci\""));
+        assertTrue(report.contains("\"documents\": 2"));
+    }
+
+    @Test
+    void testInvalidMix(@TempDir Path tempDir) {
+        CommandLine cmd = new CommandLine(new LoadTestCLI()).setCaseInsensitiveEnumValuesAllowed(true);
+        int exitCode = cmd.execute("--mix", "native=0",
+            "--corpus-dir", tempDir.resolve("corpus").toString(),
+            "--report", tempDir.resolve("report.json").toString());
+
+        assertEquals(1, exitCode);
+    }
+}
@@ -0,0 +1,61 @@
+package com.hotel.cli;
+
+import com.hotel.parser.PDFParser;
+import com.hotel.parser.SyntheticContractCorpus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoadTestRunnerTest {
+
+    private static final SyntheticContractCorpus.Spec SPEC = new SyntheticContractCorpus.Spec(
+            4, 2, 4,
+            Map.of(SyntheticContractCorpus.PageKind.NATIVE, 2,
+                    SyntheticContractCorpus.PageKind.SCANNED, 1,
+                    SyntheticContractCorpus.PageKind.MIXED, 1),
+            50, 7L);
+
+    @Test
+    void reportsThroughputAndLatencyForConcurrentRun(@TempDir Path tempDir) throws Exception {
+        List<File> corpus = new SyntheticContractCorpus(SPEC).generate(tempDir.resolve("corpus").toFile());
+        File output = tempDir.resolve("out").toFile();
+
+        LoadTestReport report = new LoadTestRunner(PDFParser::new, 2).run(corpus, output);
+
+        assertEquals(4, report.documents());
+        assertEquals(0, report.failedDocuments());
+        assertTrue(report.pages() >= 8);
+        assertTrue(report.ocrPages() > 0, "scanned pages should be routed to OCR");
+        assertTrue(report.pagesPerSecond() > 0);
+        assertTrue(report.p50Millis() <= report.p99Millis() && report.p99Millis() <= report.maxMillis());
+        assertTrue(report.peakHeapBytes() > 0);
+        assertTrue(report.meanPreprocessMillis() <= report.meanOcrMillis());
+        assertEquals(4, output.listFiles((dir, name) -> name.endsWith(".docx")).length);
+
+        File json = tempDir.resolve("report.json").toFile();
+        report.writeJson(json, Map.of("label", "test"));
+        String content = Files.readString(json.toPath());
+        assertTrue(content.contains("\"label\": \"test\""));
+        assertTrue(content.contains("\"p99\": " + report.p99Millis()));
+        assertTrue(content.contains("\"preprocessMean\": " + report.meanPreprocessMillis()));
+        assertTrue(content.contains("\"ocrMillisAvoided\": 0"));
+    }
+
+    @Test
+    void percentileUsesNearestRank() {
+        long[] sorted = {10, 20, 30, 40, 50, 60, 70, 80, 90, 100};
+
+        assertEquals(50, LoadTestRunner.percentile(sorted, 50));
+        assertEquals(100, LoadTestRunner.percentile(sorted, 99));
+        assertEquals(10, LoadTestRunner.percentile(new long[]{10}, 50));
+        assertEquals(0, LoadTestRunner.percentile(new long[0], 50));
+    }
+}
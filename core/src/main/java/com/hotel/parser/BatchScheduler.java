@@ -0,0 +1,450 @@
+package com.hotel.parser;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSStream;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Schedules a batch of documents on two independently sized worker pools, so a few large scans do
+ * not hold up hundreds of born-digital contracts. On submission each document gets a cheap
+ * pre-flight {@linkplain #estimate(File) cost estimate} from its page dictionaries;
+ * documents with no likely OCR pages go to the native tier, the rest to the OCR tier.
+ *
+ * <p>Within a tier the cheapest document runs first. A document that has waited longer than
+ * {@code maxWait} is taken ahead of cheaper ones, oldest first, so large documents cannot starve;
+ * a {@code maxWait} of zero gives plain FIFO order. Idle OCR workers also take native documents,
+ * and idle native workers take OCR documents, at most half of them at a time so native documents
+ * still arriving find a free worker. Once the scheduler is {@linkplain #shutdown shut down} every
+ * idle native worker helps drain the OCR tier, so no worker sits idle while the batch still has
+ * work.</p>
+ *
+ * <p>Each worker thread gets its own {@link PDFParser} from the factory, created when it takes its
+ * first document, since a {@link PageExtractor} keeps per-instance scratch state. A document whose
+ * task fails, even with an {@link Error}, fails its own future only.</p>
+ */
+public class BatchScheduler implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(BatchScheduler.class);
+
+    public static final Duration DEFAULT_MAX_WAIT = Duration.ofSeconds(30);
+
+    /** Rough cost of native text extraction per page. */
+    static final long NATIVE_MILLIS_PER_PAGE = 5;
+    /** Rough cost of rendering plus OCR per megapixel of rendered page. */
+    static final long OCR_MILLIS_PER_MEGAPIXEL = 150;
+    /** An image with at least this many pixels per square point of page is taken to be a scan. */
+    private static final double SCAN_PIXELS_PER_PAGE_POINT = 0.25;
+
+    /**
+     * Worker pool a document is scheduled on.
+     */
+    public enum Tier {
+        NATIVE,
+        OCR
+    }
+
+    /**
+     * Work done for one document on a scheduler worker.
+     */
+    @FunctionalInterface
+    public interface DocumentTask<T> {
+        T run(PDFParser parser, File pdfFile) throws IOException;
+    }
+
+    /**
+     * Pre-flight cost estimate of a document.
+     *
+     * @param pages number of pages
+     * @param ocrPages pages that look scanned or have no fonts, and will most likely need OCR
+     * @param ocrMegapixels pixels rendered for those pages at the OCR DPI, in millions
+     * @param estimatedMillis estimated single-threaded processing time
+     */
+    public record DocumentCost(int pages, int ocrPages, double ocrMegapixels, long estimatedMillis) {
+        static final DocumentCost UNKNOWN = new DocumentCost(0, 0, 0, 0);
+
+        public Tier tier() {
+            return ocrPages == 0 ? Tier.NATIVE : Tier.OCR;
+        }
+    }
+
+    private final Supplier<PDFParser> parserFactory;
+    private final int ocrDpi;
+    private final long maxWaitNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final Map<Tier, List<Job<?>>> queues = new EnumMap<>(Tier.class);
+    private final List<Thread> workers = new ArrayList<>();
+    private final int maxNativeHelpers;
+    private int nativeHelpers; // Native workers running OCR documents
+    private boolean shutdown;
+    private long sequence;
+
+    public BatchScheduler(Supplier<PDFParser> parserFactory, int nativeWorkers, int ocrWorkers) {
+        this(parserFactory, nativeWorkers, ocrWorkers, PageExtractorOptions.defaults().ocrDpi(), DEFAULT_MAX_WAIT);
+    }
+
+    /**
+     * @param parserFactory creates one parser per worker thread
+     * @param nativeWorkers threads running documents without OCR pages
+     * @param ocrWorkers threads running documents with OCR pages
+     * @param ocrDpi DPI the parsers render OCR pages at, used for the cost estimate
+     * @param maxWait how long a document may be passed over for cheaper ones
+     */
+    public BatchScheduler(Supplier<PDFParser> parserFactory, int nativeWorkers, int ocrWorkers, int ocrDpi,
+                          Duration maxWait) {
+        if (nativeWorkers <= 0 || ocrWorkers <= 0) {
+            throw new IllegalArgumentException("nativeWorkers and ocrWorkers must be positive");
+        }
+        if (ocrDpi <= 0) {
+            throw new IllegalArgumentException("ocrDpi must be positive");
+        }
+        if (maxWait == null || maxWait.isNegative()) {
+            throw new IllegalArgumentException("maxWait must be zero or greater");
+        }
+        this.parserFactory = Objects.requireNonNull(parserFactory, "parserFactory");
+        this.ocrDpi = ocrDpi;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.maxNativeHelpers = nativeWorkers / 2;
+        for (Tier tier : Tier.values()) {
+            queues.put(tier, new ArrayList<>());
+        }
+        startWorkers(Tier.NATIVE, nativeWorkers);
+        startWorkers(Tier.OCR, ocrWorkers);
+    }
+
+    /**
+     * Parse {@code pdfFile} on the tier its cost estimate selects.
+     */
+    public CompletableFuture<PDFParser.ParseResult> submit(File pdfFile) {
+        return submit(pdfFile, PDFParser::parse);
+    }
+
+    /**
+     * Run {@code task} for {@code pdfFile} on the tier its cost estimate selects. The pre-flight
+     * estimate runs on the calling thread; it opens the document but reads page dictionaries only.
+     * A document that cannot be estimated is scheduled as a cheap native one, so the task reports
+     * the actual failure.
+     *
+     * @throws IllegalStateException if the scheduler has been shut down
+     */
+    public <T> CompletableFuture<T> submit(File pdfFile, DocumentTask<T> task) {
+        Objects.requireNonNull(pdfFile, "pdfFile");
+        Objects.requireNonNull(task, "task");
+        checkAccepting();
+        DocumentCost cost;
+        try {
+            cost = estimate(pdfFile);
+        } catch (IOException | RuntimeException e) {
+            logger.debug("Cannot estimate {}: {}", pdfFile.getName(), e.getMessage());
+            cost = DocumentCost.UNKNOWN;
+        }
+
+        CompletableFuture<T> result = new CompletableFuture<>();
+        lock.lock();
+        try {
+            checkAccepting();
+            queues.get(cost.tier()).add(new Job<>(pdfFile, task, cost, result, sequence++, System.nanoTime()));
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        return result;
+    }
+
+    /**
+     * Pre-flight cost estimate of {@code pdfFile} at this scheduler's OCR DPI.
+     */
+    public DocumentCost estimate(File pdfFile) throws IOException {
+        try (PDDocument document = Loader.loadPDF(pdfFile)) {
+            return estimate(document, ocrDpi);
+        }
+    }
+
+    /**
+     * Estimate the cost of a document from its page dictionaries, without extracting text or
+     * decoding images. A page is counted as an OCR page if it uses no fonts or shows an image with
+     * scan-like resolution; its cost grows with the pixels rendered at {@code ocrDpi}.
+     */
+    static DocumentCost estimate(PDDocument document, int ocrDpi) {
+        int pages = 0;
+        int ocrPages = 0;
+        double ocrMegapixels = 0;
+        for (PDPage page : document.getPages()) {
+            pages++;
+            if (likelyNeedsOcr(page)) {
+                ocrPages++;
+                PDRectangle box = page.getCropBox();
+                ocrMegapixels += (box.getWidth() / 72.0 * ocrDpi) * (box.getHeight() / 72.0 * ocrDpi) / 1e6;
+            }
+        }
+        long millis = pages * NATIVE_MILLIS_PER_PAGE + Math.round(ocrMegapixels * OCR_MILLIS_PER_MEGAPIXEL);
+        return new DocumentCost(pages, ocrPages, ocrMegapixels, millis);
+    }
+
+    private static boolean likelyNeedsOcr(PDPage page) {
+        PDResources resources = page.getResources();
+        if (resources == null || !resources.getFontNames().iterator().hasNext()) {
+            return true;
+        }
+        COSDictionary xObjects = resources.getCOSObject().getCOSDictionary(COSName.XOBJECT);
+        if (xObjects == null) {
+            return false;
+        }
+        PDRectangle box = page.getCropBox();
+        double scanPixels = box.getWidth() * box.getHeight() * SCAN_PIXELS_PER_PAGE_POINT;
+        for (COSName name : xObjects.keySet()) {
+            COSBase xObject = xObjects.getDictionaryObject(name);
+            if (xObject instanceof COSStream stream && COSName.IMAGE.equals(stream.getCOSName(COSName.SUBTYPE))) {
+                int width = stream.getInt(COSName.WIDTH);
+                int height = stream.getInt(COSName.HEIGHT);
+                if (width > 0 && height > 0 && (long) width * height >= scanPixels) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Stop accepting documents. Queued documents still run; every idle native worker may now help
+     * with the OCR tier.
+     */
+    public void shutdown() {
+        lock.lock();
+        try {
+            shutdown = true;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stop accepting documents, cancel the queued ones and interrupt the workers.
+     */
+    public void shutdownNow() {
+        lock.lock();
+        try {
+            shutdown = true;
+            for (List<Job<?>> queue : queues.values()) {
+                for (Job<?> job : queue) {
+                    job.result().cancel(false);
+                }
+                queue.clear();
+            }
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        for (Thread worker : workers) {
+            worker.interrupt();
+        }
+    }
+
+    /**
+     * Wait until every queued document has run and the workers have exited.
+     */
+    public void awaitTermination() throws InterruptedException {
+        for (Thread worker : workers) {
+            worker.join();
+        }
+    }
+
+    /**
+     * {@link #shutdown} and wait for the queued documents to finish.
+     */
+    @Override
+    public void close() {
+        shutdown();
+        try {
+            awaitTermination();
+        } catch (InterruptedException e) {
+            shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void checkAccepting() {
+        lock.lock();
+        try {
+            if (shutdown) {
+                throw new IllegalStateException("Scheduler has been shut down");
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void startWorkers(Tier tier, int count) {
+        for (int i = 0; i < count; i++) {
+            Thread thread = new Thread(() -> work(tier), "batch-" + tier.name().toLowerCase(Locale.ROOT) + "-worker-" + i);
+            thread.setDaemon(true);
+            workers.add(thread);
+            thread.start();
+        }
+    }
+
+    private void work(Tier tier) {
+        PDFParser parser = null;
+        try {
+            Job<?> job;
+            while ((job = next(tier)) != null) {
+                try {
+                    if (parser == null) {
+                        parser = createParser(job);
+                    }
+                    if (parser != null) {
+                        job.run(parser);
+                    }
+                } finally {
+                    if (tier == Tier.NATIVE && job.cost().tier() == Tier.OCR) {
+                        finishHelping();
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            // shutdownNow(): exit without taking further work.
+        } finally {
+            if (parser != null) {
+                parser.close();
+            }
+        }
+    }
+
+    /**
+     * Create the worker's parser, or fail {@code job} with the reason; the next job tries again.
+     */
+    private PDFParser createParser(Job<?> job) {
+        try {
+            return parserFactory.get();
+        } catch (RuntimeException | Error e) {
+            logger.warn("Cannot create a parser for {}: {}", job.pdfFile().getName(), e.toString());
+            job.result().completeExceptionally(e);
+            if (isFatal(e)) {
+                throw e;
+            }
+            return null;
+        }
+    }
+
+    private void finishHelping() {
+        lock.lock();
+        try {
+            nativeHelpers--;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Whether {@code e} leaves the VM unfit to run further documents. Running out of memory or stack
+     * on one document does not: its memory is released once the failed task unwinds.
+     */
+    private static boolean isFatal(Throwable e) {
+        return e instanceof InternalError || e instanceof UnknownError;
+    }
+
+    private Job<?> next(Tier tier) throws InterruptedException {
+        Tier other = tier == Tier.NATIVE ? Tier.OCR : Tier.NATIVE;
+        lock.lockInterruptibly();
+        try {
+            while (true) {
+                Job<?> job = take(queues.get(tier));
+                // Native work is short, so OCR workers can always take it; native workers keep some of
+                // their number free for native work until nothing more can arrive.
+                if (job == null && tier == Tier.OCR) {
+                    job = take(queues.get(other));
+                } else if (job == null && (shutdown || nativeHelpers < maxNativeHelpers)) {
+                    job = take(queues.get(other));
+                    if (job != null) {
+                        nativeHelpers++;
+                    }
+                }
+                if (job != null) {
+                    return job;
+                }
+                if (shutdown) {
+                    return null;
+                }
+                changed.await();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Remove and return the next job of a queue: the oldest job that has waited longer than
+     * {@code maxWait}, or else the cheapest job.
+     */
+    private Job<?> take(List<Job<?>> queue) {
+        long now = System.nanoTime();
+        Job<?> best = null;
+        for (Job<?> job : queue) {
+            if (best == null || runsBefore(job, best, now)) {
+                best = job;
+            }
+        }
+        if (best != null) {
+            queue.remove(best);
+        }
+        return best;
+    }
+
+    private boolean runsBefore(Job<?> a, Job<?> b, long now) {
+        boolean aStarved = now - a.submittedNanos() >= maxWaitNanos;
+        boolean bStarved = now - b.submittedNanos() >= maxWaitNanos;
+        if (aStarved != bStarved) {
+            return aStarved;
+        }
+        if (!aStarved && a.cost().estimatedMillis() != b.cost().estimatedMillis()) {
+            return a.cost().estimatedMillis() < b.cost().estimatedMillis();
+        }
+        return a.sequence() < b.sequence();
+    }
+
+    private record Job<T>(File pdfFile, DocumentTask<T> task, DocumentCost cost, CompletableFuture<T> result,
+                          long sequence, long submittedNanos) {
+
+        void run(PDFParser parser) {
+            if (result.isDone()) {
+                return;
+            }
+            logger.debug("Starting {} on the {} tier (~{} ms estimated) after {} ms in queue", pdfFile.getName(),
+                    cost.tier(), cost.estimatedMillis(), (System.nanoTime() - submittedNanos) / 1_000_000);
+            try {
+                result.complete(task.run(parser, pdfFile));
+            } catch (IOException | RuntimeException e) {
+                result.completeExceptionally(e);
+            } catch (Throwable e) {
+                logger.error("{} failed on the {} tier: {}", pdfFile.getName(), cost.tier(), e.toString());
+                result.completeExceptionally(e);
+                if (isFatal(e)) {
+                    throw e;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,354 @@
+package com.hotel.parser;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Compares two versions of a parsed contract. Pages are first aligned by a hash of their normalized
+ * lines, so unchanged pages cost one hash comparison each; a Myers diff over line hashes then runs
+ * only inside the page ranges that differ. Whitespace differences are ignored.
+ */
+public class ContractDiff {
+    private static final Logger logger = LoggerFactory.getLogger(ContractDiff.class);
+
+    /**
+     * Edit distance beyond which a region is no longer diffed line by line as a whole, bounding
+     * memory on wholly rewritten sections. Such a region is diffed page by page when it spans as
+     * many pages in both versions, and reported as one replacement otherwise.
+     */
+    static final int MAX_EDIT_DISTANCE = 2000;
+
+    /**
+     * Kind of change between the two versions.
+     */
+    public enum ChangeType {
+        ADDED,
+        REMOVED,
+        MODIFIED
+    }
+
+    /**
+     * One contiguous change. Page and line numbers are 1-based and point at the first affected line
+     * in each version; for pure additions or removals the other side points at the neighbouring
+     * position where the change applies.
+     */
+    public record Change(ChangeType type, int oldPage, int oldLine, int newPage, int newLine,
+                         List<String> oldLines, List<String> newLines) {
+        public Change {
+            Objects.requireNonNull(type, "type");
+            oldLines = List.copyOf(oldLines);
+            newLines = List.copyOf(newLines);
+        }
+    }
+
+    /**
+     * Outcome of {@link #diff}.
+     */
+    public record DiffResult(String oldName, String newName, int oldPageCount, int newPageCount,
+                             int unchangedPages, List<Change> changes) {
+        public DiffResult {
+            changes = List.copyOf(changes);
+        }
+
+        public boolean hasChanges() {
+            return !changes.isEmpty();
+        }
+    }
+
+    /**
+     * Diff {@code oldResult} against {@code newResult}.
+     */
+    public DiffResult diff(PDFParser.ParseResult oldResult, PDFParser.ParseResult newResult) {
+        Objects.requireNonNull(oldResult, "oldResult");
+        Objects.requireNonNull(newResult, "newResult");
+        long start = System.nanoTime();
+
+        List<PageLines> oldPages = toPageLines(oldResult.getPages());
+        List<PageLines> newPages = toPageLines(newResult.getPages());
+        long[] oldPageHashes = pageHashes(oldPages);
+        long[] newPageHashes = pageHashes(newPages);
+
+        List<Change> changes = new ArrayList<>();
+        List<int[]> pageHunks = hunks(oldPageHashes, newPageHashes);
+        int changedOldPages = 0;
+        for (int[] hunk : pageHunks) {
+            changedOldPages += hunk[1] - hunk[0];
+            diffPageRange(oldPages, hunk[0], hunk[1], newPages, hunk[2], hunk[3], changes);
+        }
+
+        logger.debug("Diffed {} against {} pages in {} ms: {} changed page ranges, {} changes",
+                oldPages.size(), newPages.size(), (System.nanoTime() - start) / 1_000_000, pageHunks.size(), changes.size());
+        return new DiffResult(oldResult.getFileName(), newResult.getFileName(), oldPages.size(), newPages.size(),
+                oldPages.size() - changedOldPages, changes);
+    }
+
+    private void diffPageRange(List<PageLines> oldPages, int oldFrom, int oldTo,
+                               List<PageLines> newPages, int newFrom, int newTo, List<Change> changes) {
+        LineSeq oldLines = LineSeq.of(oldPages, oldFrom, oldTo);
+        LineSeq newLines = LineSeq.of(newPages, newFrom, newTo);
+        int[] oldAnchor = anchor(oldPages, oldFrom);
+        int[] newAnchor = anchor(newPages, newFrom);
+
+        List<int[]> lineHunks = hunksWithin(oldLines.hashes, newLines.hashes);
+        if (lineHunks == null) {
+            int pageCount = oldTo - oldFrom;
+            if (pageCount > 1 && pageCount == newTo - newFrom) {
+                // Too far apart to align as a whole, but the pages pair up one to one: diff each pair.
+                for (int p = 0; p < pageCount; p++) {
+                    diffPageRange(oldPages, oldFrom + p, oldFrom + p + 1,
+                            newPages, newFrom + p, newFrom + p + 1, changes);
+                }
+                return;
+            }
+            lineHunks = List.of(new int[]{0, oldLines.hashes.length, 0, newLines.hashes.length});
+        }
+        for (int[] hunk : lineHunks) {
+            int oldStart = hunk[0];
+            int oldEnd = hunk[1];
+            int newStart = hunk[2];
+            int newEnd = hunk[3];
+            ChangeType type = oldStart == oldEnd ? ChangeType.ADDED
+                    : newStart == newEnd ? ChangeType.REMOVED
+                    : ChangeType.MODIFIED;
+            int[] oldPosition = oldLines.position(oldStart, oldAnchor);
+            int[] newPosition = newLines.position(newStart, newAnchor);
+            changes.add(new Change(type, oldPosition[0], oldPosition[1], newPosition[0], newPosition[1],
+                    oldLines.text(oldStart, oldEnd), newLines.text(newStart, newEnd)));
+        }
+    }
+
+    /**
+     * Non-equal regions between two hash sequences as {@code [aStart, aEnd, bStart, bEnd]}.
+     */
+    static List<int[]> hunks(long[] a, long[] b) {
+        List<int[]> result = hunksWithin(a, b);
+        return result != null ? result : List.of(new int[]{0, a.length, 0, b.length});
+    }
+
+    /**
+     * As {@link #hunks}, or {@code null} if the edit distance exceeds {@link #MAX_EDIT_DISTANCE}.
+     */
+    private static List<int[]> hunksWithin(long[] a, long[] b) {
+        int prefix = 0;
+        while (prefix < a.length && prefix < b.length && a[prefix] == b[prefix]) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < a.length - prefix && suffix < b.length - prefix
+                && a[a.length - 1 - suffix] == b[b.length - 1 - suffix]) {
+            suffix++;
+        }
+        long[] midA = Arrays.copyOfRange(a, prefix, a.length - suffix);
+        long[] midB = Arrays.copyOfRange(b, prefix, b.length - suffix);
+
+        List<int[]> result = new ArrayList<>();
+        if (midA.length == 0 && midB.length == 0) {
+            return result;
+        }
+
+        boolean[] deleted = new boolean[midA.length];
+        boolean[] inserted = new boolean[midB.length];
+        if (!myers(midA, midB, deleted, inserted)) {
+            return null;
+        }
+
+        int i = 0;
+        int j = 0;
+        while (i < midA.length || j < midB.length) {
+            if (i < midA.length && j < midB.length && !deleted[i] && !inserted[j]) {
+                i++;
+                j++;
+                continue;
+            }
+            int i0 = i;
+            int j0 = j;
+            while ((i < midA.length && deleted[i]) || (j < midB.length && inserted[j])) {
+                while (i < midA.length && deleted[i]) {
+                    i++;
+                }
+                while (j < midB.length && inserted[j]) {
+                    j++;
+                }
+            }
+            result.add(new int[]{prefix + i0, prefix + i, prefix + j0, prefix + j});
+        }
+        return result;
+    }
+
+    /**
+     * Myers O((N+M)D) shortest edit script, marking deleted elements of {@code a} and inserted
+     * elements of {@code b}. Each step's frontier is kept only for diagonals {@code -d..d}, so memory
+     * is O(D^2).
+     *
+     * @return {@code false} if the edit distance exceeds {@link #MAX_EDIT_DISTANCE}
+     */
+    private static boolean myers(long[] a, long[] b, boolean[] deleted, boolean[] inserted) {
+        int n = a.length;
+        int m = b.length;
+        int max = Math.min(n + m, MAX_EDIT_DISTANCE);
+        int offset = max + 1;
+        int[] v = new int[2 * max + 3];
+        List<int[]> trace = new ArrayList<>();
+
+        int found = -1;
+        for (int d = 0; d <= max && found < 0; d++) {
+            for (int k = -d; k <= d; k += 2) {
+                int x;
+                if (k == -d || (k != d && v[offset + k - 1] < v[offset + k + 1])) {
+                    x = v[offset + k + 1];
+                } else {
+                    x = v[offset + k - 1] + 1;
+                }
+                int y = x - k;
+                while (x < n && y < m && a[x] == b[y]) {
+                    x++;
+                    y++;
+                }
+                v[offset + k] = x;
+                if (x >= n && y >= m) {
+                    found = d;
+                }
+            }
+            trace.add(Arrays.copyOfRange(v, offset - d, offset + d + 1));
+        }
+        if (found < 0) {
+            return false;
+        }
+
+        int x = n;
+        int y = m;
+        for (int d = found; d > 0; d--) {
+            int[] previous = trace.get(d - 1);
+            int k = x - y;
+            boolean down = k == -d || (k != d && previous[k - 1 + d - 1] < previous[k + 1 + d - 1]);
+            int prevK = down ? k + 1 : k - 1;
+            int prevX = previous[prevK + d - 1];
+            int prevY = prevX - prevK;
+            if (down) {
+                inserted[prevY] = true;
+            } else {
+                deleted[prevX] = true;
+            }
+            x = prevX;
+            y = prevY;
+        }
+        return true;
+    }
+
+    private static List<PageLines> toPageLines(List<PageExtractor.Page> pages) {
+        List<PageLines> result = new ArrayList<>(pages.size());
+        for (PageExtractor.Page page : pages) {
+            List<String> lines = new ArrayList<>();
+            for (String line : page.text().split("\r?\n")) {
+                String normalized = line.strip().replaceAll("\\s+", " ");
+                if (!normalized.isEmpty()) {
+                    lines.add(normalized);
+                }
+            }
+            long[] hashes = new long[lines.size()];
+            for (int i = 0; i < hashes.length; i++) {
+                hashes[i] = hash64(lines.get(i));
+            }
+            result.add(new PageLines(page.pageNumber(), lines, hashes));
+        }
+        return result;
+    }
+
+    private static long[] pageHashes(List<PageLines> pages) {
+        long[] hashes = new long[pages.size()];
+        for (int i = 0; i < hashes.length; i++) {
+            long hash = 0x2545F4914F6CDD1DL;
+            for (long line : pages.get(i).hashes()) {
+                hash = DocumentFingerprinter.mix(hash ^ line);
+            }
+            hashes[i] = hash;
+        }
+        return hashes;
+    }
+
+    /**
+     * 64-bit FNV-1a over the string's characters.
+     */
+    static long hash64(String value) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Position used for changes that start past the last line of a range: the line after the last
+     * line of the preceding page, or line 1 of the first page.
+     */
+    private static int[] anchor(List<PageLines> pages, int pageIndex) {
+        if (pageIndex < pages.size()) {
+            return new int[]{pages.get(pageIndex).pageNumber(), 1};
+        }
+        if (pages.isEmpty()) {
+            return new int[]{1, 1};
+        }
+        PageLines last = pages.get(pages.size() - 1);
+        return new int[]{last.pageNumber(), last.lines().size() + 1};
+    }
+
+    private record PageLines(int pageNumber, List<String> lines, long[] hashes) {
+    }
+
+    /**
+     * Lines of a page range flattened into one sequence, remembering where each came from.
+     */
+    private static final class LineSeq {
+        final long[] hashes;
+        final String[] texts;
+        final int[] pages;
+        final int[] lineNumbers;
+
+        private LineSeq(int size) {
+            hashes = new long[size];
+            texts = new String[size];
+            pages = new int[size];
+            lineNumbers = new int[size];
+        }
+
+        static LineSeq of(List<PageLines> pageLines, int from, int to) {
+            int size = 0;
+            for (int p = from; p < to; p++) {
+                size += pageLines.get(p).lines().size();
+            }
+            LineSeq seq = new LineSeq(size);
+            int index = 0;
+            for (int p = from; p < to; p++) {
+                PageLines page = pageLines.get(p);
+                for (int line = 0; line < page.lines().size(); line++) {
+                    seq.hashes[index] = page.hashes()[line];
+                    seq.texts[index] = page.lines().get(line);
+                    seq.pages[index] = page.pageNumber();
+                    seq.lineNumbers[index] = line + 1;
+                    index++;
+                }
+            }
+            return seq;
+        }
+
+        int[] position(int index, int[] fallback) {
+            if (index < pages.length) {
+                return new int[]{pages[index], lineNumbers[index]};
+            }
+            if (pages.length > 0) {
+                return new int[]{pages[pages.length - 1], lineNumbers[pages.length - 1] + 1};
+            }
+            return fallback;
+        }
+
+        List<String> text(int from, int to) {
+            return Arrays.asList(Arrays.copyOfRange(texts, from, to));
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package com.hotel.parser;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * In-memory locality-sensitive hash index of previously parsed contracts. Candidates are found by
+ * banding each document's MinHash (for text) and each page's image hash (for scans), then verified
+ * page by page with {@link DocumentFingerprint.PageFingerprint#matches}. A lookup that finds a
+ * near-identical prior document returns the OCR'd pages that can be reused, so only pages that
+ * actually changed are sent to OCR again. The perceptual hashes only select and align candidates;
+ * a page's OCR text is reused only when its content digest is identical.
+ *
+ * <p>The index keeps the OCR text of at most {@code maxDocuments} documents and forgets the
+ * oldest first. Instances are thread-safe and meant to be shared across the documents of a
+ * batch.</p>
+ */
+public class ContractSimilarityIndex {
+    private static final Logger logger = LoggerFactory.getLogger(ContractSimilarityIndex.class);
+
+    public static final double DEFAULT_MIN_SIMILARITY = 0.5;
+    public static final int DEFAULT_MAX_DOCUMENTS = 1000;
+    private static final int MIN_HASH_ROWS_PER_BAND = 4;
+    private static final int IMAGE_HASH_BANDS = 4;
+
+    private final double minSimilarity;
+    private final int maxDocuments;
+    private final LinkedHashMap<Integer, Entry> entries = new LinkedHashMap<>();
+    private final Map<Long, Set<Integer>> textBuckets = new HashMap<>();
+    private final Map<Long, Set<Integer>> imageBuckets = new HashMap<>();
+    private int nextEntryId;
+
+    private long lookups;
+    private long matchedDocuments;
+    private long reusedPages;
+    private long ocrMillisAvoided;
+    private long evictions;
+
+    public ContractSimilarityIndex() {
+        this(DEFAULT_MIN_SIMILARITY, DEFAULT_MAX_DOCUMENTS);
+    }
+
+    /**
+     * @param minSimilarity fraction of pages that must match for a prior document to be reused
+     * @param maxDocuments documents remembered before the oldest is evicted
+     */
+    public ContractSimilarityIndex(double minSimilarity, int maxDocuments) {
+        if (minSimilarity <= 0 || minSimilarity > 1) {
+            throw new IllegalArgumentException("minSimilarity must be in (0, 1]");
+        }
+        if (maxDocuments <= 0) {
+            throw new IllegalArgumentException("maxDocuments must be positive");
+        }
+        this.minSimilarity = minSimilarity;
+        this.maxDocuments = maxDocuments;
+    }
+
+    /**
+     * Find the most similar previously indexed document and the pages whose OCR text can be reused.
+     * Reused pages and the OCR time they originally took are added to {@link #stats()}.
+     */
+    public synchronized Optional<Match> lookup(DocumentFingerprint fingerprint) {
+        Objects.requireNonNull(fingerprint, "fingerprint");
+        lookups++;
+
+        Match best = null;
+        for (int entryId : candidates(fingerprint)) {
+            Match match = compare(fingerprint, entries.get(entryId));
+            if (match.similarity() >= minSimilarity && (best == null || match.similarity() > best.similarity())) {
+                best = match;
+            }
+        }
+        if (best == null) {
+            return Optional.empty();
+        }
+
+        matchedDocuments++;
+        reusedPages += best.reusablePages().size();
+        ocrMillisAvoided += best.ocrMillisAvoided();
+        logger.debug("Document matches '{}' with similarity {}; {} OCR pages reusable",
+                best.sourceName(), String.format("%.2f", best.similarity()), best.reusablePages().size());
+        return Optional.of(best);
+    }
+
+    /**
+     * Remember a parsed document so later near-duplicates can reuse its pages. Only the text of
+     * image pages whose OCR completed is kept; a page reused from an earlier document should be
+     * passed as that {@link PageExtractor.OcrStatus#COMPLETED} page so it can be reused again.
+     */
+    public synchronized void add(String sourceName, DocumentFingerprint fingerprint, List<PageExtractor.Page> pages) {
+        Objects.requireNonNull(sourceName, "sourceName");
+        Objects.requireNonNull(fingerprint, "fingerprint");
+        Objects.requireNonNull(pages, "pages");
+        if (pages.size() != fingerprint.pages().size()) {
+            throw new IllegalArgumentException("pages and fingerprint must cover the same page count");
+        }
+
+        Map<Integer, PageExtractor.Page> ocrPages = new HashMap<>();
+        for (int i = 0; i < pages.size(); i++) {
+            PageExtractor.Page page = pages.get(i);
+            if (fingerprint.pages().get(i).hasImage() && page.ocrStatus() == PageExtractor.OcrStatus.COMPLETED) {
+                ocrPages.put(i, page);
+            }
+        }
+
+        int entryId = nextEntryId++;
+        Entry entry = new Entry(sourceName, fingerprint, Map.copyOf(ocrPages));
+        entries.put(entryId, entry);
+        for (long key : textBandKeys(fingerprint)) {
+            textBuckets.computeIfAbsent(key, k -> new LinkedHashSet<>()).add(entryId);
+        }
+        for (long key : imageBandKeys(fingerprint)) {
+            imageBuckets.computeIfAbsent(key, k -> new LinkedHashSet<>()).add(entryId);
+        }
+        evictToCapacity();
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(entries.size(), lookups, matchedDocuments, reusedPages, ocrMillisAvoided, evictions);
+    }
+
+    private void evictToCapacity() {
+        Iterator<Map.Entry<Integer, Entry>> oldest = entries.entrySet().iterator();
+        while (entries.size() > maxDocuments) {
+            Map.Entry<Integer, Entry> evicted = oldest.next();
+            oldest.remove();
+            unlink(textBuckets, textBandKeys(evicted.getValue().fingerprint()), evicted.getKey());
+            unlink(imageBuckets, imageBandKeys(evicted.getValue().fingerprint()), evicted.getKey());
+            evictions++;
+        }
+    }
+
+    private static void unlink(Map<Long, Set<Integer>> buckets, List<Long> keys, int entryId) {
+        for (long key : keys) {
+            Set<Integer> bucket = buckets.get(key);
+            if (bucket != null && bucket.remove(entryId) && bucket.isEmpty()) {
+                buckets.remove(key);
+            }
+        }
+    }
+
+    private Set<Integer> candidates(DocumentFingerprint fingerprint) {
+        Set<Integer> candidates = new LinkedHashSet<>();
+        for (long key : textBandKeys(fingerprint)) {
+            candidates.addAll(textBuckets.getOrDefault(key, Set.of()));
+        }
+        for (long key : imageBandKeys(fingerprint)) {
+            candidates.addAll(imageBuckets.getOrDefault(key, Set.of()));
+        }
+        return candidates;
+    }
+
+    private static List<Long> textBandKeys(DocumentFingerprint fingerprint) {
+        List<Long> keys = new ArrayList<>();
+        if (!fingerprint.hasText()) {
+            return keys;
+        }
+        long[] minHash = fingerprint.minHash();
+        for (int band = 0; band * MIN_HASH_ROWS_PER_BAND < minHash.length; band++) {
+            long key = band;
+            for (int row = 0; row < MIN_HASH_ROWS_PER_BAND; row++) {
+                key = DocumentFingerprinter.mix(key * 31 + minHash[band * MIN_HASH_ROWS_PER_BAND + row]);
+            }
+            keys.add(key);
+        }
+        return keys;
+    }
+
+    private static List<Long> imageBandKeys(DocumentFingerprint fingerprint) {
+        List<Long> keys = new ArrayList<>();
+        int bandBits = 64 / IMAGE_HASH_BANDS;
+        for (DocumentFingerprint.PageFingerprint page : fingerprint.pages()) {
+            if (!page.hasImage()) {
+                continue;
+            }
+            for (int band = 0; band < IMAGE_HASH_BANDS; band++) {
+                long bits = (page.imageHash() >>> (band * bandBits)) & ((1L << bandBits) - 1);
+                keys.add(((long) band << bandBits) | bits);
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Pair each new page with an unused matching prior page, preferring one with identical content
+     * and then the one whose position is closest to the previous pairing, so inserted or removed
+     * pages (e.g. a new cover page) only shift the alignment.
+     */
+    private static Match compare(DocumentFingerprint fingerprint, Entry entry) {
+        List<DocumentFingerprint.PageFingerprint> newPages = fingerprint.pages();
+        List<DocumentFingerprint.PageFingerprint> priorPages = entry.fingerprint().pages();
+        boolean[] used = new boolean[priorPages.size()];
+        Map<Integer, PageExtractor.Page> reusable = new HashMap<>();
+        long avoided = 0;
+        int matched = 0;
+        int offset = 0;
+
+        for (int i = 0; i < newPages.size(); i++) {
+            DocumentFingerprint.PageFingerprint page = newPages.get(i);
+            int j = findMatch(page::sameContent, priorPages, used, i + offset);
+            if (j < 0) {
+                j = findMatch(page::matches, priorPages, used, i + offset);
+            }
+            if (j < 0) {
+                continue;
+            }
+            used[j] = true;
+            matched++;
+            offset = j - i;
+
+            PageExtractor.Page prior = entry.ocrPages().get(j);
+            if (prior != null && page.sameContent(priorPages.get(j))) {
+                reusable.put(i + 1, prior);
+                avoided += prior.ocrMillis();
+            }
+        }
+
+        double similarity = (double) matched / Math.max(1, Math.max(newPages.size(), priorPages.size()));
+        return new Match(entry.sourceName(), similarity, Map.copyOf(reusable), avoided);
+    }
+
+    private static int findMatch(Predicate<DocumentFingerprint.PageFingerprint> matches,
+                                 List<DocumentFingerprint.PageFingerprint> priorPages, boolean[] used, int expected) {
+        for (int distance = 0; distance < priorPages.size() + Math.abs(expected); distance++) {
+            int before = expected - distance;
+            if (before >= 0 && before < priorPages.size() && !used[before] && matches.test(priorPages.get(before))) {
+                return before;
+            }
+            int after = expected + distance;
+            if (distance > 0 && after >= 0 && after < priorPages.size() && !used[after]
+                    && matches.test(priorPages.get(after))) {
+                return after;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param ocrPages completed OCR pages keyed by zero-based page index
+     */
+    private record Entry(String sourceName, DocumentFingerprint fingerprint,
+                         Map<Integer, PageExtractor.Page> ocrPages) {
+    }
+
+    /**
+     * Result of a successful {@link #lookup}.
+     *
+     * @param sourceName file name of the matching prior document
+     * @param similarity fraction of pages that matched
+     * @param reusablePages prior OCR'd pages keyed by the page number they replace in the new document
+     * @param ocrMillisAvoided OCR time originally spent on the reusable pages
+     */
+    public record Match(String sourceName, double similarity, Map<Integer, PageExtractor.Page> reusablePages,
+                        long ocrMillisAvoided) {
+    }
+
+    /**
+     * Cumulative index counters.
+     */
+    public record Stats(int indexedDocuments, long lookups, long matchedDocuments, long reusedPages,
+                        long ocrMillisAvoided, long evictions) {
+
+        public String summary() {
+            return String.format(Locale.ROOT,
+                    "Similarity index: %d of %d documents matched, %d OCR pages reused (~%d ms of OCR avoided), "
+                            + "%d documents indexed, %d evicted",
+                    matchedDocuments, lookups, reusedPages, ocrMillisAvoided, indexedDocuments, evictions);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.hotel.parser;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+/**
+ * JSON Writer for contract version diffs produced by {@link ContractDiff}.
+ */
+public class DiffJsonWriter {
+    private static final Logger logger = LoggerFactory.getLogger(DiffJsonWriter.class);
+
+    /**
+     * Write a diff to a JSON file.
+     *
+     * @param diff the diff to write
+     * @param outputFile the output JSON file
+     * @throws IOException if the file cannot be written
+     */
+    public void write(ContractDiff.DiffResult diff, File outputFile) throws IOException {
+        logger.info("Writing diff to JSON file: {}", outputFile.getAbsolutePath());
+
+        try (BufferedWriter out = Files.newBufferedWriter(outputFile.toPath(), StandardCharsets.UTF_8)) {
+            out.write("{\n");
+            out.write("  \"oldFile\": " + quote(diff.oldName()) + ",\n");
+            out.write("  \"newFile\": " + quote(diff.newName()) + ",\n");
+            out.write("  \"oldPageCount\": " + diff.oldPageCount() + ",\n");
+            out.write("  \"newPageCount\": " + diff.newPageCount() + ",\n");
+            out.write("  \"unchangedPages\": " + diff.unchangedPages() + ",\n");
+            out.write("  \"changes\": [");
+            List<ContractDiff.Change> changes = diff.changes();
+            for (int i = 0; i < changes.size(); i++) {
+                ContractDiff.Change change = changes.get(i);
+                out.write(i == 0 ? "\n" : ",\n");
+                out.write("    {\"type\": " + quote(change.type().name())
+                        + ", \"oldPage\": " + change.oldPage()
+                        + ", \"oldLine\": " + change.oldLine()
+                        + ", \"newPage\": " + change.newPage()
+                        + ", \"newLine\": " + change.newLine()
+                        + ", \"oldLines\": ");
+                writeArray(out, change.oldLines());
+                out.write(", \"newLines\": ");
+                writeArray(out, change.newLines());
+                out.write("}");
+            }
+            out.write(changes.isEmpty() ? "]\n" : "\n  ]\n");
+            out.write("}\n");
+        }
+        logger.info("Successfully wrote diff JSON file");
+    }
+
+    private void writeArray(Writer out, List<String> values) throws IOException {
+        out.write("[");
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                out.write(", ");
+            }
+            out.write(quote(values.get(i)));
+        }
+        out.write("]");
+    }
+
+    /**
+     * {@code value} as a JSON string literal.
+     */
+    public static String quote(String value) {
+        StringBuilder sb = new StringBuilder(value.length() + 2);
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
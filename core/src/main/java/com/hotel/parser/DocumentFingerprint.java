@@ -0,0 +1,89 @@
+package com.hotel.parser;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Similarity signature of a parsed document: a MinHash over the word shingles of its native text
+ * plus one {@link PageFingerprint} per page. Produced by {@link DocumentFingerprinter} and looked up
+ * in a {@link ContractSimilarityIndex}.
+ */
+public record DocumentFingerprint(long[] minHash, List<PageFingerprint> pages) {
+
+    public DocumentFingerprint {
+        Objects.requireNonNull(minHash, "minHash");
+        minHash = minHash.clone();
+        pages = List.copyOf(Objects.requireNonNull(pages, "pages"));
+    }
+
+    /**
+     * Whether the document had any native text to build the MinHash from.
+     */
+    public boolean hasText() {
+        for (long value : minHash) {
+            if (value != Long.MAX_VALUE) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Fingerprint of a single page. {@code textSimHash} covers the page's native text;
+     * {@code imageHash} (a difference hash), {@code thumbnail} (a 32x32 grid of mean gray levels)
+     * and {@code contentDigest} (a SHA-256 of the page's content streams and the resources they
+     * draw) are only computed for pages that would need OCR, and are {@code 0}/{@code null}
+     * otherwise.
+     */
+    public record PageFingerprint(long textSimHash, long imageHash, byte[] thumbnail, String contentDigest) {
+        static final int MAX_TEXT_DISTANCE = 3;
+        static final int MAX_IMAGE_DISTANCE = 8;
+        static final int MAX_MEAN_THUMBNAIL_DIFF = 8;
+        static final int MAX_CELL_THUMBNAIL_DIFF = 64;
+
+        public PageFingerprint {
+            thumbnail = thumbnail == null ? null : thumbnail.clone();
+        }
+
+        public boolean hasImage() {
+            return thumbnail != null;
+        }
+
+        /**
+         * Whether two pages look alike: used to align pages and score document similarity. Image
+         * pages must agree on both the coarse hash and every thumbnail cell, but a thumbnail cannot
+         * see a changed digit, so reusing OCR text also takes {@link #sameContent}.
+         */
+        public boolean matches(PageFingerprint other) {
+            if (Long.bitCount(textSimHash ^ other.textSimHash) > MAX_TEXT_DISTANCE) {
+                return false;
+            }
+            if (hasImage() != other.hasImage()) {
+                return false;
+            }
+            if (!hasImage()) {
+                return true;
+            }
+            if (Long.bitCount(imageHash ^ other.imageHash) > MAX_IMAGE_DISTANCE
+                    || thumbnail.length != other.thumbnail.length) {
+                return false;
+            }
+            long totalDiff = 0;
+            for (int i = 0; i < thumbnail.length; i++) {
+                int diff = Math.abs((thumbnail[i] & 0xFF) - (other.thumbnail[i] & 0xFF));
+                if (diff > MAX_CELL_THUMBNAIL_DIFF) {
+                    return false;
+                }
+                totalDiff += diff;
+            }
+            return totalDiff <= (long) MAX_MEAN_THUMBNAIL_DIFF * thumbnail.length;
+        }
+
+        /**
+         * Whether both pages draw exactly the same content, so one's OCR text is valid for the other.
+         */
+        public boolean sameContent(PageFingerprint other) {
+            return contentDigest != null && contentDigest.equals(other.contentDigest);
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package com.hotel.parser;
+
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSInteger;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.pdfparser.PDFStreamParser;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.Raster;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Computes {@link DocumentFingerprint}s from cheap inputs: the native text already extracted for
+ * each page and, for pages that would need OCR, a tiny subsampled render plus a digest of the raw
+ * bytes the page is drawn from.
+ */
+public class DocumentFingerprinter {
+    private static final Logger logger = LoggerFactory.getLogger(DocumentFingerprinter.class);
+
+    static final int MIN_HASH_SIZE = 64;
+    private static final int SHINGLE_SIZE = 4;
+    private static final int THUMBNAIL_SIZE = 32;
+    private static final float THUMBNAIL_TARGET_WIDTH = 96f;
+    private static final long[] MIN_HASH_SEEDS = new long[MIN_HASH_SIZE];
+
+    static {
+        long seed = 0x5DEECE66DL;
+        for (int i = 0; i < MIN_HASH_SIZE; i++) {
+            seed = mix(seed + i);
+            MIN_HASH_SEEDS[i] = seed;
+        }
+    }
+
+    /**
+     * Fingerprint a loaded document.
+     *
+     * @param document the loaded PDF document
+     * @param nativeTexts native text per page
+     * @param needsImage which pages (by their native text) should also get an image fingerprint
+     */
+    public DocumentFingerprint fingerprint(PDDocument document, List<String> nativeTexts, Predicate<String> needsImage) {
+        Objects.requireNonNull(document, "document");
+        Objects.requireNonNull(nativeTexts, "nativeTexts");
+        Objects.requireNonNull(needsImage, "needsImage");
+
+        long[] minHash = new long[MIN_HASH_SIZE];
+        Arrays.fill(minHash, Long.MAX_VALUE);
+        List<DocumentFingerprint.PageFingerprint> pages = new ArrayList<>(nativeTexts.size());
+        PDFRenderer renderer = null;
+
+        for (int pageIndex = 0; pageIndex < nativeTexts.size(); pageIndex++) {
+            String text = nativeTexts.get(pageIndex);
+            long[] shingles = shingleHashes(text);
+            for (long shingle : shingles) {
+                for (int i = 0; i < MIN_HASH_SIZE; i++) {
+                    long value = mix(shingle ^ MIN_HASH_SEEDS[i]);
+                    if (value < minHash[i]) {
+                        minHash[i] = value;
+                    }
+                }
+            }
+            long simHash = simHash(shingles);
+
+            long imageHash = 0L;
+            byte[] thumbnail = null;
+            String contentDigest = null;
+            if (needsImage.test(text)) {
+                if (renderer == null) {
+                    renderer = new PDFRenderer(document);
+                    renderer.setSubsamplingAllowed(true);
+                }
+                int[] grid = renderThumbnailGrid(renderer, document, pageIndex);
+                if (grid != null) {
+                    thumbnail = toBytes(grid);
+                    imageHash = differenceHash(grid);
+                    contentDigest = contentDigest(document.getPage(pageIndex), pageIndex);
+                }
+            }
+            pages.add(new DocumentFingerprint.PageFingerprint(simHash, imageHash, thumbnail, contentDigest));
+        }
+
+        return new DocumentFingerprint(minHash, pages);
+    }
+
+    static long[] shingleHashes(String text) {
+        if (text == null || text.isBlank()) {
+            return new long[0];
+        }
+        String[] tokens = text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{Nd}]+");
+        long[] tokenHashes = new long[tokens.length];
+        int count = 0;
+        for (String token : tokens) {
+            if (!token.isEmpty()) {
+                tokenHashes[count++] = mix(token.hashCode());
+            }
+        }
+        if (count == 0) {
+            return new long[0];
+        }
+
+        int shingleCount = Math.max(1, count - SHINGLE_SIZE + 1);
+        long[] shingles = new long[shingleCount];
+        for (int i = 0; i < shingleCount; i++) {
+            long hash = 0L;
+            for (int j = i; j < Math.min(count, i + SHINGLE_SIZE); j++) {
+                hash = mix(hash * 31 + tokenHashes[j]);
+            }
+            shingles[i] = hash;
+        }
+        return shingles;
+    }
+
+    static long simHash(long[] shingles) {
+        if (shingles.length == 0) {
+            return 0L;
+        }
+        int[] votes = new int[64];
+        for (long shingle : shingles) {
+            for (int bit = 0; bit < 64; bit++) {
+                votes[bit] += ((shingle >>> bit) & 1L) == 1L ? 1 : -1;
+            }
+        }
+        long hash = 0L;
+        for (int bit = 0; bit < 64; bit++) {
+            if (votes[bit] > 0) {
+                hash |= 1L << bit;
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * SplitMix64 finalizer, used as a cheap well-distributed 64-bit hash.
+     */
+    static long mix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private int[] renderThumbnailGrid(PDFRenderer renderer, PDDocument document, int pageIndex) {
+        PDRectangle cropBox = document.getPage(pageIndex).getCropBox();
+        float scale = THUMBNAIL_TARGET_WIDTH / Math.max(cropBox.getWidth(), 1f);
+        try {
+            BufferedImage image = renderer.renderImage(pageIndex, scale, ImageType.GRAY);
+            return gridAverage(image.getRaster(), THUMBNAIL_SIZE, THUMBNAIL_SIZE);
+        } catch (IOException | RuntimeException e) {
+            logger.debug("Could not render thumbnail for page {}: {}", pageIndex + 1, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Digest of what a page draws: its content streams, the resources they name (image XObjects
+     * included, as raw encoded bytes) and its visible geometry. The page dictionary itself is not
+     * digested because its {@code /Parent} reaches every other page, and resources the page does not
+     * name are left out because one resource dictionary is often shared by every page.
+     */
+    private static String contentDigest(PDPage page, int pageIndex) {
+        COSDictionary drawn = new COSDictionary();
+        drawn.setItem(COSName.CONTENTS, page.getCOSObject().getDictionaryObject(COSName.CONTENTS));
+        drawn.setItem(COSName.CROP_BOX, page.getCropBox().getCOSArray());
+        drawn.setItem(COSName.ROTATE, COSInteger.get(page.getRotation()));
+        try {
+            PDResources resources = page.getResources();
+            if (resources != null) {
+                drawn.setItem(COSName.RESOURCES, namedResources(page, resources.getCOSObject()));
+            }
+            return ResourceDigest.of(drawn).hex();
+        } catch (IOException | RuntimeException e) {
+            logger.debug("Could not digest page {}: {}", pageIndex + 1, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * The entries of each resource category that the page's content streams name as operands.
+     * Categories that are not name dictionaries, such as {@code /ProcSet}, are kept whole.
+     */
+    private static COSDictionary namedResources(PDPage page, COSDictionary resources) throws IOException {
+        Set<COSName> names = new HashSet<>();
+        PDFStreamParser parser = new PDFStreamParser(page);
+        for (Object token = parser.parseNextToken(); token != null; token = parser.parseNextToken()) {
+            if (token instanceof COSName name) {
+                names.add(name);
+            }
+        }
+        COSDictionary named = new COSDictionary();
+        for (COSName category : resources.keySet()) {
+            if (resources.getDictionaryObject(category) instanceof COSDictionary entries) {
+                COSDictionary kept = new COSDictionary();
+                for (COSName name : entries.keySet()) {
+                    if (names.contains(name)) {
+                        kept.setItem(name, entries.getItem(name));
+                    }
+                }
+                named.setItem(category, kept);
+            } else {
+                named.setItem(category, resources.getItem(category));
+            }
+        }
+        return named;
+    }
+
+    static int[] gridAverage(Raster raster, int gridWidth, int gridHeight) {
+        int width = raster.getWidth();
+        int height = raster.getHeight();
+        long[] sums = new long[gridWidth * gridHeight];
+        int[] counts = new int[gridWidth * gridHeight];
+        int[] row = new int[width];
+        for (int y = 0; y < height; y++) {
+            raster.getSamples(0, y, width, 1, 0, row);
+            int cellY = (int) ((long) y * gridHeight / height);
+            for (int x = 0; x < width; x++) {
+                int cell = cellY * gridWidth + (int) ((long) x * gridWidth / width);
+                sums[cell] += row[x];
+                counts[cell]++;
+            }
+        }
+        int[] grid = new int[gridWidth * gridHeight];
+        for (int i = 0; i < grid.length; i++) {
+            grid[i] = counts[i] == 0 ? 0xFF : (int) (sums[i] / counts[i]);
+        }
+        return grid;
+    }
+
+    /**
+     * 64-bit difference hash: each bit records whether a cell of an 8x8 reduction of the grid is
+     * brighter than its right-hand neighbour.
+     */
+    static long differenceHash(int[] grid) {
+        int[] reduced = new int[9 * 8];
+        int[] counts = new int[9 * 8];
+        for (int y = 0; y < THUMBNAIL_SIZE; y++) {
+            for (int x = 0; x < THUMBNAIL_SIZE; x++) {
+                int cell = (y * 8 / THUMBNAIL_SIZE) * 9 + (x * 9 / THUMBNAIL_SIZE);
+                reduced[cell] += grid[y * THUMBNAIL_SIZE + x];
+                counts[cell]++;
+            }
+        }
+        long hash = 0L;
+        int bit = 0;
+        for (int y = 0; y < 8; y++) {
+            for (int x = 0; x < 8; x++) {
+                int left = reduced[y * 9 + x] / counts[y * 9 + x];
+                int right = reduced[y * 9 + x + 1] / counts[y * 9 + x + 1];
+                if (left > right) {
+                    hash |= 1L << bit;
+                }
+                bit++;
+            }
+        }
+        return hash;
+    }
+
+    private static byte[] toBytes(int[] grid) {
+        byte[] bytes = new byte[grid.length];
+        for (int i = 0; i < grid.length; i++) {
+            bytes[i] = (byte) grid[i];
+        }
+        return bytes;
+    }
+}
@@ -12,13 +12,16 @@ import org.slf4j.LoggerFactory;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.util.List;
 
 /**
  * DOCX Writer for creating Word documents from parsed PDF data, including
- * per-page sections and a summary table placeholder.
+ * per-page sections, the tables found on each page and a summary table placeholder.
  */
 public class DocxWriter {
     private static final Logger logger = LoggerFactory.getLogger(DocxWriter.class);
+    private static final String REMOVED_COLOR = "C00000";
+    private static final String ADDED_COLOR = "00802B";
 
     /**
      * Write parse result to a DOCX file.
@@ -69,6 +72,13 @@ public class DocxWriter {
                 XWPFRun textRun = pageTextParagraph.createRun();
                 writeMultilineText(textRun, page.text());
 
+                for (TableExtractor.Table table : result.getTables()) {
+                    if (table.pageNumber() == page.pageNumber()) {
+                        document.createParagraph();
+                        writeTable(document, table);
+                    }
+                }
+
                 document.createParagraph();
             }
 
@@ -77,6 +87,94 @@ public class DocxWriter {
         }
     }
 
+    /**
+     * Write a contract version diff to a DOCX file, using the same title and summary table layout as
+     * {@link #write(PDFParser.ParseResult, File)}. Removed lines are struck through in red, added
+     * lines are shown in green.
+     *
+     * @param diff the diff to write
+     * @param outputFile the output DOCX file
+     * @throws IOException if the file cannot be written
+     */
+    public void writeDiff(ContractDiff.DiffResult diff, File outputFile) throws IOException {
+        logger.info("Writing diff to DOCX file: {}", outputFile.getAbsolutePath());
+
+        try (XWPFDocument document = new XWPFDocument();
+             FileOutputStream out = new FileOutputStream(outputFile)) {
+
+            XWPFParagraph title = document.createParagraph();
+            title.setAlignment(ParagraphAlignment.CENTER);
+            XWPFRun titleRun = title.createRun();
+            titleRun.setText(String.format("Changes: %s -> %s", diff.oldName(), diff.newName()));
+            titleRun.setBold(true);
+            titleRun.setFontSize(16);
+
+            document.createParagraph();
+
+            XWPFParagraph summaryHeading = document.createParagraph();
+            XWPFRun summaryRun = summaryHeading.createRun();
+            summaryRun.setText("Summary");
+            summaryRun.setBold(true);
+
+            XWPFTable summaryTable = document.createTable(4, 2);
+            setRow(summaryTable.getRow(0), "Pages (old / new)", diff.oldPageCount() + " / " + diff.newPageCount());
+            setRow(summaryTable.getRow(1), "Unchanged pages", String.valueOf(diff.unchangedPages()));
+            setRow(summaryTable.getRow(2), "Changes", String.valueOf(diff.changes().size()));
+            setRow(summaryTable.getRow(3), "Lines removed / added", countLines(diff, true) + " / " + countLines(diff, false));
+
+            document.createParagraph();
+
+            for (ContractDiff.Change change : diff.changes()) {
+                XWPFParagraph changeHeading = document.createParagraph();
+                XWPFRun headingRun = changeHeading.createRun();
+                headingRun.setBold(true);
+                headingRun.setText(String.format("%s: old page %d line %d, new page %d line %d",
+                        change.type(), change.oldPage(), change.oldLine(), change.newPage(), change.newLine()));
+
+                for (String line : change.oldLines()) {
+                    XWPFRun removedRun = document.createParagraph().createRun();
+                    removedRun.setText(line);
+                    removedRun.setStrikeThrough(true);
+                    removedRun.setColor(REMOVED_COLOR);
+                }
+                for (String line : change.newLines()) {
+                    XWPFRun addedRun = document.createParagraph().createRun();
+                    addedRun.setText(line);
+                    addedRun.setColor(ADDED_COLOR);
+                }
+
+                document.createParagraph();
+            }
+
+            document.write(out);
+            logger.info("Successfully wrote diff DOCX file");
+        }
+    }
+
+    private void writeTable(XWPFDocument document, TableExtractor.Table table) {
+        XWPFTable docxTable = document.createTable(table.rows().size(), table.columnCount());
+        for (int r = 0; r < table.rows().size(); r++) {
+            List<String> cells = table.rows().get(r);
+            XWPFTableRow row = docxTable.getRow(r);
+            for (int c = 0; c < cells.size(); c++) {
+                row.getCell(c).setText(cells.get(c));
+            }
+        }
+    }
+
+    private void setRow(XWPFTableRow row, String label, String value) {
+        row.getCell(0).setText(label);
+        row.getCell(1).setText(value);
+    }
+
+    private int countLines(ContractDiff.DiffResult diff, boolean removed) {
+        int count = 0;
+        for (ContractDiff.Change change : diff.changes()) {
+            count += removed ? change.oldLines().size() : change.newLines().size();
+        }
+        return count;
+    }
+
     private void writeMultilineText(XWPFRun run, String text) {
         if (text == null || text.isEmpty()) {
             return;
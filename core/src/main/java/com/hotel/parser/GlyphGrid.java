@@ -0,0 +1,261 @@
+package com.hotel.parser;
+
+import org.apache.pdfbox.text.TextPosition;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Glyphs of one page in a uniform grid of em-sized cells, used to join glyphs into horizontal text
+ * chunks (words and phrases separated by less than {@link #JOIN_GAP_EMS} em). Each glyph is compared
+ * only with glyphs in the few cells to its right on the same baseline band, so clustering is linear
+ * in the number of glyphs for ordinary text instead of quadratic.
+ *
+ * <p>Glyph data is kept in parallel primitive arrays, so pages with tens of thousands of glyphs do
+ * not retain a {@link TextPosition} per glyph.</p>
+ */
+final class GlyphGrid {
+    /**
+     * Largest horizontal gap, in em, between glyphs of the same chunk: wider than a word space, even
+     * a monospaced one of 0.6 em, but narrow enough to keep tightly set table columns apart.
+     */
+    static final float JOIN_GAP_EMS = 0.7f;
+    /** Largest baseline difference, in em, between glyphs of the same chunk. */
+    static final float BASELINE_TOLERANCE_EMS = 0.3f;
+    /** Gaps wider than this, in em, become a space in the chunk text. */
+    private static final float SPACE_GAP_EMS = 0.2f;
+    /** Overlapping repeats of a glyph closer than this, in em, are a fake-bold overprint. */
+    private static final float OVERPRINT_EMS = 0.1f;
+
+    private float[] x = new float[256];
+    private float[] baseline = new float[256];
+    private float[] width = new float[256];
+    private float[] em = new float[256];
+    private String[] text = new String[256];
+    private int size;
+
+    /**
+     * Add a visible glyph. Whitespace glyphs are ignored; word gaps are recovered from positions.
+     */
+    void add(TextPosition position) {
+        String unicode = position.getUnicode();
+        if (unicode == null || unicode.isBlank()) {
+            return;
+        }
+        add(position.getXDirAdj(), position.getYDirAdj(), position.getWidthDirAdj(),
+                Math.max(1f, position.getFontSizeInPt()), unicode);
+    }
+
+    void add(float glyphX, float glyphBaseline, float glyphWidth, float glyphEm, String unicode) {
+        if (size > 0) {
+            int last = size - 1;
+            float tolerance = OVERPRINT_EMS * glyphEm;
+            if (unicode.equals(text[last]) && Math.abs(glyphX - x[last]) < tolerance
+                    && Math.abs(glyphBaseline - baseline[last]) < tolerance) {
+                return;
+            }
+        }
+        if (size == x.length) {
+            int capacity = size * 2;
+            x = Arrays.copyOf(x, capacity);
+            baseline = Arrays.copyOf(baseline, capacity);
+            width = Arrays.copyOf(width, capacity);
+            em = Arrays.copyOf(em, capacity);
+            text = Arrays.copyOf(text, capacity);
+        }
+        x[size] = glyphX;
+        baseline[size] = glyphBaseline;
+        width[size] = Math.max(0f, glyphWidth);
+        em[size] = glyphEm;
+        text[size] = unicode;
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        Arrays.fill(text, 0, size, null);
+        size = 0;
+    }
+
+    /**
+     * A run of glyphs on one baseline.
+     *
+     * @param x0 left edge
+     * @param x1 right edge
+     * @param baseline baseline of the first glyph, growing down the page
+     * @param em largest font size in the chunk
+     */
+    record Chunk(float x0, float x1, float baseline, float em, String text) {
+    }
+
+    /**
+     * Join the glyphs into chunks, in no particular order.
+     */
+    List<Chunk> chunks() {
+        if (size == 0) {
+            return List.of();
+        }
+        Cells cells = new Cells();
+        int[] parent = new int[size];
+        for (int i = 0; i < size; i++) {
+            parent[i] = i;
+        }
+
+        for (int i = 0; i < size; i++) {
+            float reach = x[i] + width[i] + JOIN_GAP_EMS * em[i];
+            float tolerance = BASELINE_TOLERANCE_EMS * em[i];
+            int lastColumn = cells.column(reach);
+            int lastRow = cells.row(baseline[i] + tolerance);
+            for (int row = cells.row(baseline[i] - tolerance); row <= lastRow; row++) {
+                for (int column = cells.column(x[i]); column <= lastColumn; column++) {
+                    int cell = row * cells.columns + column;
+                    for (int k = cells.start[cell]; k < cells.start[cell + 1]; k++) {
+                        int j = cells.glyphs[k];
+                        if (j != i && x[j] >= x[i] && x[j] <= reach
+                                && Math.abs(baseline[j] - baseline[i]) <= tolerance) {
+                            union(parent, i, j);
+                        }
+                    }
+                }
+            }
+        }
+        return collect(parent);
+    }
+
+    private List<Chunk> collect(int[] parent) {
+        // Counting sort of glyphs by component root, then each component by x.
+        int[] count = new int[size + 1];
+        for (int i = 0; i < size; i++) {
+            count[find(parent, i) + 1]++;
+        }
+        for (int i = 0; i < size; i++) {
+            count[i + 1] += count[i];
+        }
+        int[] members = new int[size];
+        int[] next = Arrays.copyOf(count, size);
+        for (int i = 0; i < size; i++) {
+            members[next[find(parent, i)]++] = i;
+        }
+
+        List<Chunk> chunks = new ArrayList<>();
+        for (int root = 0; root < size; root++) {
+            int from = count[root];
+            int to = count[root + 1];
+            if (from == to) {
+                continue;
+            }
+            Integer[] glyphs = new Integer[to - from];
+            for (int k = from; k < to; k++) {
+                glyphs[k - from] = members[k];
+            }
+            Arrays.sort(glyphs, (a, b) -> Float.compare(x[a], x[b]));
+            chunks.add(chunk(glyphs));
+        }
+        return chunks;
+    }
+
+    private Chunk chunk(Integer[] glyphs) {
+        StringBuilder chunkText = new StringBuilder();
+        float x0 = Float.MAX_VALUE;
+        float x1 = -Float.MAX_VALUE;
+        float maxEm = 0;
+        for (int glyph : glyphs) {
+            if (chunkText.length() > 0 && x[glyph] - x1 > SPACE_GAP_EMS * em[glyph]) {
+                chunkText.append(' ');
+            }
+            chunkText.append(text[glyph]);
+            x0 = Math.min(x0, x[glyph]);
+            x1 = Math.max(x1, x[glyph] + width[glyph]);
+            maxEm = Math.max(maxEm, em[glyph]);
+        }
+        return new Chunk(x0, x1, baseline[glyphs[0]], maxEm, chunkText.toString());
+    }
+
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    private static void union(int[] parent, int a, int b) {
+        int rootA = find(parent, a);
+        int rootB = find(parent, b);
+        if (rootA != rootB) {
+            parent[Math.max(rootA, rootB)] = Math.min(rootA, rootB);
+        }
+    }
+
+    /**
+     * Glyph indices bucketed by cell in compressed-row form: the glyphs of cell {@code c} are
+     * {@code glyphs[start[c]]} to {@code glyphs[start[c + 1] - 1]}.
+     */
+    private final class Cells {
+        final float cellSize;
+        final float minX;
+        final float minY;
+        final int columns;
+        final int rows;
+        final int[] start;
+        final int[] glyphs;
+
+        Cells() {
+            float emSum = 0;
+            float minGlyphX = Float.MAX_VALUE;
+            float maxGlyphX = -Float.MAX_VALUE;
+            float minGlyphY = Float.MAX_VALUE;
+            float maxGlyphY = -Float.MAX_VALUE;
+            for (int i = 0; i < size; i++) {
+                emSum += em[i];
+                minGlyphX = Math.min(minGlyphX, x[i]);
+                maxGlyphX = Math.max(maxGlyphX, x[i]);
+                minGlyphY = Math.min(minGlyphY, baseline[i]);
+                maxGlyphY = Math.max(maxGlyphY, baseline[i]);
+            }
+            // Cells of about one em; coarser if the glyphs are spread so thinly that the grid would
+            // have far more cells than glyphs.
+            float cell = Math.max(1f, emSum / size);
+            long maxCells = Math.max(4096L, 4L * size);
+            while ((long) ((maxGlyphX - minGlyphX) / cell + 1) * (long) ((maxGlyphY - minGlyphY) / cell + 1) > maxCells) {
+                cell *= 2;
+            }
+            cellSize = cell;
+            minX = minGlyphX;
+            minY = minGlyphY;
+            columns = (int) ((maxGlyphX - minGlyphX) / cell) + 1;
+            rows = (int) ((maxGlyphY - minGlyphY) / cell) + 1;
+
+            start = new int[columns * rows + 1];
+            int[] cellOf = new int[size];
+            for (int i = 0; i < size; i++) {
+                cellOf[i] = row(baseline[i]) * columns + column(x[i]);
+                start[cellOf[i] + 1]++;
+            }
+            for (int c = 0; c < columns * rows; c++) {
+                start[c + 1] += start[c];
+            }
+            glyphs = new int[size];
+            int[] next = Arrays.copyOf(start, columns * rows);
+            for (int i = 0; i < size; i++) {
+                glyphs[next[cellOf[i]]++] = i;
+            }
+        }
+
+        int column(float value) {
+            return clamp((int) Math.floor((value - minX) / cellSize), columns);
+        }
+
+        int row(float value) {
+            return clamp((int) Math.floor((value - minY) / cellSize), rows);
+        }
+
+        private static int clamp(int index, int limit) {
+            return Math.max(0, Math.min(limit - 1, index));
+        }
+    }
+}
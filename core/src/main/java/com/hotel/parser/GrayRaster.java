@@ -0,0 +1,68 @@
+package com.hotel.parser;
+
+import java.awt.Point;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.PixelInterleavedSampleModel;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
+import java.util.Objects;
+
+/**
+ * 8-bit grayscale pixel buffer backed by a (possibly pooled) byte array. Rows are packed
+ * tightly, so {@link #bytesPerLine()} always equals {@link #width()}.
+ */
+public final class GrayRaster {
+    private final byte[] pixels;
+    private final int width;
+    private final int height;
+    private BufferedImage image;
+
+    public GrayRaster(byte[] pixels, int width, int height) {
+        this.pixels = Objects.requireNonNull(pixels, "pixels");
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("width and height must be positive");
+        }
+        if ((long) width * height > pixels.length) {
+            throw new IllegalArgumentException("pixel buffer too small for " + width + "x" + height);
+        }
+        this.width = width;
+        this.height = height;
+    }
+
+    public byte[] pixels() {
+        return pixels;
+    }
+
+    public int width() {
+        return width;
+    }
+
+    public int height() {
+        return height;
+    }
+
+    public int bytesPerLine() {
+        return width;
+    }
+
+    public int byteCount() {
+        return width * height;
+    }
+
+    /**
+     * View of the raster as a {@link BufferedImage#TYPE_BYTE_GRAY} image sharing the same
+     * pixel array; drawing into the image writes straight into {@link #pixels()}.
+     */
+    public BufferedImage asImage() {
+        if (image == null) {
+            DataBufferByte dataBuffer = new DataBufferByte(pixels, byteCount());
+            PixelInterleavedSampleModel sampleModel =
+                    new PixelInterleavedSampleModel(dataBuffer.getDataType(), width, height, 1, width, new int[]{0});
+            WritableRaster raster = Raster.createWritableRaster(sampleModel, dataBuffer, new Point(0, 0));
+            BufferedImage template = new BufferedImage(1, 1, BufferedImage.TYPE_BYTE_GRAY);
+            image = new BufferedImage(template.getColorModel(), raster, false, null);
+        }
+        return image;
+    }
+}
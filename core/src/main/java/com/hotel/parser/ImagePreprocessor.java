@@ -0,0 +1,345 @@
+package com.hotel.parser;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Cleans up a rendered page before OCR: adaptive binarization, speckle removal, deskew and
+ * margin cropping. All steps work on the raw {@link GrayRaster} pixel array and reuse scratch
+ * buffers held by this instance, so a preprocessor is not thread-safe and should be owned by a
+ * single {@link PageExtractor}.
+ */
+public class ImagePreprocessor {
+
+    /**
+     * Individually switchable preprocessing steps, applied in declaration order.
+     */
+    public enum Step {
+        BINARIZE,
+        DENOISE,
+        DESKEW,
+        CROP_MARGINS
+    }
+
+    private static final int DARK_THRESHOLD = 128;
+    private static final int WHITE = 0xFF;
+    private static final int BINARIZE_SENSITIVITY_PERCENT = 15;
+    private static final double MAX_SKEW_DEGREES = 5.0;
+    private static final double SKEW_STEP_DEGREES = 0.25;
+    private static final double MIN_SKEW_DEGREES = 0.1;
+    private static final int MAX_SKEW_SAMPLES = 40_000;
+    private static final int CROP_PADDING = 16;
+
+    private final Set<Step> steps;
+
+    private byte[] scratch = new byte[0];
+    private int[] columnSums = new int[0];
+    private int[] samples = new int[0];
+    private int[] histogram = new int[0];
+
+    public ImagePreprocessor(Set<Step> steps) {
+        Objects.requireNonNull(steps, "steps");
+        this.steps = steps.isEmpty() ? EnumSet.noneOf(Step.class) : EnumSet.copyOf(steps);
+    }
+
+    public boolean isEnabled() {
+        return !steps.isEmpty();
+    }
+
+    /**
+     * Apply the configured steps. The returned raster shares the input's pixel array but may
+     * have smaller dimensions when margins were cropped.
+     */
+    public GrayRaster process(GrayRaster raster) {
+        Objects.requireNonNull(raster, "raster");
+        GrayRaster current = raster;
+        if (steps.contains(Step.BINARIZE)) {
+            binarize(current);
+        }
+        if (steps.contains(Step.DENOISE)) {
+            despeckle(current);
+        }
+        if (steps.contains(Step.DESKEW)) {
+            deskew(current);
+        }
+        if (steps.contains(Step.CROP_MARGINS)) {
+            current = cropMargins(current);
+        }
+        return current;
+    }
+
+    /**
+     * Bradley-Roth adaptive threshold: a pixel becomes black when it is noticeably darker than
+     * the mean of its surrounding window. Window sums are kept as sliding column totals, so memory
+     * is one int per column rather than a full integral image.
+     */
+    void binarize(GrayRaster raster) {
+        int width = raster.width();
+        int height = raster.height();
+        byte[] pixels = raster.pixels();
+        byte[] out = scratch(raster.byteCount());
+        int[] sums = columnSums(width);
+
+        int radius = Math.max(Math.max(width, height) / 32, 4);
+
+        for (int y = 0; y <= Math.min(radius, height - 1); y++) {
+            addRow(pixels, width, y, sums, 1);
+        }
+
+        for (int y = 0; y < height; y++) {
+            int top = Math.max(0, y - radius);
+            int bottom = Math.min(height - 1, y + radius);
+            int rows = bottom - top + 1;
+
+            long windowSum = 0;
+            int left = 0;
+            int right = -1;
+            int rowOffset = y * width;
+            for (int x = 0; x < width; x++) {
+                int wantRight = Math.min(width - 1, x + radius);
+                while (right < wantRight) {
+                    windowSum += sums[++right];
+                }
+                int wantLeft = Math.max(0, x - radius);
+                while (left < wantLeft) {
+                    windowSum -= sums[left++];
+                }
+                long area = (long) (right - left + 1) * rows;
+                int value = pixels[rowOffset + x] & 0xFF;
+                boolean dark = value * area * 100 <= windowSum * (100 - BINARIZE_SENSITIVITY_PERCENT);
+                out[rowOffset + x] = dark ? 0 : (byte) WHITE;
+            }
+
+            int leaving = y - radius;
+            if (leaving >= 0) {
+                addRow(pixels, width, leaving, sums, -1);
+            }
+            int entering = y + radius + 1;
+            if (entering < height) {
+                addRow(pixels, width, entering, sums, 1);
+            }
+        }
+
+        System.arraycopy(out, 0, pixels, 0, raster.byteCount());
+    }
+
+    /**
+     * Remove isolated dark pixels (fax noise, dust) that have no dark 8-neighbour.
+     */
+    void despeckle(GrayRaster raster) {
+        int width = raster.width();
+        int height = raster.height();
+        byte[] pixels = raster.pixels();
+        byte[] out = scratch(raster.byteCount());
+        System.arraycopy(pixels, 0, out, 0, raster.byteCount());
+
+        for (int y = 0; y < height; y++) {
+            int rowOffset = y * width;
+            for (int x = 0; x < width; x++) {
+                if ((pixels[rowOffset + x] & 0xFF) >= DARK_THRESHOLD) {
+                    continue;
+                }
+                if (!hasDarkNeighbour(pixels, width, height, x, y)) {
+                    out[rowOffset + x] = (byte) WHITE;
+                }
+            }
+        }
+
+        System.arraycopy(out, 0, pixels, 0, raster.byteCount());
+    }
+
+    /**
+     * Estimate the skew angle and rotate the page back so text lines are horizontal.
+     */
+    void deskew(GrayRaster raster) {
+        double angle = estimateSkewDegrees(raster);
+        if (Math.abs(angle) < MIN_SKEW_DEGREES) {
+            return;
+        }
+        rotate(raster, -angle);
+    }
+
+    /**
+     * Projection-profile skew estimate: for each candidate angle, project a sample of dark pixels
+     * onto rows and pick the angle whose row histogram is most sharply peaked.
+     */
+    double estimateSkewDegrees(GrayRaster raster) {
+        int width = raster.width();
+        int height = raster.height();
+        byte[] pixels = raster.pixels();
+
+        int darkCount = 0;
+        for (int i = 0; i < raster.byteCount(); i++) {
+            if ((pixels[i] & 0xFF) < DARK_THRESHOLD) {
+                darkCount++;
+            }
+        }
+        if (darkCount == 0) {
+            return 0.0;
+        }
+
+        int stride = Math.max(1, darkCount / MAX_SKEW_SAMPLES);
+        int[] coords = samples(2 * Math.min(darkCount, MAX_SKEW_SAMPLES + 1));
+        int sampleCount = 0;
+        int seen = 0;
+        for (int y = 0; y < height && sampleCount * 2 < coords.length; y++) {
+            int rowOffset = y * width;
+            for (int x = 0; x < width && sampleCount * 2 < coords.length; x++) {
+                if ((pixels[rowOffset + x] & 0xFF) < DARK_THRESHOLD && seen++ % stride == 0) {
+                    coords[sampleCount * 2] = x;
+                    coords[sampleCount * 2 + 1] = y;
+                    sampleCount++;
+                }
+            }
+        }
+
+        int margin = (int) Math.ceil(width * Math.tan(Math.toRadians(MAX_SKEW_DEGREES))) + 1;
+        int[] bins = histogram(height + 2 * margin);
+
+        double bestAngle = 0.0;
+        long bestScore = -1;
+        for (double angle = -MAX_SKEW_DEGREES; angle <= MAX_SKEW_DEGREES + 1e-9; angle += SKEW_STEP_DEGREES) {
+            double tan = Math.tan(Math.toRadians(angle));
+            Arrays.fill(bins, 0, height + 2 * margin, 0);
+            for (int i = 0; i < sampleCount; i++) {
+                int x = coords[i * 2];
+                int y = coords[i * 2 + 1];
+                int bin = (int) Math.round(y - x * tan) + margin;
+                if (bin >= 0 && bin < height + 2 * margin) {
+                    bins[bin]++;
+                }
+            }
+            long score = 0;
+            for (int b = 0; b < height + 2 * margin; b++) {
+                score += (long) bins[b] * bins[b];
+            }
+            if (score > bestScore || (score == bestScore && Math.abs(angle) < Math.abs(bestAngle))) {
+                bestScore = score;
+                bestAngle = angle;
+            }
+        }
+        return bestAngle;
+    }
+
+    /**
+     * Crop to the bounding box of dark pixels plus a small padding. Rows are compacted in place
+     * at the start of the pixel array.
+     */
+    GrayRaster cropMargins(GrayRaster raster) {
+        int width = raster.width();
+        int height = raster.height();
+        byte[] pixels = raster.pixels();
+
+        int minX = width;
+        int minY = height;
+        int maxX = -1;
+        int maxY = -1;
+        for (int y = 0; y < height; y++) {
+            int rowOffset = y * width;
+            for (int x = 0; x < width; x++) {
+                if ((pixels[rowOffset + x] & 0xFF) < DARK_THRESHOLD) {
+                    if (x < minX) minX = x;
+                    if (x > maxX) maxX = x;
+                    if (y < minY) minY = y;
+                    maxY = y;
+                }
+            }
+        }
+        if (maxX < 0) {
+            return raster;
+        }
+
+        int left = Math.max(0, minX - CROP_PADDING);
+        int top = Math.max(0, minY - CROP_PADDING);
+        int right = Math.min(width - 1, maxX + CROP_PADDING);
+        int bottom = Math.min(height - 1, maxY + CROP_PADDING);
+        int newWidth = right - left + 1;
+        int newHeight = bottom - top + 1;
+        if (newWidth == width && newHeight == height) {
+            return raster;
+        }
+
+        for (int y = 0; y < newHeight; y++) {
+            System.arraycopy(pixels, (top + y) * width + left, pixels, y * newWidth, newWidth);
+        }
+        return new GrayRaster(pixels, newWidth, newHeight);
+    }
+
+    private void rotate(GrayRaster raster, double degrees) {
+        int width = raster.width();
+        int height = raster.height();
+        byte[] pixels = raster.pixels();
+        byte[] out = scratch(raster.byteCount());
+
+        double radians = Math.toRadians(degrees);
+        double cos = Math.cos(radians);
+        double sin = Math.sin(radians);
+        double cx = width / 2.0;
+        double cy = height / 2.0;
+
+        for (int y = 0; y < height; y++) {
+            double dy = y - cy;
+            int rowOffset = y * width;
+            for (int x = 0; x < width; x++) {
+                double dx = x - cx;
+                int sx = (int) Math.round(cx + dx * cos + dy * sin);
+                int sy = (int) Math.round(cy - dx * sin + dy * cos);
+                out[rowOffset + x] = sx >= 0 && sx < width && sy >= 0 && sy < height
+                        ? pixels[sy * width + sx]
+                        : (byte) WHITE;
+            }
+        }
+
+        System.arraycopy(out, 0, pixels, 0, raster.byteCount());
+    }
+
+    private static boolean hasDarkNeighbour(byte[] pixels, int width, int height, int x, int y) {
+        for (int ny = Math.max(0, y - 1); ny <= Math.min(height - 1, y + 1); ny++) {
+            int rowOffset = ny * width;
+            for (int nx = Math.max(0, x - 1); nx <= Math.min(width - 1, x + 1); nx++) {
+                if ((nx != x || ny != y) && (pixels[rowOffset + nx] & 0xFF) < DARK_THRESHOLD) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static void addRow(byte[] pixels, int width, int y, int[] sums, int sign) {
+        int rowOffset = y * width;
+        for (int x = 0; x < width; x++) {
+            sums[x] += sign * (pixels[rowOffset + x] & 0xFF);
+        }
+    }
+
+    private byte[] scratch(int size) {
+        if (scratch.length < size) {
+            scratch = new byte[size];
+        }
+        return scratch;
+    }
+
+    private int[] columnSums(int width) {
+        if (columnSums.length < width) {
+            columnSums = new int[width];
+        }
+        Arrays.fill(columnSums, 0, width, 0);
+        return columnSums;
+    }
+
+    private int[] samples(int size) {
+        if (samples.length < size) {
+            samples = new int[size];
+        }
+        return samples;
+    }
+
+    private int[] histogram(int size) {
+        if (histogram.length < size) {
+            histogram = new int[size];
+        }
+        return histogram;
+    }
+}
@@ -0,0 +1,231 @@
+package com.hotel.parser;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Picks the Tesseract language for each OCR page of one document from the configured candidates, so
+ * a page is recognised with one traineddata model instead of all of them combined.
+ *
+ * <p>Text is classified by its dominant Unicode script and then by counting character trigrams
+ * from small built-in profiles of {@code eng}, {@code deu}, {@code spa} and {@code rus}; other
+ * candidates can only be told apart by script. A page's own native text decides its language when
+ * it has enough letters. Otherwise the script reported by a quick orientation and script detection
+ * (OSD) pass narrows the candidates, and the language that most of the document's native text is
+ * written in picks among them. What is still undecided is recognised with every remaining candidate
+ * combined, e.g. {@code eng+deu+spa}. OCR output is never counted, so a language chosen for one page
+ * cannot reinforce itself through the pages recognised with it.</p>
+ *
+ * <p>Instances keep per-document state and are not thread-safe.</p>
+ */
+final class OcrLanguageSelector {
+    /** Fewest letters a text needs before its language is judged. */
+    static final int MIN_LETTERS = 40;
+    /** How far the best trigram score has to lead the runner-up. */
+    private static final double MIN_MARGIN = 1.5;
+
+    private static final Map<String, Character.UnicodeScript> SCRIPTS = Map.ofEntries(
+            Map.entry("rus", Character.UnicodeScript.CYRILLIC),
+            Map.entry("ukr", Character.UnicodeScript.CYRILLIC),
+            Map.entry("bel", Character.UnicodeScript.CYRILLIC),
+            Map.entry("bul", Character.UnicodeScript.CYRILLIC),
+            Map.entry("mkd", Character.UnicodeScript.CYRILLIC),
+            Map.entry("srp", Character.UnicodeScript.CYRILLIC),
+            Map.entry("kaz", Character.UnicodeScript.CYRILLIC),
+            Map.entry("ell", Character.UnicodeScript.GREEK),
+            Map.entry("ara", Character.UnicodeScript.ARABIC),
+            Map.entry("fas", Character.UnicodeScript.ARABIC),
+            Map.entry("heb", Character.UnicodeScript.HEBREW),
+            Map.entry("hin", Character.UnicodeScript.DEVANAGARI),
+            Map.entry("tha", Character.UnicodeScript.THAI),
+            Map.entry("kor", Character.UnicodeScript.HANGUL),
+            Map.entry("jpn", Character.UnicodeScript.HAN),
+            Map.entry("chi_sim", Character.UnicodeScript.HAN),
+            Map.entry("chi_tra", Character.UnicodeScript.HAN));
+
+    /** Frequent trigrams per language; a space stands for any word boundary. */
+    private static final Map<String, Set<String>> TRIGRAMS = Map.of(
+            "eng", Set.of(" th", "the", "he ", "nd ", " an", "and", "ing", "ng ", " of", "of ", " to", "to ",
+                    "ion", "tio", "ed ", " in", "is ", "for", " fo", "hat", "tha", "er ", "ll ", "ith", " wi",
+                    "wit", " be", "all", " ho", "ay "),
+            "deu", Set.of("en ", "er ", " de", "der", "die", " di", "ie ", "ich", "ch ", "sch", "und", " un",
+                    "nd ", "ein", " ei", "ine", "ung", "ng ", "cht", "den", "gen", "ten", " zu", " ve", "ver",
+                    "ber", "auf", " au", "eit", "ier"),
+            "spa", Set.of(" de", "de ", "la ", " la", "os ", "el ", " el", "es ", "en ", "que", " qu", "ue ",
+                    "ión", "ón ", " co", "as ", "ado", "aci", "ció", "nte", "con", "del", " pa", "par", "las",
+                    "los", " lo", "ra ", " es", "est"),
+            "rus", Set.of(" пр", "ст ", "ого", "го ", " по", "ени", "ост", "ов ", "ть ", "ия ", "на ", " на",
+                    "то ", "ет ", "ать", "ств", "про", " в ", "ние", "ие ", " ко", " не", "ий ", "ова", "пре",
+                    "ся ", "ом ", "ных", "ые ", "ии "));
+
+    /** Letters that, in Latin text, belong to one of the profiled languages only. */
+    private static final Map<String, String> MARKERS = Map.of(
+            "deu", "äöüß",
+            "spa", "ñ¿¡áíóú");
+
+    private final List<String> candidates;
+    private final Map<String, Integer> documentVotes = new HashMap<>();
+
+    OcrLanguageSelector(List<String> candidates) {
+        if (candidates.isEmpty()) {
+            throw new IllegalArgumentException("candidates must not be empty");
+        }
+        this.candidates = List.copyOf(candidates);
+    }
+
+    /**
+     * Record the language of native text found anywhere in the document as evidence for pages that
+     * have none of their own.
+     */
+    void observe(String text) {
+        if (candidates.size() == 1) {
+            return;
+        }
+        String language = detect(text, candidates);
+        if (language != null && !language.contains("+")) {
+            documentVotes.merge(language, 1, Integer::sum);
+        }
+    }
+
+    /**
+     * The Tesseract language string for a page that needs OCR.
+     *
+     * @param nativeText whatever native text the page has
+     * @param script runs the OSD pass; may return {@code null} when it cannot tell
+     */
+    String select(String nativeText, Supplier<Character.UnicodeScript> script) {
+        if (candidates.size() == 1) {
+            return candidates.get(0);
+        }
+        String fromPage = detect(nativeText, candidates);
+        if (fromPage != null) {
+            return fromPage;
+        }
+        List<String> remaining = candidates;
+        Character.UnicodeScript detected = script.get();
+        if (detected != null && !ofScript(candidates, detected).isEmpty()) {
+            remaining = ofScript(candidates, detected);
+        }
+        String documentLanguage = documentLanguage(remaining);
+        if (documentLanguage != null) {
+            return documentLanguage;
+        }
+        return String.join("+", remaining);
+    }
+
+    private String documentLanguage(List<String> allowed) {
+        String best = null;
+        int bestVotes = 0;
+        for (String language : allowed) {
+            int votes = documentVotes.getOrDefault(language, 0);
+            if (votes > bestVotes) {
+                best = language;
+                bestVotes = votes;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Language of {@code text} among {@code candidates}: a single language, several of the same
+     * script joined with {@code +} when trigrams cannot separate them, or {@code null} when the text
+     * is too short or in a script none of the candidates covers.
+     */
+    static String detect(String text, List<String> candidates) {
+        if (text == null || text.isEmpty()) {
+            return null;
+        }
+        String normalized = text.toLowerCase(Locale.ROOT);
+        Map<Character.UnicodeScript, Integer> letters = new EnumMap<>(Character.UnicodeScript.class);
+        StringBuilder words = new StringBuilder(normalized.length() + 2).append(' ');
+        for (int i = 0; i < normalized.length(); ) {
+            int codePoint = normalized.codePointAt(i);
+            i += Character.charCount(codePoint);
+            if (Character.isLetter(codePoint)) {
+                letters.merge(Character.UnicodeScript.of(codePoint), 1, Integer::sum);
+                words.appendCodePoint(codePoint);
+            } else if (words.charAt(words.length() - 1) != ' ') {
+                words.append(' ');
+            }
+        }
+        words.append(' ');
+
+        Character.UnicodeScript dominant = null;
+        int total = 0;
+        int dominantCount = 0;
+        for (Map.Entry<Character.UnicodeScript, Integer> entry : letters.entrySet()) {
+            total += entry.getValue();
+            if (entry.getValue() > dominantCount) {
+                dominant = entry.getKey();
+                dominantCount = entry.getValue();
+            }
+        }
+        if (total < MIN_LETTERS) {
+            return null;
+        }
+        List<String> sameScript = ofScript(candidates, dominant);
+        if (sameScript.size() <= 1) {
+            return sameScript.isEmpty() ? null : sameScript.get(0);
+        }
+
+        String best = null;
+        double bestScore = 0;
+        double secondScore = 0;
+        for (String language : sameScript) {
+            double score = score(words, normalized, language);
+            if (score > bestScore) {
+                secondScore = bestScore;
+                bestScore = score;
+                best = language;
+            } else if (score > secondScore) {
+                secondScore = score;
+            }
+        }
+        if (best != null && bestScore >= MIN_MARGIN * secondScore) {
+            return best;
+        }
+        return String.join("+", sameScript);
+    }
+
+    private static double score(CharSequence words, String normalized, String language) {
+        Set<String> profile = TRIGRAMS.get(language);
+        if (profile == null) {
+            return 0;
+        }
+        int hits = 0;
+        for (int i = 0; i + 3 <= words.length(); i++) {
+            if (profile.contains(words.subSequence(i, i + 3).toString())) {
+                hits++;
+            }
+        }
+        String markers = MARKERS.get(language);
+        if (markers != null) {
+            for (int i = 0; i < normalized.length(); i++) {
+                if (markers.indexOf(normalized.charAt(i)) >= 0) {
+                    hits += 3;
+                }
+            }
+        }
+        return hits;
+    }
+
+    private static List<String> ofScript(List<String> candidates, Character.UnicodeScript script) {
+        List<String> matching = new ArrayList<>();
+        for (String language : candidates) {
+            if (script(language) == script) {
+                matching.add(language);
+            }
+        }
+        return matching;
+    }
+
+    private static Character.UnicodeScript script(String language) {
+        return SCRIPTS.getOrDefault(language.toLowerCase(Locale.ROOT), Character.UnicodeScript.LATIN);
+    }
+}
@@ -0,0 +1,94 @@
+package com.hotel.parser;
+
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Named bundle of Tesseract engine settings. {@link #FAST} trades a little accuracy for speed on
+ * clean scans by using the LSTM engine alone, skipping dictionary loading and preferring
+ * {@code tessdata_fast} models; {@link #ACCURATE} prefers {@code tessdata_best}. Both pin fully
+ * automatic page segmentation, which is also what the default profile gets from Tesseract.
+ *
+ * <p>Engine and segmentation modes use Tesseract's numeric OEM/PSM values; {@link #UNSET} leaves the
+ * engine default in place.</p>
+ */
+public record OcrProfile(String name, int engineMode, int pageSegMode, Models models,
+                         String charWhitelist, boolean useDictionary) {
+    public static final int UNSET = -1;
+
+    /** Tesseract {@code OEM_LSTM_ONLY}. */
+    public static final int OEM_LSTM_ONLY = 1;
+    /** Tesseract {@code OEM_DEFAULT}. */
+    public static final int OEM_DEFAULT = 3;
+    /** Tesseract {@code PSM_AUTO}: automatic segmentation without orientation and script detection. */
+    public static final int PSM_AUTO = 3;
+
+    public static final OcrProfile DEFAULT =
+            new OcrProfile("default", OEM_DEFAULT, UNSET, Models.STANDARD, null, true);
+    public static final OcrProfile FAST =
+            new OcrProfile("fast", OEM_LSTM_ONLY, PSM_AUTO, Models.FAST, null, false);
+    public static final OcrProfile ACCURATE =
+            new OcrProfile("accurate", OEM_LSTM_ONLY, PSM_AUTO, Models.BEST, null, true);
+
+    /**
+     * Which family of traineddata files to load.
+     */
+    public enum Models {
+        /** Whatever traineddata is in the configured tessdata directory. */
+        STANDARD("tessdata"),
+        /** Integer-quantised {@code tessdata_fast} models. */
+        FAST("tessdata_fast"),
+        /** Float {@code tessdata_best} models. */
+        BEST("tessdata_best");
+
+        private final String directoryName;
+
+        Models(String directoryName) {
+            this.directoryName = directoryName;
+        }
+
+        public String directoryName() {
+            return directoryName;
+        }
+    }
+
+    public OcrProfile {
+        Objects.requireNonNull(name, "name");
+        Objects.requireNonNull(models, "models");
+        if (engineMode < UNSET || engineMode > OEM_DEFAULT) {
+            throw new IllegalArgumentException("engineMode must be between 0 and 3");
+        }
+        if (pageSegMode < UNSET || pageSegMode > 13) {
+            throw new IllegalArgumentException("pageSegMode must be between 0 and 13");
+        }
+        if (charWhitelist != null && charWhitelist.isEmpty()) {
+            charWhitelist = null;
+        }
+    }
+
+    /**
+     * Look up a built-in profile by name, ignoring case.
+     *
+     * @throws IllegalArgumentException if no profile has that name
+     */
+    public static OcrProfile forName(String name) {
+        Objects.requireNonNull(name, "name");
+        switch (name.toLowerCase(Locale.ROOT)) {
+            case "default":
+                return DEFAULT;
+            case "fast":
+                return FAST;
+            case "accurate":
+                return ACCURATE;
+            default:
+                throw new IllegalArgumentException("Unknown OCR profile: " + name);
+        }
+    }
+
+    /**
+     * Copy of this profile restricted to the given characters.
+     */
+    public OcrProfile withCharWhitelist(String whitelist) {
+        return new OcrProfile(name, engineMode, pageSegMode, models, whitelist, useDictionary);
+    }
+}
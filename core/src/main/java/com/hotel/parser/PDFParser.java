@@ -1,23 +1,33 @@
 package com.hotel.parser;
 
 import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.IOUtils;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 
 /**
  * PDF Parser for hotel contract documents that extracts per-page text content
  * using Apache PDFBox.
  */
-public class PDFParser {
+public class PDFParser implements Closeable {
     private static final Logger logger = LoggerFactory.getLogger(PDFParser.class);
 
     private final PageExtractor pageExtractor;
+    private final ContractSimilarityIndex similarityIndex;
+    private final ShardCoordinator shardCoordinator;
+    private final File checkpointDirectory;
+    private final DocumentFingerprinter fingerprinter = new DocumentFingerprinter();
 
     public PDFParser() {
         this(PageExtractorOptions.defaults());
@@ -28,7 +38,53 @@ public class PDFParser {
     }
 
     public PDFParser(PageExtractor pageExtractor) {
+        this(pageExtractor, null);
+    }
+
+    /**
+     * @param similarityIndex index of previously parsed documents used to skip OCR of pages that
+     *                        match a near-duplicate, or {@code null} to always extract every page
+     */
+    public PDFParser(PageExtractor pageExtractor, ContractSimilarityIndex similarityIndex) {
+        this(pageExtractor, similarityIndex, null);
+    }
+
+    /**
+     * @param similarityIndex index of previously parsed documents, or {@code null}
+     * @param shardCoordinator splits documents larger than one shard across shard workers, or
+     *                         {@code null} to extract every document in this process; sharded
+     *                         documents do not consult the similarity index
+     */
+    public PDFParser(PageExtractor pageExtractor, ContractSimilarityIndex similarityIndex,
+                     ShardCoordinator shardCoordinator) {
+        this(pageExtractor, similarityIndex, shardCoordinator, null);
+    }
+
+    /**
+     * @param checkpointDirectory directory for {@link PageJournal} checkpoints, so an interrupted
+     *                            parse resumes from its last completed page, or {@code null} to
+     *                            disable checkpointing; checkpointed documents do not consult the
+     *                            similarity index, and checkpointing cannot be combined with a
+     *                            {@code shardCoordinator}
+     * @throws IllegalArgumentException if both a shard coordinator and a checkpoint directory are given
+     */
+    public PDFParser(PageExtractor pageExtractor, ContractSimilarityIndex similarityIndex,
+                     ShardCoordinator shardCoordinator, File checkpointDirectory) {
+        if (shardCoordinator != null && checkpointDirectory != null) {
+            throw new IllegalArgumentException("checkpointing is not supported for sharded parsing");
+        }
         this.pageExtractor = Objects.requireNonNull(pageExtractor, "pageExtractor");
+        this.similarityIndex = similarityIndex;
+        this.shardCoordinator = shardCoordinator;
+        this.checkpointDirectory = checkpointDirectory;
+    }
+
+    /**
+     * Close the page extractor, shutting down its OCR worker thread.
+     */
+    @Override
+    public void close() {
+        pageExtractor.close();
     }
 
     /**
@@ -40,14 +96,101 @@ public class PDFParser {
      */
     public ParseResult parse(File pdfFile) throws IOException {
         logger.info("Opening PDF file: {}", pdfFile.getAbsolutePath());
-        
+        if (shardCoordinator != null) {
+            ParseResult sharded = parseSharded(pdfFile);
+            if (sharded != null) {
+                return sharded;
+            }
+        }
+
         try (PDDocument document = Loader.loadPDF(pdfFile)) {
+            Closeable resources = pageExtractor.attachResources(document);
+            try {
+                String title = determineTitle(document, pdfFile);
+                List<PageExtractor.Page> pages;
+                if (checkpointDirectory != null) {
+                    pages = extractWithCheckpoint(document, pdfFile);
+                } else if (similarityIndex != null) {
+                    pages = extractWithSimilarityIndex(document, pdfFile);
+                } else {
+                    pages = pageExtractor.extractPages(document);
+                }
+                return result(pages, pdfFile, title);
+            } finally {
+                resources.close();
+            }
+        }
+    }
+
+    /**
+     * Hand a document larger than one shard to the shard workers. PDFBox parses objects on demand, so
+     * counting pages here only reads the page tree, without attaching the resource cache and with
+     * scratch buffers kept on disk.
+     *
+     * @return the result, or {@code null} if the document fits in one shard
+     */
+    private ParseResult parseSharded(File pdfFile) throws IOException {
+        try (PDDocument document = Loader.loadPDF(pdfFile, IOUtils.createTempFileOnlyStreamCache())) {
+            int pageCount = document.getNumberOfPages();
+            if (!shardCoordinator.shouldShard(pageCount)) {
+                return null;
+            }
             String title = determineTitle(document, pdfFile);
-            List<PageExtractor.Page> pages = pageExtractor.extractPages(document);
-            logger.info("PDF has {} pages", pages.size());
+            return result(shardCoordinator.extract(pdfFile, pageCount), pdfFile, title);
+        }
+    }
+
+    private static ParseResult result(List<PageExtractor.Page> pages, File pdfFile, String title) {
+        ParseResult result = new ParseResult(pages, pdfFile.getName(), title);
+        logger.info("PDF has {} pages", result.getPageCount());
+        if (!result.getTables().isEmpty()) {
+            logger.info("Found {} tables", result.getTables().size());
+        }
+        return result;
+    }
+
+    private List<PageExtractor.Page> extractWithCheckpoint(PDDocument document, File pdfFile) throws IOException {
+        try (PageJournal journal = PageJournal.open(checkpointDirectory, pdfFile, pageExtractor.options())) {
+            Map<Integer, PageExtractor.Page> completed = journal.completedPages();
+            if (!completed.isEmpty()) {
+                logger.info("Resuming from checkpoint: {} of {} pages already completed",
+                        completed.size(), document.getNumberOfPages());
+            }
+            List<PageExtractor.Page> pages = pageExtractor.extractPages(document, completed, page -> {
+                try {
+                    journal.append(page);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            journal.complete();
+            return pages;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private List<PageExtractor.Page> extractWithSimilarityIndex(PDDocument document, File pdfFile) throws IOException {
+        List<PageExtractor.NativePage> nativePages = pageExtractor.extractNativePages(document);
+        List<String> nativeTexts = nativePages.stream().map(PageExtractor.NativePage::text).toList();
+        DocumentFingerprint fingerprint = fingerprinter.fingerprint(document, nativeTexts, pageExtractor::needsOcr);
 
-            return new ParseResult(pages, pdfFile.getName(), title);
+        Map<Integer, PageExtractor.Page> reused = Map.of();
+        Optional<ContractSimilarityIndex.Match> match = similarityIndex.lookup(fingerprint);
+        if (match.isPresent()) {
+            reused = match.get().reusablePages();
+            logger.info("Near-duplicate of {}; reusing OCR text for {} pages (~{} ms of OCR avoided)",
+                    match.get().sourceName(), reused.size(), match.get().ocrMillisAvoided());
         }
+
+        List<PageExtractor.Page> pages = pageExtractor.extractPages(document, nativePages, reused);
+        // Index reused pages as the completed OCR they came from, so a third copy can reuse them too.
+        List<PageExtractor.Page> indexed = new ArrayList<>(pages);
+        for (Map.Entry<Integer, PageExtractor.Page> entry : reused.entrySet()) {
+            indexed.set(entry.getKey() - 1, entry.getValue());
+        }
+        similarityIndex.add(pdfFile.getName(), fingerprint, indexed);
+        return pages;
     }
 
     private String determineTitle(PDDocument document, File pdfFile) {
@@ -67,11 +210,32 @@ public class PDFParser {
         private final String fileName;
         private final String title;
         private final List<PageExtractor.Page> pages;
+        private final List<TableExtractor.Table> tables;
 
+        /**
+         * Result carrying the tables of its pages.
+         */
         public ParseResult(List<PageExtractor.Page> pages, String fileName, String title) {
+            this(pages, fileName, title, tablesOf(pages));
+        }
+
+        /**
+         * @param tables tables found in the native text, in page order
+         */
+        public ParseResult(List<PageExtractor.Page> pages, String fileName, String title,
+                           List<TableExtractor.Table> tables) {
             this.pages = List.copyOf(Objects.requireNonNull(pages, "pages"));
             this.fileName = Objects.requireNonNull(fileName, "fileName");
             this.title = title == null ? "" : title;
+            this.tables = List.copyOf(Objects.requireNonNull(tables, "tables"));
+        }
+
+        private static List<TableExtractor.Table> tablesOf(List<PageExtractor.Page> pages) {
+            List<TableExtractor.Table> tables = new ArrayList<>();
+            for (PageExtractor.Page page : Objects.requireNonNull(pages, "pages")) {
+                tables.addAll(page.tables());
+            }
+            return tables;
         }
 
         public int getPageCount() {
@@ -89,5 +253,33 @@ public class PDFParser {
         public List<PageExtractor.Page> getPages() {
             return pages;
         }
+
+        public List<TableExtractor.Table> getTables() {
+            return tables;
+        }
+
+        /**
+         * Number of pages that needed OCR but did not get it (engine unavailable or circuit breaker open).
+         */
+        public int getOcrSkippedPageCount() {
+            return countPages(PageExtractor.OcrStatus.SKIPPED);
+        }
+
+        /**
+         * Number of pages whose OCR failed or exceeded the per-page time budget.
+         */
+        public int getOcrDegradedPageCount() {
+            return countPages(PageExtractor.OcrStatus.DEGRADED);
+        }
+
+        private int countPages(PageExtractor.OcrStatus status) {
+            int count = 0;
+            for (PageExtractor.Page page : pages) {
+                if (page.ocrStatus() == status) {
+                    count++;
+                }
+            }
+            return count;
+        }
     }
 }
@@ -1,37 +1,108 @@
 package com.hotel.parser;
 
 import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
 import org.apache.pdfbox.rendering.PDFRenderer;
+import org.apache.pdfbox.rendering.RenderDestination;
 import org.apache.pdfbox.text.PDFTextStripper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
+import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 /**
  * Extracts text from each page of a PDF document using PDFBox and optionally OCR via Tess4J.
+ *
+ * <p>When several OCR languages are configured, an {@link OcrLanguageSelector} picks one per page
+ * and the page is recognised by an engine instance kept for that language; at most one instance is
+ * kept for a combination of languages. Script detection for the selector uses one OSD engine per
+ * extractor, run on the OCR worker within the page's OCR budget and behind the circuit breaker.</p>
  */
-public class PageExtractor {
+public class PageExtractor implements Closeable {
     private static final Logger logger = LoggerFactory.getLogger(PageExtractor.class);
-    private static final String OCR_LANGUAGE = "eng";
+    /** Most OCR calls left running after their budget expired before further OCR is skipped. */
+    static final int MAX_ABANDONED_OCR_CALLS = 2;
+    /** Resolution of the quick render used for script detection. */
+    private static final float OSD_DPI = 150f;
+    private static File noDictionaryConfig; // Shared Tesseract config disabling dictionary loading
 
     private final PageExtractorOptions options;
-    private Object tesseract; // Use Object instead of Tesseract to avoid class loading issues
-    private boolean tesseractAvailable = true; // Track if Tesseract is available
+    private final RasterBufferPool bufferPool;
+    private final ImagePreprocessor preprocessor;
+    private final OcrCircuitBreaker circuitBreaker;
+    private final RenderMemoryGovernor renderGovernor;
+    private final SharedResourceCache resourceCache;
+    // Engine instances by Tesseract language string; Object instead of Tesseract to avoid class loading issues
+    private final Map<String, Object> tesseracts = new HashMap<>();
+    private TesseractOsd osd; // Script detection engine; only used on the OCR worker
+    private boolean osdUnavailable; // OSD model missing or failed to load
+    private File tessDataPath; // Resolved once, see tessDataPath()
+    private boolean tessDataPathResolved;
+    private List<String> installedLanguages; // Configured OCR languages whose traineddata is present
+    private volatile boolean tesseractAvailable = true; // Track if Tesseract is available
+    private ExecutorService ocrWorker; // Runs budgeted OCR calls; replaced when a call overruns
+    private final AtomicInteger abandonedOcrCalls = new AtomicInteger(); // Overrun calls still running
 
     public PageExtractor() {
         this(PageExtractorOptions.defaults());
     }
 
     public PageExtractor(PageExtractorOptions options) {
+        this(options, new RasterBufferPool());
+    }
+
+    public PageExtractor(PageExtractorOptions options, RasterBufferPool bufferPool) {
+        this(options, bufferPool, new OcrCircuitBreaker());
+    }
+
+    public PageExtractor(PageExtractorOptions options, RasterBufferPool bufferPool, OcrCircuitBreaker circuitBreaker) {
+        this(options, bufferPool, circuitBreaker, RenderMemoryGovernor.shared());
+    }
+
+    public PageExtractor(PageExtractorOptions options, RasterBufferPool bufferPool, OcrCircuitBreaker circuitBreaker,
+                         RenderMemoryGovernor renderGovernor) {
+        this(options, bufferPool, circuitBreaker, renderGovernor, null);
+    }
+
+    /**
+     * @param resourceCache cache of fonts, ICC profiles and decoded images shared with other
+     *                      extractors, or {@code null} to keep resources per document
+     */
+    public PageExtractor(PageExtractorOptions options, RasterBufferPool bufferPool, OcrCircuitBreaker circuitBreaker,
+                         RenderMemoryGovernor renderGovernor, SharedResourceCache resourceCache) {
         this.options = Objects.requireNonNull(options, "options");
+        this.bufferPool = Objects.requireNonNull(bufferPool, "bufferPool");
+        this.circuitBreaker = Objects.requireNonNull(circuitBreaker, "circuitBreaker");
+        this.renderGovernor = Objects.requireNonNull(renderGovernor, "renderGovernor");
+        bufferPool.chargeTo(renderGovernor);
+        this.preprocessor = new ImagePreprocessor(options.preprocessSteps());
+        this.resourceCache = resourceCache;
     }
 
     /**
@@ -42,41 +113,238 @@ public class PageExtractor {
      * @throws IOException if text extraction fails
      */
     public List<Page> extractPages(PDDocument document) throws IOException {
+        return extractPages(document, extractNativePages(document), Map.of());
+    }
+
+    /**
+     * Extract only the native (non-OCR) text of every page, trimmed, together with the tables found
+     * in it when {@link PageExtractorOptions#extractTables()} is set.
+     *
+     * @param document the loaded PDF document
+     * @return one entry per page, in page order
+     * @throws IOException if text extraction fails
+     */
+    public List<NativePage> extractNativePages(PDDocument document) throws IOException {
+        Objects.requireNonNull(document, "document");
+        return extractNativePages(document, 1, document.getNumberOfPages());
+    }
+
+    /**
+     * Extract text for pages {@code firstPage} to {@code lastPage} (1-based, inclusive), running OCR
+     * where the native text is insufficient. Returned pages keep their page numbers in the whole
+     * document, so ranges processed separately can be concatenated in order.
+     *
+     * @param document the loaded PDF document
+     * @param firstPage first page of the range
+     * @param lastPage last page of the range
+     * @return immutable list of page data for the range
+     * @throws IOException if text extraction fails
+     */
+    public List<Page> extractPages(PDDocument document, int firstPage, int lastPage) throws IOException {
         Objects.requireNonNull(document, "document");
+        if (firstPage < 1 || lastPage < firstPage || lastPage > document.getNumberOfPages()) {
+            throw new IllegalArgumentException("Page range " + firstPage + "-" + lastPage
+                    + " is outside the document's " + document.getNumberOfPages() + " pages");
+        }
+        List<NativePage> nativePages = extractNativePages(document, firstPage, lastPage);
+        List<String> documentText = texts(nativePages);
+        if (installedLanguages().size() > 1 && nativePages.size() < document.getNumberOfPages()) {
+            // Language votes come from the whole document, so a range picks what an unsplit run would.
+            documentText = new ArrayList<>(nativeText(document, 1, firstPage - 1));
+            documentText.addAll(texts(nativePages));
+            documentText.addAll(nativeText(document, lastPage + 1, document.getNumberOfPages()));
+        }
+        return buildPages(document, firstPage, nativePages, Map.of(), languageSelector(documentText));
+    }
 
-        int totalPages = document.getNumberOfPages();
+    private List<NativePage> extractNativePages(PDDocument document, int firstPage, int lastPage) throws IOException {
+        int totalPages = lastPage - firstPage + 1;
         logger.debug("Extracting text from {} pages", totalPages);
 
-        if (totalPages == 0) {
+        if (totalPages <= 0) {
             return Collections.emptyList();
         }
 
-        List<Page> pages = new ArrayList<>(totalPages);
-        PDFTextStripper textStripper = new PDFTextStripper();
+        List<NativePage> nativePages = new ArrayList<>(totalPages);
+        TableExtractor.TableCollector tableCollector = null;
+        PDFTextStripper textStripper;
+        if (options.extractTables()) {
+            tableCollector = new TableExtractor.TableCollector(true);
+            textStripper = tableCollector;
+        } else {
+            textStripper = new PDFTextStripper();
+        }
         textStripper.setSortByPosition(true);
-        PDFRenderer renderer = new PDFRenderer(document);
 
-        for (int pageZeroBased = 0; pageZeroBased < totalPages; pageZeroBased++) {
-            int pageNumber = pageZeroBased + 1;
+        for (int pageNumber = firstPage; pageNumber <= lastPage; pageNumber++) {
             textStripper.setStartPage(pageNumber);
             textStripper.setEndPage(pageNumber);
             String text = textStripper.getText(document);
             String cleanedText = text == null ? "" : text.trim();
-            logger.trace("Page {} extracted with {} characters", pageNumber, cleanedText.length());
+            List<TableExtractor.Table> tables = tableCollector == null ? List.of() : tableCollector.takeTables();
+            logger.trace("Page {} extracted with {} characters and {} tables", pageNumber, cleanedText.length(),
+                    tables.size());
+            nativePages.add(new NativePage(cleanedText, tables));
+        }
+
+        return Collections.unmodifiableList(nativePages);
+    }
+
+    /**
+     * Trimmed native text of pages {@code firstPage} to {@code lastPage}, without looking for tables.
+     */
+    private static List<String> nativeText(PDDocument document, int firstPage, int lastPage) throws IOException {
+        List<String> texts = new ArrayList<>();
+        PDFTextStripper textStripper = new PDFTextStripper();
+        textStripper.setSortByPosition(true);
+        for (int pageNumber = firstPage; pageNumber <= lastPage; pageNumber++) {
+            textStripper.setStartPage(pageNumber);
+            textStripper.setEndPage(pageNumber);
+            String text = textStripper.getText(document);
+            texts.add(text == null ? "" : text.trim());
+        }
+        return texts;
+    }
+
+    private static List<String> texts(List<NativePage> nativePages) {
+        List<String> texts = new ArrayList<>(nativePages.size());
+        nativePages.forEach(nativePage -> texts.add(nativePage.text()));
+        return texts;
+    }
+
+    /**
+     * Language selector that has seen the native text of the whole document before any page is
+     * recognised, so every path through the document picks the same languages.
+     */
+    private OcrLanguageSelector languageSelector(List<String> documentText) {
+        OcrLanguageSelector languages = new OcrLanguageSelector(installedLanguages());
+        documentText.forEach(languages::observe);
+        return languages;
+    }
+
+    /**
+     * Build pages from already extracted native text, running OCR where the native text is
+     * insufficient. Pages present in {@code reusedPages} (keyed by page number) take their text from
+     * there and are never rendered.
+     *
+     * @param document the loaded PDF document
+     * @param nativePages native text per page as returned by {@link #extractNativePages(PDDocument)}
+     * @param reusedPages pages whose text is already known, e.g. from a near-duplicate document
+     * @return immutable list of page data containing page numbers and their text
+     */
+    public List<Page> extractPages(PDDocument document, List<NativePage> nativePages, Map<Integer, Page> reusedPages) {
+        Objects.requireNonNull(document, "document");
+        Objects.requireNonNull(nativePages, "nativePages");
+        Objects.requireNonNull(reusedPages, "reusedPages");
+        if (nativePages.size() != document.getNumberOfPages()) {
+            throw new IllegalArgumentException("nativePages must have one entry per page");
+        }
+
+        return buildPages(document, 1, nativePages, reusedPages, languageSelector(texts(nativePages)));
+    }
+
+    private List<Page> buildPages(PDDocument document, int firstPage, List<NativePage> nativePages,
+                                  Map<Integer, Page> reusedPages, OcrLanguageSelector languages) {
+        if (nativePages.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<Page> pages = new ArrayList<>(nativePages.size());
+        PDFRenderer renderer = SharedResourceCache.createRenderer(document);
 
-            if (needsOcr(cleanedText)) {
-                logger.debug("Page {} yielded {} native characters; attempting OCR", pageNumber, cleanedText.length());
-                String ocrText = performOcr(renderer, pageZeroBased, pageNumber);
-                cleanedText = mergeText(cleanedText, ocrText);
+        for (int i = 0; i < nativePages.size(); i++) {
+            int pageZeroBased = firstPage - 1 + i;
+            int pageNumber = pageZeroBased + 1;
+            Page reused = reusedPages.get(pageNumber);
+            if (reused != null) {
+                pages.add(new Page(pageNumber, reused.text(), OcrStatus.REUSED, 0L, 0L, nativePages.get(i).tables()));
+                continue;
             }
 
-            pages.add(new Page(pageNumber, cleanedText));
+            pages.add(extractPage(renderer, document, pageZeroBased, nativePages.get(i), languages));
         }
 
         return Collections.unmodifiableList(pages);
     }
 
-    private boolean needsOcr(String text) {
+    /**
+     * Extract every page, taking pages present in {@code completedPages} (keyed by page number)
+     * verbatim instead of extracting them again, and passing each newly extracted page to
+     * {@code pageListener} as soon as it is done. Used to resume an interrupted run from a
+     * checkpoint; an exception thrown by the listener aborts the extraction. The native text of every
+     * page is read first, as in {@link #extractPages(PDDocument)}, so both produce the same pages.
+     *
+     * @param document the loaded PDF document
+     * @param completedPages pages finished by an earlier run
+     * @param pageListener receives each newly extracted page in page order
+     * @return immutable list of all pages
+     * @throws IOException if text extraction fails
+     */
+    public List<Page> extractPages(PDDocument document, Map<Integer, Page> completedPages,
+                                   Consumer<Page> pageListener) throws IOException {
+        Objects.requireNonNull(document, "document");
+        Objects.requireNonNull(completedPages, "completedPages");
+        Objects.requireNonNull(pageListener, "pageListener");
+
+        List<NativePage> nativePages = extractNativePages(document);
+        List<Page> pages = new ArrayList<>(nativePages.size());
+        PDFRenderer renderer = SharedResourceCache.createRenderer(document);
+        OcrLanguageSelector languages = languageSelector(texts(nativePages));
+        for (int pageNumber = 1; pageNumber <= nativePages.size(); pageNumber++) {
+            Page completed = completedPages.get(pageNumber);
+            if (completed != null) {
+                pages.add(completed);
+                continue;
+            }
+            Page page = extractPage(renderer, document, pageNumber - 1, nativePages.get(pageNumber - 1), languages);
+            pageListener.accept(page);
+            pages.add(page);
+        }
+        return Collections.unmodifiableList(pages);
+    }
+
+    private Page extractPage(PDFRenderer renderer, PDDocument document, int pageZeroBased, NativePage nativePage,
+                             OcrLanguageSelector languages) {
+        int pageNumber = pageZeroBased + 1;
+        String cleanedText = nativePage.text();
+        OcrStatus ocrStatus = OcrStatus.NOT_NEEDED;
+        long ocrMillis = 0L;
+        long preprocessMillis = 0L;
+        if (needsOcr(cleanedText)) {
+            logger.debug("Page {} yielded {} native characters; attempting OCR", pageNumber, cleanedText.length());
+            long ocrStart = System.nanoTime();
+            PDPage page = document.getPage(pageZeroBased);
+            String language = languages.select(cleanedText,
+                    () -> detectScript(renderer, page, pageZeroBased, ocrStart));
+            OcrOutcome outcome = performOcr(renderer, page, pageZeroBased, pageNumber, language, ocrStart);
+            ocrMillis = (System.nanoTime() - ocrStart) / 1_000_000;
+            cleanedText = mergeText(cleanedText, outcome.text());
+            ocrStatus = outcome.status();
+            preprocessMillis = outcome.preprocessMillis();
+        }
+        return new Page(pageNumber, cleanedText, ocrStatus, ocrMillis, preprocessMillis, nativePage.tables());
+    }
+
+    PageExtractorOptions options() {
+        return options;
+    }
+
+    int abandonedOcrCalls() {
+        return abandonedOcrCalls.get();
+    }
+
+    /**
+     * Route a freshly loaded document's resources through the shared resource cache, if any. Close
+     * the returned scope before the document.
+     */
+    Closeable attachResources(PDDocument document) {
+        if (resourceCache == null) {
+            return () -> { };
+        }
+        return resourceCache.attach(document);
+    }
+
+    boolean needsOcr(String text) {
         return text == null || text.isBlank() || text.length() < options.minNativeTextLength();
     }
 
@@ -96,29 +364,83 @@ public class PageExtractor {
         return safeNative + System.lineSeparator() + safeOcr;
     }
 
-    private String performOcr(PDFRenderer renderer, int pageZeroBased, int pageNumber) {
+    /**
+     * @param start when work on the page began; script detection already counts against its budget
+     */
+    private OcrOutcome performOcr(PDFRenderer renderer, PDPage page, int pageZeroBased, int pageNumber,
+                                  String language, long start) {
         if (!tesseractAvailable) {
             logger.debug("Tesseract not available, skipping OCR for page {}", pageNumber);
-            return "";
+            return OcrOutcome.SKIPPED;
+        }
+
+        Object tesseractInstance = getOrCreateTesseract(language);
+        if (tesseractInstance == null) {
+            logger.debug("Tesseract instance not available for page {}", pageNumber);
+            return OcrOutcome.SKIPPED;
+        }
+        if (abandonedOcrCalls.get() >= MAX_ABANDONED_OCR_CALLS) {
+            logger.warn("{} overrun OCR calls are still running; skipping OCR for page {}",
+                    abandonedOcrCalls.get(), pageNumber);
+            return OcrOutcome.SKIPPED;
+        }
+        if (!circuitBreaker.tryAcquire()) {
+            logger.debug("OCR circuit breaker is open, skipping OCR for page {}", pageNumber);
+            return OcrOutcome.SKIPPED;
         }
 
-        BufferedImage image = null;
+        long budgetNanos = options.ocrPageTimeout().toNanos();
+        RenderMemoryGovernor.Permit permit = null;
+        GrayRaster raster = null;
+        long preprocessMillis = 0L;
+        boolean failed = true;
         try {
-            image = renderer.renderImageWithDPI(pageZeroBased, options.ocrDpi());
+            permit = renderGovernor.admit(page, options.ocrDpi());
+            // Rendering and preprocessing are not cut off by the budget; they only shorten what is
+            // left of it for recognition.
+            raster = renderGray(renderer, page, pageZeroBased, permit.dpi());
 
-            Object tesseractInstance = getOrCreateTesseract();
-            if (tesseractInstance == null) {
-                logger.debug("Tesseract instance not available for page {}", pageNumber);
-                return "";
+            GrayRaster ocrInput = raster;
+            if (preprocessor.isEnabled()) {
+                long preprocessStart = System.nanoTime();
+                ocrInput = preprocessor.process(raster);
+                preprocessMillis = (System.nanoTime() - preprocessStart) / 1_000_000;
+                logger.debug("Preprocessed page {} ({}x{} -> {}x{}) in {} ms", pageNumber,
+                        raster.width(), raster.height(), ocrInput.width(), ocrInput.height(), preprocessMillis);
             }
 
-            // Use reflection to call doOCR method
-            Class<?> tesseractClass = tesseractInstance.getClass();
-            Object result = tesseractClass.getMethod("doOCR", BufferedImage.class).invoke(tesseractInstance, image);
+            long ocrStart = System.nanoTime();
+            Object result;
+            if (budgetNanos == 0) {
+                result = invokeOcr(tesseractInstance, ocrInput);
+            } else {
+                long remaining = budgetNanos - (ocrStart - start);
+                if (remaining <= 0) {
+                    throw new TimeoutException("budget exhausted before OCR started");
+                }
+                GrayRaster rendered = raster;
+                RenderMemoryGovernor.Permit renderPermit = permit;
+                try {
+                    result = invokeOcrWithin(tesseractInstance, ocrInput, remaining, () -> {
+                        bufferPool.releaseRaster(rendered);
+                        renderPermit.close();
+                    });
+                } catch (TimeoutException e) {
+                    // The raster and its memory permit now belong to the abandoned call.
+                    raster = null;
+                    permit = null;
+                    throw e;
+                }
+            }
             String ocrText = result != null ? result.toString() : "";
-            logger.debug("OCR completed for page {} with {} characters", pageNumber, ocrText.length());
-            return ocrText.trim();
+            logger.debug("OCR ({}) completed for page {} with {} characters in {} ms", language, pageNumber,
+                    ocrText.length(), (System.nanoTime() - ocrStart) / 1_000_000);
+            failed = false;
+            return new OcrOutcome(ocrText.trim(), OcrStatus.COMPLETED, preprocessMillis);
 
+        } catch (TimeoutException e) {
+            logger.warn("OCR on page {} exceeded its {} ms budget; keeping native text only", pageNumber,
+                    options.ocrPageTimeout().toMillis());
         } catch (IOException e) {
             logger.warn("Failed to render page {} for OCR: {}", pageNumber, e.getMessage());
             logger.debug("Render failure details", e);
@@ -136,19 +458,339 @@ public class PageExtractor {
                 logger.warn("OCR processing failed on page {}: {}", pageNumber, e.getMessage());
             }
             logger.debug("OCR exception details", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Interrupted while waiting for OCR on page {}", pageNumber);
         } catch (Exception e) {
             logger.warn("Unexpected error during OCR on page {}: {} - {}", pageNumber, e.getClass().getSimpleName(), e.getMessage());
             logger.debug("OCR exception details", e);
-            tesseractAvailable = false; // Disable further OCR attempts after unexpected errors
         } finally {
-            if (image != null) {
-                image.flush();
+            if (failed) {
+                circuitBreaker.recordFailure();
+            } else {
+                circuitBreaker.recordSuccess();
+            }
+            bufferPool.releaseRaster(raster);
+            if (permit != null) {
+                permit.close();
             }
         }
-        return "";
+        return new OcrOutcome("", OcrStatus.DEGRADED, preprocessMillis);
+    }
+
+    /**
+     * Render a page straight into a pooled 8-bit gray raster. Mirrors the sizing and rotation
+     * handling of {@link PDFRenderer#renderImageWithDPI(int, float)} without allocating a fresh
+     * {@link BufferedImage} per page.
+     */
+    private GrayRaster renderGray(PDFRenderer renderer, PDPage page, int pageZeroBased, float dpi) throws IOException {
+        float scale = dpi / 72f;
+        PDRectangle cropBox = page.getCropBox();
+        int widthPx = (int) Math.max(Math.floor(cropBox.getWidth() * scale), 1);
+        int heightPx = (int) Math.max(Math.floor(cropBox.getHeight() * scale), 1);
+        int rotation = page.getRotation();
+        if (rotation == 90 || rotation == 270) {
+            int swap = widthPx;
+            widthPx = heightPx;
+            heightPx = swap;
+        }
+
+        GrayRaster raster = bufferPool.acquireRaster(widthPx, heightPx);
+        Graphics2D graphics = raster.asImage().createGraphics();
+        try {
+            graphics.setBackground(Color.WHITE);
+            graphics.clearRect(0, 0, widthPx, heightPx);
+            renderer.renderPageToGraphics(pageZeroBased, graphics, scale, scale, RenderDestination.EXPORT);
+        } catch (IOException | RuntimeException e) {
+            bufferPool.releaseRaster(raster);
+            throw e;
+        } finally {
+            graphics.dispose();
+        }
+        return raster;
     }
 
-    private synchronized Object getOrCreateTesseract() {
+    /**
+     * Hand the raster to Tesseract as raw 8-bit pixels in a pooled direct buffer, which skips the
+     * image conversion Tess4J performs for {@link BufferedImage} input. Falls back to the image
+     * overload for tess4j versions without the raw-buffer API.
+     */
+    private Object invokeOcr(Object tesseractInstance, GrayRaster raster) throws ReflectiveOperationException {
+        Class<?> tesseractClass = tesseractInstance.getClass();
+        java.lang.reflect.Method rawOcr;
+        try {
+            rawOcr = tesseractClass.getMethod("doOCR", int.class, int.class, ByteBuffer.class, Rectangle.class, int.class);
+        } catch (NoSuchMethodException e) {
+            return tesseractClass.getMethod("doOCR", BufferedImage.class).invoke(tesseractInstance, raster.asImage());
+        }
+
+        ByteBuffer pixels = bufferPool.toDirect(raster);
+        try {
+            return rawOcr.invoke(tesseractInstance, raster.width(), raster.height(), pixels, null, 8);
+        } finally {
+            bufferPool.releaseDirect(pixels);
+        }
+    }
+
+    /**
+     * Run OCR on the dedicated worker thread and wait at most {@code budgetNanos}. Tesseract cannot be
+     * interrupted mid-page, so on timeout the worker and its engine instance are abandoned and fresh
+     * ones are created for the next page. The abandoned call then owns the page's resources: it runs
+     * {@code releaseOnTimeout} when the native call finally returns, or it is run here if the call
+     * never started. The caller must not release them after a {@link TimeoutException}.
+     */
+    Object invokeOcrWithin(Object tesseractInstance, GrayRaster raster, long budgetNanos,
+                           Runnable releaseOnTimeout)
+            throws ReflectiveOperationException, TimeoutException, InterruptedException {
+        return callWithin(() -> invokeOcr(tesseractInstance, raster), budgetNanos, releaseOnTimeout,
+                () -> tesseracts.values().remove(tesseractInstance));
+    }
+
+    /**
+     * Run a Tesseract call on the OCR worker thread and wait at most {@code budgetNanos}, or without
+     * limit when it is zero. On timeout the worker is abandoned as described for
+     * {@link #invokeOcrWithin}, and {@code dropEngine} runs so the engine is not used again.
+     */
+    private <T> T callWithin(Callable<T> call, long budgetNanos, Runnable releaseOnTimeout, Runnable dropEngine)
+            throws ReflectiveOperationException, TimeoutException, InterruptedException {
+        AtomicBoolean started = new AtomicBoolean();
+        AtomicBoolean handedOff = new AtomicBoolean();
+        Future<T> future = ocrWorker().submit(() -> {
+            if (!started.compareAndSet(false, true)) {
+                return null; // Abandoned while queued; the caller released its resources.
+            }
+            try {
+                return call.call();
+            } finally {
+                if (!handedOff.compareAndSet(false, true)) {
+                    abandonedOcrCalls.decrementAndGet();
+                    releaseOnTimeout.run();
+                    logger.debug("Overrun OCR call returned; released its resources");
+                }
+            }
+        });
+        try {
+            return budgetNanos == 0 ? future.get() : future.get(budgetNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            if (!handedOff.compareAndSet(false, true)) {
+                // Finished between the timeout and now.
+                return awaitCompleted(future);
+            }
+            abandonedOcrCalls.incrementAndGet();
+            abandonOcrWorker(dropEngine);
+            if (started.compareAndSet(false, true)) {
+                // Still queued behind other work; it will not run now.
+                abandonedOcrCalls.decrementAndGet();
+                releaseOnTimeout.run();
+            }
+            throw e;
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    private static <T> T awaitCompleted(Future<T> future)
+            throws ReflectiveOperationException, InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    private static ReflectiveOperationException unwrap(ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof ReflectiveOperationException reflective) {
+            return reflective;
+        }
+        if (cause instanceof RuntimeException runtime) {
+            throw runtime;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        throw new IllegalStateException(cause);
+    }
+
+    private synchronized ExecutorService ocrWorker() {
+        if (ocrWorker == null) {
+            ocrWorker = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "ocr-worker");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return ocrWorker;
+    }
+
+    /**
+     * Give up on the worker running an overrun call and on its engine instance. Work queued behind
+     * the call, such as another page's call or freeing the OSD engine, moves to a fresh worker.
+     */
+    private synchronized void abandonOcrWorker(Runnable dropEngine) {
+        if (ocrWorker != null) {
+            List<Runnable> queued = ocrWorker.shutdownNow();
+            ocrWorker = null;
+            if (!queued.isEmpty()) {
+                queued.forEach(ocrWorker()::execute);
+            }
+        }
+        dropEngine.run();
+    }
+
+    /**
+     * Shut down the OCR worker thread, free the OSD engine and drop the OCR engine instances.
+     * Tess4J allocates an OCR engine's native state per call and frees it when the call returns, so
+     * idle instances hold no native memory; the OSD engine keeps its model loaded and is freed on the
+     * worker after any call still using it. An overrun call still running frees its own resources
+     * when it returns. The extractor stays usable and recreates what it needs on the next OCR page.
+     */
+    @Override
+    public synchronized void close() {
+        if (osd != null) {
+            if (ocrWorker != null) {
+                ocrWorker.execute(osd::close);
+            } else {
+                osd.close();
+            }
+            osd = null;
+        }
+        if (ocrWorker != null) {
+            ocrWorker.shutdown();
+            ocrWorker = null;
+        }
+        tesseracts.clear();
+    }
+
+    /**
+     * Detect the script of a page from a quick low-resolution render with Tesseract's OSD model.
+     * Detection runs on the OCR worker within what is left of the page's OCR budget, counting as one
+     * call of the circuit breaker. Returns {@code null}, leaving the choice to other evidence, when
+     * OCR or the OSD model is unavailable, the budget runs out or the page holds too little text.
+     *
+     * @param start when work on the page began
+     */
+    private Character.UnicodeScript detectScript(PDFRenderer renderer, PDPage page, int pageZeroBased, long start) {
+        int pageNumber = pageZeroBased + 1;
+        if (!tesseractAvailable || abandonedOcrCalls.get() >= MAX_ABANDONED_OCR_CALLS) {
+            return null;
+        }
+        TesseractOsd engine = getOrCreateOsd();
+        if (engine == null || !circuitBreaker.tryAcquire()) {
+            return null;
+        }
+        long budgetNanos = options.ocrPageTimeout().toNanos();
+        RenderMemoryGovernor.Permit permit = null;
+        GrayRaster raster = null;
+        ByteBuffer pixels = null;
+        boolean failed = true;
+        try {
+            permit = renderGovernor.admit(page, OSD_DPI);
+            raster = renderGray(renderer, page, pageZeroBased, permit.dpi());
+            pixels = bufferPool.toDirect(raster);
+            long remaining = 0;
+            if (budgetNanos > 0) {
+                remaining = budgetNanos - (System.nanoTime() - start);
+                if (remaining <= 0) {
+                    throw new TimeoutException("budget exhausted before script detection started");
+                }
+            }
+            GrayRaster rendered = raster;
+            ByteBuffer buffer = pixels;
+            RenderMemoryGovernor.Permit renderPermit = permit;
+            int width = raster.width();
+            int height = raster.height();
+            Character.UnicodeScript script;
+            try {
+                script = callWithin(() -> engine.detectScript(buffer, width, height), remaining, () -> {
+                    bufferPool.releaseDirect(buffer);
+                    bufferPool.releaseRaster(rendered);
+                    renderPermit.close();
+                    engine.close();
+                }, () -> dropOsd(engine));
+            } catch (TimeoutException e) {
+                // The buffers, the memory permit and the engine now belong to the abandoned call.
+                pixels = null;
+                raster = null;
+                permit = null;
+                throw e;
+            }
+            failed = false;
+            logger.debug("OSD found {} script on page {} in {} ms", script, pageNumber,
+                    (System.nanoTime() - start) / 1_000_000);
+            return script;
+        } catch (TimeoutException e) {
+            logger.debug("Script detection on page {} ran out of the page's OCR budget", pageNumber);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception | LinkageError e) {
+            logger.debug("Script detection failed on page {}: {}", pageNumber, e.toString());
+        } finally {
+            if (failed) {
+                circuitBreaker.recordFailure();
+            } else {
+                circuitBreaker.recordSuccess();
+            }
+            bufferPool.releaseDirect(pixels);
+            bufferPool.releaseRaster(raster);
+            if (permit != null) {
+                permit.close();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The OSD engine, created on first use; {@code null} when the OSD model is missing or fails to load.
+     */
+    private synchronized TesseractOsd getOrCreateOsd() {
+        if (osd == null && !osdUnavailable) {
+            File dataPath = tessDataPath();
+            try {
+                osd = TesseractOsd.isInstalled(dataPath) ? TesseractOsd.open(dataPath) : null;
+            } catch (ReflectiveOperationException | LinkageError e) {
+                logger.debug("OSD engine unavailable: {}", e.toString());
+            }
+            osdUnavailable = osd == null;
+        }
+        return osd;
+    }
+
+    private synchronized void dropOsd(TesseractOsd engine) {
+        if (osd == engine) {
+            osd = null;
+        }
+    }
+
+    /**
+     * The configured OCR languages whose traineddata is installed, so a page is never assigned a
+     * model that cannot load. All configured languages when the data directory is unknown or none
+     * of them is found.
+     */
+    private synchronized List<String> installedLanguages() {
+        if (installedLanguages == null) {
+            List<String> configured = options.ocrLanguages();
+            List<String> installed = configured;
+            File dataPath = tessDataPath();
+            if (configured.size() > 1 && dataPath != null) {
+                File modelDir = resolveModelDir(dataPath, options.ocrProfile().models());
+                installed = new ArrayList<>();
+                for (String language : configured) {
+                    if (new File(modelDir, language + ".traineddata").isFile()) {
+                        installed.add(language);
+                    } else {
+                        logger.warn("No {}.traineddata in {}; OCR will not use it", language, modelDir.getAbsolutePath());
+                    }
+                }
+                installed = installed.isEmpty() ? configured : List.copyOf(installed);
+            }
+            installedLanguages = installed;
+        }
+        return installedLanguages;
+    }
+
+    private synchronized Object getOrCreateTesseract(String language) {
+        Object tesseract = tesseracts.get(language);
         if (tesseract == null && tesseractAvailable) {
             try {
                 // Attempt to load Tesseract class
@@ -162,25 +804,21 @@ public class PageExtractor {
                 } catch (ClassNotFoundException | NoClassDefFoundError | UnsatisfiedLinkError e) {
                     logger.warn("TessAPI native libraries not available; OCR will be unavailable: {}", e.getMessage());
                     tesseractAvailable = false;
-                    tesseract = null;
                     return null;
                 }
 
                 // Set Tesseract options using reflection
                 try {
-                    tesseractClass.getMethod("setLanguage", String.class).invoke(tesseract, OCR_LANGUAGE);
+                    tesseractClass.getMethod("setLanguage", String.class).invoke(tesseract, language);
                 } catch (Exception e) {
                     logger.debug("Failed to set Tesseract language: {}", e.getMessage());
                 }
 
-                File dataPath = options.tessDataDir();
-                if (dataPath == null) {
-                    dataPath = autodetectTessDataDir();
-                    if (dataPath != null) {
-                        logger.debug("Auto-detected tessdata directory at: {}", dataPath.getAbsolutePath());
-                    }
-                }
+                applyProfile(tesseractClass, tesseract, options.ocrProfile());
+
+                File dataPath = tessDataPath();
                 if (dataPath != null) {
+                    dataPath = resolveModelDir(dataPath, options.ocrProfile().models());
                     try {
                         tesseractClass.getMethod("setDatapath", String.class).invoke(tesseract, dataPath.getAbsolutePath());
                     } catch (Exception e) {
@@ -188,7 +826,12 @@ public class PageExtractor {
                     }
                 }
 
-                logger.debug("Tesseract initialized successfully");
+                if (language.indexOf('+') >= 0) {
+                    // Single languages are bounded by the configuration; keep only the latest combination.
+                    tesseracts.keySet().removeIf(key -> key.indexOf('+') >= 0);
+                }
+                tesseracts.put(language, tesseract);
+                logger.debug("Tesseract initialized successfully for language {}", language);
             } catch (ClassNotFoundException e) {
                 logger.warn("Tesseract class not found; OCR will be unavailable. Ensure tess4j is in classpath.");
                 tesseractAvailable = false;
@@ -207,6 +850,89 @@ public class PageExtractor {
         return tesseract;
     }
 
+    /**
+     * The configured tessdata directory, or an auto-detected one; {@code null} if neither exists.
+     * Looked up on first use only.
+     */
+    private synchronized File tessDataPath() {
+        if (!tessDataPathResolved) {
+            tessDataPath = options.tessDataDir();
+            if (tessDataPath == null) {
+                tessDataPath = autodetectTessDataDir();
+                if (tessDataPath != null) {
+                    logger.debug("Auto-detected tessdata directory at: {}", tessDataPath.getAbsolutePath());
+                }
+            }
+            tessDataPathResolved = true;
+        }
+        return tessDataPath;
+    }
+
+    static void applyProfile(Class<?> tesseractClass, Object tesseractInstance, OcrProfile profile) {
+        logger.debug("Applying OCR profile '{}'", profile.name());
+        try {
+            if (profile.engineMode() != OcrProfile.UNSET) {
+                tesseractClass.getMethod("setOcrEngineMode", int.class).invoke(tesseractInstance, profile.engineMode());
+            }
+            if (profile.pageSegMode() != OcrProfile.UNSET) {
+                tesseractClass.getMethod("setPageSegMode", int.class).invoke(tesseractInstance, profile.pageSegMode());
+            }
+            if (profile.charWhitelist() != null) {
+                tesseractClass.getMethod("setVariable", String.class, String.class)
+                        .invoke(tesseractInstance, "tessedit_char_whitelist", profile.charWhitelist());
+            }
+            if (!profile.useDictionary()) {
+                // Dictionary loading is an init-time setting, so it has to come from a config file.
+                File config = noDictionaryConfig();
+                if (config != null) {
+                    tesseractClass.getMethod("setConfigs", List.class)
+                            .invoke(tesseractInstance, List.of(config.getAbsolutePath()));
+                }
+            }
+        } catch (Exception e) {
+            logger.debug("Failed to apply OCR profile '{}': {}", profile.name(), e.getMessage());
+        }
+    }
+
+    static synchronized File noDictionaryConfig() {
+        if (noDictionaryConfig == null) {
+            try {
+                File config = File.createTempFile("tess-nodict-", ".config");
+                config.deleteOnExit();
+                Files.writeString(config.toPath(), "load_system_dawg F\nload_freq_dawg F\n");
+                noDictionaryConfig = config;
+            } catch (IOException e) {
+                logger.debug("Could not write Tesseract no-dictionary config: {}", e.getMessage());
+            }
+        }
+        return noDictionaryConfig;
+    }
+
+    /**
+     * Find the traineddata directory for the requested model family next to or inside the
+     * configured tessdata directory, e.g. {@code tessdata_fast} beside {@code tessdata}. Falls back to
+     * the configured directory when no such variant is installed.
+     */
+    static File resolveModelDir(File dataPath, OcrProfile.Models models) {
+        if (models == OcrProfile.Models.STANDARD) {
+            return dataPath;
+        }
+        File parent = dataPath.getAbsoluteFile().getParentFile();
+        File[] candidates = new File[]{
+            new File(dataPath, models.directoryName()),
+            parent == null ? null : new File(parent, models.directoryName()),
+            new File(dataPath.getAbsolutePath() + models.directoryName().substring("tessdata".length()))
+        };
+        for (File candidate : candidates) {
+            if (candidate != null && candidate.isDirectory()) {
+                logger.debug("Using {} models from {}", models.directoryName(), candidate.getAbsolutePath());
+                return candidate;
+            }
+        }
+        logger.debug("No {} directory found near {}; using its models instead", models.directoryName(), dataPath.getAbsolutePath());
+        return dataPath;
+    }
+
     private File autodetectTessDataDir() {
         // Highest priority: environment variables
         String[] envKeys = new String[]{"TESSDATA_PREFIX", "TESSDATA_DIR"};
@@ -251,15 +977,66 @@ public class PageExtractor {
         return null;
     }
 
+    private record OcrOutcome(String text, OcrStatus status, long preprocessMillis) {
+        static final OcrOutcome SKIPPED = new OcrOutcome("", OcrStatus.SKIPPED, 0L);
+    }
+
     /**
-     * Immutable value object describing a single PDF page.
+     * How OCR contributed to a page's text.
      */
-    public record Page(int pageNumber, String text) {
+    public enum OcrStatus {
+        /** Native text was sufficient; OCR was not attempted. */
+        NOT_NEEDED,
+        /** OCR ran and its text was merged with the native text. */
+        COMPLETED,
+        /** OCR was needed but not attempted (engine unavailable or circuit breaker open). */
+        SKIPPED,
+        /** OCR was attempted but failed or ran out of time; only native text is present. */
+        DEGRADED,
+        /** Text was copied from a matching page of a previously parsed near-duplicate document. */
+        REUSED
+    }
+
+    /**
+     * Native text of one page and the tables found in it, from a single pass over its glyphs.
+     */
+    public record NativePage(String text, List<TableExtractor.Table> tables) {
+        public NativePage {
+            text = text == null ? "" : text;
+            tables = tables == null ? List.of() : List.copyOf(tables);
+        }
+    }
+
+    /**
+     * Immutable value object describing a single PDF page. {@code ocrMillis} is the wall-clock time
+     * spent rendering and recognising the page, zero when OCR was not run; {@code preprocessMillis}
+     * is the part of it spent in {@link ImagePreprocessor}. {@code tables} are the tables found in
+     * the page's native text.
+     */
+    public record Page(int pageNumber, String text, OcrStatus ocrStatus, long ocrMillis, long preprocessMillis,
+                       List<TableExtractor.Table> tables) {
         public Page {
             if (pageNumber < 1) {
                 throw new IllegalArgumentException("pageNumber must be 1 or greater");
             }
+            if (ocrMillis < 0 || preprocessMillis < 0) {
+                throw new IllegalArgumentException("ocrMillis and preprocessMillis must be zero or greater");
+            }
             text = text == null ? "" : text;
+            ocrStatus = ocrStatus == null ? OcrStatus.NOT_NEEDED : ocrStatus;
+            tables = tables == null ? List.of() : List.copyOf(tables);
+        }
+
+        public Page(int pageNumber, String text, OcrStatus ocrStatus, long ocrMillis, long preprocessMillis) {
+            this(pageNumber, text, ocrStatus, ocrMillis, preprocessMillis, List.of());
+        }
+
+        public Page(int pageNumber, String text, OcrStatus ocrStatus, long ocrMillis) {
+            this(pageNumber, text, ocrStatus, ocrMillis, 0L);
+        }
+
+        public Page(int pageNumber, String text) {
+            this(pageNumber, text, OcrStatus.NOT_NEEDED, 0L);
         }
     }
 }
@@ -1,12 +1,33 @@
 package com.hotel.parser;
 
 import java.io.File;
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 
 /**
  * Configuration options for {@link PageExtractor}.
+ *
+ * <p>{@code ocrPageTimeout} is the time budget for OCR of a single page; {@link Duration#ZERO}
+ * disables it. Rendering and preprocessing count against the budget but run on the calling thread,
+ * since a document cannot be rendered from two threads, so only the recognition step is cut off
+ * when the budget runs out.</p>
+ *
+ * <p>{@code ocrLanguages} lists the Tesseract languages documents may be written in, e.g.
+ * {@code eng}, {@code deu}. With more than one, each OCR page is recognised with the language
+ * detected for it instead of all of them at once.</p>
+ *
+ * <p>{@code extractTables} makes the native text pass also look for tables in each page's glyph
+ * positions; turning it off saves the clustering work when tables are not needed.</p>
  */
-public record PageExtractorOptions(int ocrDpi, File tessDataDir, int minNativeTextLength) {
+public record PageExtractorOptions(int ocrDpi, File tessDataDir, int minNativeTextLength,
+                                   Set<ImagePreprocessor.Step> preprocessSteps,
+                                   Duration ocrPageTimeout, OcrProfile ocrProfile, List<String> ocrLanguages,
+                                   boolean extractTables) {
     public static final int DEFAULT_MIN_NATIVE_TEXT_LENGTH = 32;
+    public static final Duration DEFAULT_OCR_PAGE_TIMEOUT = Duration.ofSeconds(60);
+    public static final List<String> DEFAULT_OCR_LANGUAGES = List.of("eng");
     private static final int DEFAULT_DPI = 300;
 
     public PageExtractorOptions {
@@ -19,12 +40,94 @@ public record PageExtractorOptions(int ocrDpi, File tessDataDir, int minNativeTe
         if (tessDataDir != null && !tessDataDir.isDirectory()) {
             throw new IllegalArgumentException("tessDataDir must be a directory");
         }
+        preprocessSteps = preprocessSteps == null ? Set.of() : Set.copyOf(preprocessSteps);
+        ocrPageTimeout = ocrPageTimeout == null ? DEFAULT_OCR_PAGE_TIMEOUT : ocrPageTimeout;
+        if (ocrPageTimeout.isNegative()) {
+            throw new IllegalArgumentException("ocrPageTimeout must not be negative");
+        }
+        ocrProfile = ocrProfile == null ? OcrProfile.DEFAULT : ocrProfile;
+        if (ocrLanguages == null || ocrLanguages.isEmpty()) {
+            ocrLanguages = DEFAULT_OCR_LANGUAGES;
+        }
+        for (String language : ocrLanguages) {
+            if (language == null || !language.matches("[A-Za-z0-9_]+")) {
+                throw new IllegalArgumentException("ocrLanguages must be traineddata names such as eng, got " + language);
+            }
+        }
+        ocrLanguages = List.copyOf(new LinkedHashSet<>(ocrLanguages));
+    }
+
+    /**
+     * Create options that extract tables.
+     */
+    public PageExtractorOptions(int ocrDpi, File tessDataDir, int minNativeTextLength,
+                                Set<ImagePreprocessor.Step> preprocessSteps,
+                                Duration ocrPageTimeout, OcrProfile ocrProfile, List<String> ocrLanguages) {
+        this(ocrDpi, tessDataDir, minNativeTextLength, preprocessSteps, ocrPageTimeout, ocrProfile, ocrLanguages, true);
+    }
+
+    /**
+     * Create options for the default OCR language.
+     */
+    public PageExtractorOptions(int ocrDpi, File tessDataDir, int minNativeTextLength,
+                                Set<ImagePreprocessor.Step> preprocessSteps,
+                                Duration ocrPageTimeout, OcrProfile ocrProfile) {
+        this(ocrDpi, tessDataDir, minNativeTextLength, preprocessSteps, ocrPageTimeout, ocrProfile,
+                DEFAULT_OCR_LANGUAGES);
     }
 
     /**
-     * Create options using default values (300 DPI, no tessdata override, minimum native text length of 32).
+     * Create options without image preprocessing, with the default OCR page timeout and OCR profile.
+     */
+    public PageExtractorOptions(int ocrDpi, File tessDataDir, int minNativeTextLength) {
+        this(ocrDpi, tessDataDir, minNativeTextLength, Set.of(), DEFAULT_OCR_PAGE_TIMEOUT, OcrProfile.DEFAULT);
+    }
+
+    /**
+     * Create options using default values (300 DPI, no tessdata override, minimum native text length of 32,
+     * no preprocessing, 60 second OCR page timeout, default OCR profile, English OCR, table extraction).
      */
     public static PageExtractorOptions defaults() {
         return new PageExtractorOptions(DEFAULT_DPI, null, DEFAULT_MIN_NATIVE_TEXT_LENGTH);
     }
+
+    /**
+     * Copy of these options with the given preprocessing steps enabled before OCR.
+     */
+    public PageExtractorOptions withPreprocessSteps(Set<ImagePreprocessor.Step> steps) {
+        return new PageExtractorOptions(ocrDpi, tessDataDir, minNativeTextLength, steps, ocrPageTimeout, ocrProfile,
+                ocrLanguages, extractTables);
+    }
+
+    /**
+     * Copy of these options with a different per-page OCR time budget.
+     */
+    public PageExtractorOptions withOcrPageTimeout(Duration timeout) {
+        return new PageExtractorOptions(ocrDpi, tessDataDir, minNativeTextLength, preprocessSteps, timeout, ocrProfile,
+                ocrLanguages, extractTables);
+    }
+
+    /**
+     * Copy of these options using a different OCR engine profile.
+     */
+    public PageExtractorOptions withOcrProfile(OcrProfile profile) {
+        return new PageExtractorOptions(ocrDpi, tessDataDir, minNativeTextLength, preprocessSteps, ocrPageTimeout, profile,
+                ocrLanguages, extractTables);
+    }
+
+    /**
+     * Copy of these options with the languages OCR may choose from, most common first.
+     */
+    public PageExtractorOptions withOcrLanguages(List<String> languages) {
+        return new PageExtractorOptions(ocrDpi, tessDataDir, minNativeTextLength, preprocessSteps, ocrPageTimeout,
+                ocrProfile, languages, extractTables);
+    }
+
+    /**
+     * Copy of these options with table extraction turned on or off.
+     */
+    public PageExtractorOptions withExtractTables(boolean extract) {
+        return new PageExtractorOptions(ocrDpi, tessDataDir, minNativeTextLength, preprocessSteps, ocrPageTimeout,
+                ocrProfile, ocrLanguages, extract);
+    }
 }
@@ -0,0 +1,240 @@
+package com.hotel.parser;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Objects;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only checkpoint of the pages completed while parsing one document, so a run that dies
+ * part-way can resume where it stopped. A journal is keyed by the SHA-256 of the PDF and the
+ * extraction options: a changed file or different options start from scratch.
+ *
+ * <p>Each page is one record made of its length, the encoded page and a CRC32 checksum. Every
+ * record is forced to disk before {@link #append} returns. On open, records are read up to the
+ * first incomplete or corrupt one, and the file is truncated there. A crash mid-write therefore
+ * loses at most the page being written.</p>
+ */
+public final class PageJournal implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(PageJournal.class);
+
+    static final int MAGIC = 0x504A524E; // "PJRN"
+    static final int VERSION = 3;
+    private static final int RECORD_OVERHEAD = Integer.BYTES * 2;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final Map<Integer, PageExtractor.Page> completedPages = new HashMap<>();
+
+    private PageJournal(Path file, FileChannel channel) {
+        this.file = file;
+        this.channel = channel;
+    }
+
+    /**
+     * Open, or create, the journal for {@code pdfFile} parsed with {@code options}.
+     *
+     * @param directory directory holding journals; created if missing
+     * @throws IOException if the PDF cannot be read or the journal cannot be opened
+     */
+    public static PageJournal open(File directory, File pdfFile, PageExtractorOptions options) throws IOException {
+        Objects.requireNonNull(pdfFile, "pdfFile");
+        Objects.requireNonNull(options, "options");
+        Files.createDirectories(directory.toPath());
+        String key = documentDigest(pdfFile) + "\n" + String.join(" ", ShardWorker.optionArguments(options));
+        String name = sha256Hex(key.getBytes(StandardCharsets.UTF_8)).substring(0, 32) + ".journal";
+        return open(directory.toPath().resolve(name), key);
+    }
+
+    static PageJournal open(Path file, String key) throws IOException {
+        FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        PageJournal journal = new PageJournal(file, channel);
+        try {
+            journal.load(key);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return journal;
+    }
+
+    /**
+     * Pages recorded by earlier runs, keyed by page number.
+     */
+    public synchronized Map<Integer, PageExtractor.Page> completedPages() {
+        return Map.copyOf(completedPages);
+    }
+
+    /**
+     * Durably record a completed page.
+     */
+    public synchronized void append(PageExtractor.Page page) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            ShardWorker.writePage(out, page);
+        }
+        byte[] payload = bytes.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+
+        ByteBuffer record = ByteBuffer.allocate(payload.length + RECORD_OVERHEAD);
+        record.putInt(payload.length).put(payload).putInt((int) crc.getValue()).flip();
+        long position = channel.size();
+        while (record.hasRemaining()) {
+            position += channel.write(record, position);
+        }
+        channel.force(false);
+        completedPages.put(page.pageNumber(), page);
+    }
+
+    /**
+     * Close and delete the journal once the document has been fully parsed.
+     */
+    public synchronized void complete() throws IOException {
+        channel.close();
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Close the journal, keeping it for a later resume.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    Path file() {
+        return file;
+    }
+
+    private void load(String key) throws IOException {
+        long size = channel.size();
+        if (size == 0 || !hasHeader(key)) {
+            if (size != 0) {
+                logger.warn("Checkpoint {} belongs to a different document or options; starting over", file);
+            }
+            writeHeader(key);
+            return;
+        }
+
+        long validEnd = headerBytes(key).length;
+        // Not closed: closing the stream would close the channel.
+        DataInputStream in = new DataInputStream(new BufferedInputStream(
+                Channels.newInputStream(channel.position(validEnd))));
+        while (validEnd + RECORD_OVERHEAD <= size) {
+            int length = in.readInt();
+            if (length < 0 || validEnd + RECORD_OVERHEAD + length > size) {
+                break;
+            }
+            byte[] payload = new byte[length];
+            in.readFully(payload);
+            PageExtractor.Page page = decode(payload, in.readInt());
+            if (page == null) {
+                break;
+            }
+            completedPages.put(page.pageNumber(), page);
+            validEnd += RECORD_OVERHEAD + length;
+        }
+        if (validEnd < size) {
+            logger.info("Discarding incomplete checkpoint record at byte {} of {}", validEnd, file);
+            channel.truncate(validEnd);
+            channel.force(true);
+        }
+        logger.debug("Loaded {} checkpointed pages from {}", completedPages.size(), file);
+    }
+
+    /**
+     * Decode a record payload, or return {@code null} if it fails its checksum.
+     */
+    private static PageExtractor.Page decode(byte[] payload, int checksum) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        if (checksum != (int) crc.getValue()) {
+            return null;
+        }
+        try {
+            return ShardWorker.readPage(new DataInputStream(new ByteArrayInputStream(payload)));
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private boolean hasHeader(String key) throws IOException {
+        DataInputStream in = new DataInputStream(Channels.newInputStream(channel.position(0)));
+        try {
+            return in.readInt() == MAGIC && in.readInt() == VERSION && in.readUTF().equals(key);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private void writeHeader(String key) throws IOException {
+        channel.truncate(0);
+        ByteBuffer header = ByteBuffer.wrap(headerBytes(key));
+        long position = 0;
+        while (header.hasRemaining()) {
+            position += channel.write(header, position);
+        }
+        channel.force(true);
+    }
+
+    private static byte[] headerBytes(String key) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeUTF(key);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Hex SHA-256 of the file's contents.
+     */
+    static String documentDigest(File pdfFile) throws IOException {
+        MessageDigest digest = sha256();
+        try (InputStream in = Files.newInputStream(pdfFile.toPath())) {
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static String sha256Hex(byte[] bytes) {
+        return HexFormat.of().formatHex(sha256().digest(bytes));
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.hotel.parser;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs each shard in a fresh local JVM executing {@link ShardWorker} on this process's class path.
+ * Worker stderr is passed through; a worker that exits non-zero, produces no result or exceeds the
+ * shard timeout counts as a failed attempt.
+ */
+public class ProcessShardRunner implements ShardCoordinator.ShardRunner {
+    private static final Logger logger = LoggerFactory.getLogger(ProcessShardRunner.class);
+
+    private static final String JNA_LIBRARY_PATH = "jna.library.path";
+
+    private final PageExtractorOptions options;
+    private final List<String> jvmArguments;
+    private final Duration shardTimeout;
+
+    /**
+     * @param options extraction options recreated in every worker
+     * @param jvmArguments extra JVM arguments for workers, e.g. {@code -Xmx2g}
+     * @param shardTimeout maximum run time of one worker; {@link Duration#ZERO} for no limit
+     */
+    public ProcessShardRunner(PageExtractorOptions options, List<String> jvmArguments, Duration shardTimeout) {
+        this.options = Objects.requireNonNull(options, "options");
+        this.jvmArguments = List.copyOf(jvmArguments);
+        this.shardTimeout = Objects.requireNonNull(shardTimeout, "shardTimeout");
+        if (shardTimeout.isNegative()) {
+            throw new IllegalArgumentException("shardTimeout must not be negative");
+        }
+    }
+
+    @Override
+    public List<PageExtractor.Page> run(File pdfFile, int firstPage, int lastPage) throws IOException, InterruptedException {
+        Path resultFile = Files.createTempFile("shard-" + firstPage + "-", ".pages");
+        Process process = null;
+        try {
+            List<String> command = command(pdfFile, firstPage, lastPage, resultFile);
+            logger.debug("Starting shard worker for pages {}-{}", firstPage, lastPage);
+            process = new ProcessBuilder(command)
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .redirectError(ProcessBuilder.Redirect.INHERIT)
+                    .start();
+
+            if (shardTimeout.isZero()) {
+                process.waitFor();
+            } else if (!process.waitFor(shardTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new IOException("Shard worker for pages " + firstPage + "-" + lastPage
+                        + " timed out after " + shardTimeout.toSeconds() + " s");
+            }
+            if (process.exitValue() != 0) {
+                throw new IOException("Shard worker for pages " + firstPage + "-" + lastPage
+                        + " exited with status " + process.exitValue());
+            }
+            return ShardWorker.readPages(resultFile);
+        } finally {
+            if (process != null && process.isAlive()) {
+                process.destroyForcibly();
+            }
+            Files.deleteIfExists(resultFile);
+        }
+    }
+
+    private List<String> command(File pdfFile, int firstPage, int lastPage, Path resultFile) {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmArguments);
+        String jnaPath = System.getProperty(JNA_LIBRARY_PATH);
+        if (jnaPath != null && !jnaPath.isBlank()) {
+            command.add("-D" + JNA_LIBRARY_PATH + "=" + jnaPath);
+        }
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(ShardWorker.class.getName());
+        command.add(pdfFile.getAbsolutePath());
+        command.add(Integer.toString(firstPage));
+        command.add(Integer.toString(lastPage));
+        command.add(resultFile.toString());
+        command.addAll(ShardWorker.optionArguments(options));
+        return command;
+    }
+}
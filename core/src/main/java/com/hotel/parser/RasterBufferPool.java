@@ -0,0 +1,260 @@
+package com.hotel.parser;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread-safe pool of pixel buffers used to rasterize pages for OCR. Heap arrays back the
+ * {@link GrayRaster} the renderer draws into; direct buffers carry the same pixels to native
+ * Tesseract without further conversion. Released buffers are kept up to a total byte size, oldest
+ * dropped first, so a batch of similarly sized pages reuses the same memory instead of allocating
+ * per page. A buffer more than twice the size of a request is not handed out for it.
+ *
+ * <p>Once a {@link PageExtractor} ties the pool to its {@link RenderMemoryGovernor}, retained
+ * buffers are charged to the governor's budget: a buffer is only kept if it fits, and the governor
+ * takes retained buffers back from the pool when a render needs the memory.</p>
+ */
+public class RasterBufferPool {
+    public static final long DEFAULT_MAX_RETAINED_BYTES = 32L * 1024 * 1024;
+    /** Largest ratio of a pooled buffer's size to the requested size for it to be reused. */
+    private static final int MAX_OVERSIZE = 2;
+
+    private final long maxRetainedBytes;
+    private final Deque<byte[]> heapBuffers = new ArrayDeque<>();
+    private final Deque<ByteBuffer> directBuffers = new ArrayDeque<>();
+    private long retainedBytes;
+    private RenderMemoryGovernor governor;
+    private final AtomicLong allocations = new AtomicLong();
+    private final AtomicLong reuses = new AtomicLong();
+
+    public RasterBufferPool() {
+        this(DEFAULT_MAX_RETAINED_BYTES);
+    }
+
+    public RasterBufferPool(long maxRetainedBytes) {
+        if (maxRetainedBytes < 0) {
+            throw new IllegalArgumentException("maxRetainedBytes must be zero or greater");
+        }
+        this.maxRetainedBytes = maxRetainedBytes;
+    }
+
+    /**
+     * Charge retained buffers to {@code renderGovernor} from now on. A pool shared by several
+     * extractors is charged to the first governor it is tied to.
+     */
+    void chargeTo(RenderMemoryGovernor renderGovernor) {
+        Objects.requireNonNull(renderGovernor, "renderGovernor");
+        synchronized (this) {
+            if (governor == null) {
+                // Buffers kept before the governor was known are not charged; drop them.
+                trim(Long.MAX_VALUE);
+                governor = renderGovernor;
+            }
+        }
+    }
+
+    /**
+     * Acquire a raster of the given dimensions. Pixel contents are undefined; callers are expected
+     * to clear or fully overwrite them.
+     */
+    public GrayRaster acquireRaster(int width, int height) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("width and height must be positive");
+        }
+        long required = (long) width * height;
+        if (required > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("raster too large: " + width + "x" + height);
+        }
+        byte[] pixels = takeHeap((int) required);
+        return new GrayRaster(pixels, width, height);
+    }
+
+    public void releaseRaster(GrayRaster raster) {
+        if (raster == null) {
+            return;
+        }
+        byte[] pixels = raster.pixels();
+        if (retain(pixels.length)) {
+            synchronized (this) {
+                heapBuffers.push(pixels);
+            }
+            evictOverCapacity();
+        }
+    }
+
+    /**
+     * Acquire a direct buffer with at least {@code capacity} bytes, cleared and limited to
+     * exactly {@code capacity}.
+     */
+    public ByteBuffer acquireDirect(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        ByteBuffer buffer = null;
+        synchronized (this) {
+            Iterator<ByteBuffer> it = directBuffers.iterator();
+            while (it.hasNext()) {
+                ByteBuffer candidate = it.next();
+                if (fits(candidate.capacity(), capacity)) {
+                    it.remove();
+                    retainedBytes -= candidate.capacity();
+                    buffer = candidate;
+                    break;
+                }
+            }
+        }
+        if (buffer == null) {
+            allocations.incrementAndGet();
+            buffer = ByteBuffer.allocateDirect(capacity);
+        } else {
+            reuses.incrementAndGet();
+            unretain(buffer.capacity());
+        }
+        buffer.clear().limit(capacity);
+        return buffer;
+    }
+
+    public void releaseDirect(ByteBuffer buffer) {
+        if (buffer == null || !buffer.isDirect()) {
+            return;
+        }
+        if (retain(buffer.capacity())) {
+            synchronized (this) {
+                directBuffers.push(buffer);
+            }
+            evictOverCapacity();
+        }
+    }
+
+    /**
+     * Copy the raster's pixels into a pooled direct buffer, ready to be handed to native code.
+     */
+    public ByteBuffer toDirect(GrayRaster raster) {
+        Objects.requireNonNull(raster, "raster");
+        ByteBuffer buffer = acquireDirect(raster.byteCount());
+        buffer.put(raster.pixels(), 0, raster.byteCount());
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Number of buffers allocated because no pooled buffer was large enough.
+     */
+    public long allocationCount() {
+        return allocations.get();
+    }
+
+    /**
+     * Number of acquisitions satisfied from the pool.
+     */
+    public long reuseCount() {
+        return reuses.get();
+    }
+
+    /**
+     * Bytes held by released buffers waiting to be reused.
+     */
+    public synchronized long retainedBytes() {
+        return retainedBytes;
+    }
+
+    /**
+     * Drop the oldest retained buffers until at least {@code bytes} are freed or none are left. Does
+     * not tell the governor; the caller does.
+     *
+     * @return the bytes freed
+     */
+    synchronized long trim(long bytes) {
+        long freed = 0;
+        while (freed < bytes && !(heapBuffers.isEmpty() && directBuffers.isEmpty())) {
+            freed += dropOldest();
+        }
+        retainedBytes -= freed;
+        return freed;
+    }
+
+    private byte[] takeHeap(int required) {
+        byte[] taken = null;
+        synchronized (this) {
+            Iterator<byte[]> it = heapBuffers.iterator();
+            while (it.hasNext()) {
+                byte[] candidate = it.next();
+                if (fits(candidate.length, required)) {
+                    it.remove();
+                    retainedBytes -= candidate.length;
+                    taken = candidate;
+                    break;
+                }
+            }
+        }
+        if (taken == null) {
+            allocations.incrementAndGet();
+            return new byte[required];
+        }
+        reuses.incrementAndGet();
+        unretain(taken.length);
+        return taken;
+    }
+
+    private static boolean fits(long available, long required) {
+        return available >= required && available <= MAX_OVERSIZE * required;
+    }
+
+    /**
+     * Reserve room for a released buffer, in the governor's budget if there is one.
+     */
+    private boolean retain(long bytes) {
+        if (bytes > maxRetainedBytes) {
+            return false;
+        }
+        RenderMemoryGovernor charged;
+        synchronized (this) {
+            charged = governor;
+        }
+        if (charged != null && !charged.tryRetain(this, bytes)) {
+            return false;
+        }
+        synchronized (this) {
+            retainedBytes += bytes;
+        }
+        return true;
+    }
+
+    private void unretain(long bytes) {
+        RenderMemoryGovernor charged;
+        synchronized (this) {
+            charged = governor;
+        }
+        if (charged != null) {
+            charged.unretain(this, bytes);
+        }
+    }
+
+    private void evictOverCapacity() {
+        long freed;
+        synchronized (this) {
+            freed = 0;
+            while (retainedBytes - freed > maxRetainedBytes) {
+                freed += dropOldest();
+            }
+            retainedBytes -= freed;
+        }
+        if (freed > 0) {
+            unretain(freed);
+        }
+    }
+
+    /**
+     * Remove the oldest buffer of the larger queue; the caller adjusts {@link #retainedBytes}.
+     */
+    private long dropOldest() {
+        if (heapBuffers.size() >= directBuffers.size()) {
+            return heapBuffers.removeLast().length;
+        }
+        return directBuffers.removeLast().capacity();
+    }
+}
@@ -0,0 +1,258 @@
+package com.hotel.parser;
+
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+
+/**
+ * Admission control for page rasterization. Each render reserves its estimated pixel footprint
+ * against a byte budget shared by every extractor using this governor; when the budget is exhausted
+ * the render either waits for memory to be released or is downscaled to fit, depending on the
+ * {@link Policy}. Renders too large for the whole budget are always downscaled, down to
+ * {@link #MIN_DPI}; one still too large there is charged its full estimate and runs alone, once no
+ * other render holds memory.
+ *
+ * <p>Buffers that {@link RasterBufferPool}s keep for reuse count against the same budget. They are
+ * only kept while they fit, and a render that does not fit first takes memory back from the pools.</p>
+ */
+public class RenderMemoryGovernor {
+    private static final Logger logger = LoggerFactory.getLogger(RenderMemoryGovernor.class);
+
+    /**
+     * Bytes held per rendered pixel: the 8-bit gray raster plus its direct-buffer copy for Tesseract.
+     */
+    static final int BYTES_PER_PIXEL = 2;
+    public static final float MIN_DPI = 72f;
+
+    private static final RenderMemoryGovernor SHARED =
+            new RenderMemoryGovernor(Runtime.getRuntime().maxMemory() / 4, Policy.BLOCK);
+
+    /**
+     * What to do when a render does not fit in the remaining budget.
+     */
+    public enum Policy {
+        /** Wait until enough memory has been released. */
+        BLOCK,
+        /** Lower the DPI to fit the remaining budget, waiting only if even {@link #MIN_DPI} does not fit. */
+        DOWNSCALE
+    }
+
+    private final long budgetBytes;
+    private final Policy policy;
+    private long usedBytes;
+    private long peakBytes;
+    // Bytes retained per pool; a pool that is garbage collected drops out with its buffers
+    private final Map<RasterBufferPool, Long> retainedBytes = new WeakHashMap<>();
+
+    public RenderMemoryGovernor(long budgetBytes, Policy policy) {
+        if (budgetBytes <= 0) {
+            throw new IllegalArgumentException("budgetBytes must be positive");
+        }
+        this.budgetBytes = budgetBytes;
+        this.policy = Objects.requireNonNull(policy, "policy");
+    }
+
+    /**
+     * Process-wide governor with a budget of a quarter of the maximum heap, used by extractors that
+     * are not given one explicitly so concurrent documents share a single limit.
+     */
+    public static RenderMemoryGovernor shared() {
+        return SHARED;
+    }
+
+    /**
+     * Estimated bytes needed to render {@code page} at {@code dpi}, based on its media box.
+     */
+    public static long estimateBytes(PDPage page, float dpi) {
+        PDRectangle mediaBox = page.getMediaBox();
+        return estimateBytes(mediaBox.getWidth(), mediaBox.getHeight(), dpi);
+    }
+
+    static long estimateBytes(float widthPoints, float heightPoints, float dpi) {
+        double scale = dpi / 72.0;
+        long widthPx = (long) Math.max(Math.floor(widthPoints * scale), 1);
+        long heightPx = (long) Math.max(Math.floor(heightPoints * scale), 1);
+        return widthPx * heightPx * BYTES_PER_PIXEL;
+    }
+
+    /**
+     * Reserve memory for rendering {@code page} at {@code requestedDpi}. The returned permit carries
+     * the DPI actually granted and must be closed once the raster is no longer needed.
+     *
+     * @throws InterruptedException if interrupted while waiting for memory
+     */
+    public Permit admit(PDPage page, float requestedDpi) throws InterruptedException {
+        PDRectangle mediaBox = page.getMediaBox();
+        return admit(mediaBox.getWidth(), mediaBox.getHeight(), requestedDpi);
+    }
+
+    synchronized Permit admit(float widthPoints, float heightPoints, float requestedDpi) throws InterruptedException {
+        if (requestedDpi <= 0) {
+            throw new IllegalArgumentException("requestedDpi must be positive");
+        }
+        float dpi = requestedDpi;
+        long bytes = estimateBytes(widthPoints, heightPoints, dpi);
+        boolean alone = false;
+        if (bytes > budgetBytes) {
+            dpi = fitDpi(widthPoints, heightPoints, dpi, budgetBytes);
+            long requestedBytes = bytes;
+            bytes = estimateBytes(widthPoints, heightPoints, dpi);
+            alone = bytes > budgetBytes;
+            if (alone) {
+                logger.warn("Render of {} bytes exceeds budget of {} bytes even at {} DPI; rendering it alone",
+                        bytes, budgetBytes, dpi);
+            } else {
+                logger.warn("Render of {} bytes exceeds budget of {} bytes; downscaling from {} to {} DPI",
+                        requestedBytes, budgetBytes, requestedDpi, dpi);
+            }
+        }
+
+        // A render over the whole budget is charged in full and waits until no other render holds memory
+        while (alone ? usedBytes > 0 : usedBytes + retainedBytes() + bytes > budgetBytes) {
+            if (reclaim(usedBytes + retainedBytes() + bytes - budgetBytes)) {
+                continue;
+            }
+            if (policy == Policy.DOWNSCALE && !alone) {
+                long available = budgetBytes - usedBytes - retainedBytes();
+                float fitted = fitDpi(widthPoints, heightPoints, dpi, available);
+                long fittedBytes = estimateBytes(widthPoints, heightPoints, fitted);
+                if (fittedBytes <= available) {
+                    logger.debug("Downscaling render from {} to {} DPI to fit {} available bytes", dpi, fitted, available);
+                    dpi = fitted;
+                    bytes = fittedBytes;
+                    break;
+                }
+            }
+            wait();
+        }
+        if (alone) {
+            reclaim(Long.MAX_VALUE);
+        }
+
+        usedBytes += bytes;
+        peakBytes = Math.max(peakBytes, usedBytes);
+        return new Permit(this, dpi, bytes);
+    }
+
+    private synchronized void release(long bytes) {
+        usedBytes -= bytes;
+        notifyAll();
+    }
+
+    /**
+     * Charge {@code bytes} of buffers kept by {@code pool}, if they fit in the budget beside what
+     * renders use.
+     */
+    synchronized boolean tryRetain(RasterBufferPool pool, long bytes) {
+        if (usedBytes + retainedBytes() + bytes > budgetBytes) {
+            return false;
+        }
+        retainedBytes.merge(pool, bytes, Long::sum);
+        peakBytes = Math.max(peakBytes, usedBytes + retainedBytes());
+        return true;
+    }
+
+    synchronized void unretain(RasterBufferPool pool, long bytes) {
+        Long retained = retainedBytes.get(pool);
+        if (retained != null) {
+            long left = retained - bytes;
+            if (left > 0) {
+                retainedBytes.put(pool, left);
+            } else {
+                retainedBytes.remove(pool);
+            }
+            notifyAll();
+        }
+    }
+
+    /**
+     * Bytes held by pooled buffers waiting for reuse.
+     */
+    public synchronized long retainedBytes() {
+        long total = 0;
+        for (long bytes : retainedBytes.values()) {
+            total += bytes;
+        }
+        return total;
+    }
+
+    /**
+     * Take up to {@code bytes} of retained buffers back from the pools.
+     *
+     * @return whether anything was freed
+     */
+    private boolean reclaim(long bytes) {
+        long freed = 0;
+        for (RasterBufferPool pool : new ArrayList<>(retainedBytes.keySet())) {
+            if (freed >= bytes) {
+                break;
+            }
+            long trimmed = pool.trim(bytes - freed);
+            unretain(pool, trimmed);
+            freed += trimmed;
+        }
+        return freed > 0;
+    }
+
+    public long budgetBytes() {
+        return budgetBytes;
+    }
+
+    public synchronized long usedBytes() {
+        return usedBytes;
+    }
+
+    public synchronized long peakBytes() {
+        return peakBytes;
+    }
+
+    private static float fitDpi(float widthPoints, float heightPoints, float dpi, long availableBytes) {
+        long bytes = estimateBytes(widthPoints, heightPoints, dpi);
+        if (bytes <= availableBytes) {
+            return dpi;
+        }
+        float fitted = (float) Math.floor(dpi * Math.sqrt((double) availableBytes / bytes));
+        return Math.max(MIN_DPI, Math.min(dpi, fitted));
+    }
+
+    /**
+     * Reservation returned by {@link #admit}; closing it returns the bytes to the budget.
+     */
+    public static final class Permit implements AutoCloseable {
+        private final RenderMemoryGovernor governor;
+        private final float dpi;
+        private final long bytes;
+        private boolean closed;
+
+        private Permit(RenderMemoryGovernor governor, float dpi, long bytes) {
+            this.governor = governor;
+            this.dpi = dpi;
+            this.bytes = bytes;
+        }
+
+        public float dpi() {
+            return dpi;
+        }
+
+        public long bytes() {
+            return bytes;
+        }
+
+        @Override
+        public void close() {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+            }
+            governor.release(bytes);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.hotel.parser;
+
+import org.apache.pdfbox.cos.COSArray;
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSBoolean;
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSFloat;
+import org.apache.pdfbox.cos.COSInteger;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSNull;
+import org.apache.pdfbox.cos.COSObject;
+import org.apache.pdfbox.cos.COSStream;
+import org.apache.pdfbox.cos.COSString;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Content digest of a PDF resource that is independent of the document it came from: indirect
+ * references are followed instead of hashed by object number, dictionary keys are sorted, and
+ * streams contribute their raw (still encoded) bytes. Two fonts, images or ICC profiles with equal
+ * digests decode identically in any document.
+ *
+ * <p>Walking the graph also loads every indirect object it reaches, so a resource built from it no
+ * longer needs the source document's parser for anything but stream data.</p>
+ */
+final class ResourceDigest {
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private final MessageDigest digest;
+    private final Map<COSBase, Integer> visited = new IdentityHashMap<>();
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private long streamBytes;
+
+    private ResourceDigest() {
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Digest of {@code object} and everything reachable from it.
+     */
+    static Result of(COSBase object) throws IOException {
+        ResourceDigest walker = new ResourceDigest();
+        walker.add(object);
+        return new Result(HexFormat.of().formatHex(walker.digest.digest()), walker.streamBytes);
+    }
+
+    /**
+     * @param hex hex SHA-256 of the resource
+     * @param streamBytes total raw stream bytes reached, a rough measure of the parsed size
+     */
+    record Result(String hex, long streamBytes) {
+    }
+
+    private void add(COSBase object) throws IOException {
+        if (object instanceof COSObject reference) {
+            object = reference.getObject();
+        }
+        if (object == null || object instanceof COSNull) {
+            tag('n');
+            return;
+        }
+        Integer seen = visited.get(object);
+        if (seen != null) {
+            tag('r');
+            text(Integer.toString(seen));
+            return;
+        }
+
+        if (object instanceof COSDictionary dictionary) {
+            visited.put(object, visited.size());
+            tag(object instanceof COSStream ? 's' : 'd');
+            List<COSName> keys = new ArrayList<>(dictionary.keySet());
+            keys.sort(null);
+            for (COSName key : keys) {
+                text(key.getName());
+                add(dictionary.getItem(key));
+            }
+            tag('e');
+            if (object instanceof COSStream stream) {
+                addStreamBytes(stream);
+            }
+        } else if (object instanceof COSArray array) {
+            visited.put(object, visited.size());
+            tag('a');
+            for (int i = 0; i < array.size(); i++) {
+                add(array.get(i));
+            }
+            tag('e');
+        } else if (object instanceof COSName name) {
+            tag('/');
+            text(name.getName());
+        } else if (object instanceof COSString string) {
+            tag('(');
+            byte[] bytes = string.getBytes();
+            text(Integer.toString(bytes.length));
+            digest.update(bytes);
+        } else if (object instanceof COSInteger integer) {
+            tag('i');
+            text(Long.toString(integer.longValue()));
+        } else if (object instanceof COSFloat number) {
+            tag('f');
+            text(Float.toString(number.floatValue()));
+        } else if (object instanceof COSBoolean bool) {
+            tag(bool.getValue() ? 't' : 'F');
+        } else {
+            tag('?');
+            text(object.getClass().getSimpleName());
+        }
+    }
+
+    private void addStreamBytes(COSStream stream) throws IOException {
+        try (InputStream in = stream.createRawInputStream()) {
+            int read;
+            long total = 0;
+            while ((read = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, read);
+                total += read;
+            }
+            text(Long.toString(total));
+            streamBytes += total;
+        }
+    }
+
+    private void tag(char tag) {
+        digest.update((byte) tag);
+    }
+
+    private void text(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        digest.update(bytes);
+        digest.update((byte) 0);
+    }
+}
@@ -0,0 +1,163 @@
+package com.hotel.parser;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Splits a large PDF into consecutive page-range shards, runs them on up to {@code workers} shard
+ * runners at once and concatenates the pages in order. A shard that fails is retried on its own, up
+ * to {@code maxAttempts} times, without redoing the shards that succeeded.
+ *
+ * <p>The {@link ShardRunner} decides where a shard executes: {@link ProcessShardRunner} starts a
+ * local JVM per shard, so heap and GC pressure are spread over processes; other runners can hand
+ * shards to remote machines.</p>
+ */
+public class ShardCoordinator {
+    private static final Logger logger = LoggerFactory.getLogger(ShardCoordinator.class);
+
+    public static final int DEFAULT_PAGES_PER_SHARD = 100;
+    public static final int DEFAULT_MAX_ATTEMPTS = 3;
+
+    /**
+     * Extracts one page range of a PDF.
+     */
+    @FunctionalInterface
+    public interface ShardRunner {
+        /**
+         * @return the pages {@code firstPage} to {@code lastPage} (1-based, inclusive), in order
+         */
+        List<PageExtractor.Page> run(File pdfFile, int firstPage, int lastPage) throws IOException, InterruptedException;
+    }
+
+    private final ShardRunner runner;
+    private final int workers;
+    private final int pagesPerShard;
+    private final int maxAttempts;
+    private final AtomicInteger retries = new AtomicInteger();
+
+    public ShardCoordinator(ShardRunner runner, int workers) {
+        this(runner, workers, DEFAULT_PAGES_PER_SHARD, DEFAULT_MAX_ATTEMPTS);
+    }
+
+    public ShardCoordinator(ShardRunner runner, int workers, int pagesPerShard, int maxAttempts) {
+        if (workers <= 0) {
+            throw new IllegalArgumentException("workers must be positive");
+        }
+        if (pagesPerShard <= 0) {
+            throw new IllegalArgumentException("pagesPerShard must be positive");
+        }
+        if (maxAttempts <= 0) {
+            throw new IllegalArgumentException("maxAttempts must be positive");
+        }
+        this.runner = Objects.requireNonNull(runner, "runner");
+        this.workers = workers;
+        this.pagesPerShard = pagesPerShard;
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Whether a document is large enough to be split into more than one shard.
+     */
+    public boolean shouldShard(int pageCount) {
+        return pageCount > pagesPerShard;
+    }
+
+    /**
+     * Number of shard attempts that failed and were retried since this coordinator was created.
+     */
+    public int retryCount() {
+        return retries.get();
+    }
+
+    /**
+     * Extract every page of {@code pdfFile}.
+     *
+     * @param pageCount number of pages in the document
+     * @return immutable list of all pages in page order
+     * @throws IOException if a shard still fails after {@code maxAttempts} attempts
+     */
+    public List<PageExtractor.Page> extract(File pdfFile, int pageCount) throws IOException {
+        Objects.requireNonNull(pdfFile, "pdfFile");
+        List<int[]> ranges = new ArrayList<>();
+        for (int first = 1; first <= pageCount; first += pagesPerShard) {
+            ranges.add(new int[]{first, Math.min(pageCount, first + pagesPerShard - 1)});
+        }
+        logger.info("Extracting {} pages as {} shards on {} workers", pageCount, ranges.size(), workers);
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(workers, Math.max(1, ranges.size())), runnable -> {
+            Thread thread = new Thread(runnable, "shard-coordinator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<List<PageExtractor.Page>>> futures = new ArrayList<>(ranges.size());
+            for (int[] range : ranges) {
+                futures.add(executor.submit(() -> runWithRetry(pdfFile, range[0], range[1])));
+            }
+            List<PageExtractor.Page> pages = new ArrayList<>(pageCount);
+            for (Future<List<PageExtractor.Page>> future : futures) {
+                pages.addAll(future.get());
+            }
+            return Collections.unmodifiableList(pages);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException("Shard extraction failed", cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for shards", e);
+        } finally {
+            // Interrupts runners still working on other shards once one has failed for good.
+            executor.shutdownNow();
+        }
+    }
+
+    private List<PageExtractor.Page> runWithRetry(File pdfFile, int firstPage, int lastPage)
+            throws IOException, InterruptedException {
+        IOException lastFailure = null;
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            try {
+                List<PageExtractor.Page> pages = runner.run(pdfFile, firstPage, lastPage);
+                checkShard(pages, firstPage, lastPage);
+                logger.debug("Shard {}-{} completed on attempt {}", firstPage, lastPage, attempt);
+                return pages;
+            } catch (IOException | RuntimeException e) {
+                lastFailure = e instanceof IOException io ? io : new IOException(e.getMessage(), e);
+                if (attempt < maxAttempts) {
+                    retries.incrementAndGet();
+                    logger.warn("Shard {}-{} failed on attempt {} of {}: {}; retrying",
+                            firstPage, lastPage, attempt, maxAttempts, e.getMessage());
+                }
+            }
+        }
+        throw new IOException("Shard " + firstPage + "-" + lastPage + " failed after " + maxAttempts
+                + " attempts", lastFailure);
+    }
+
+    private static void checkShard(List<PageExtractor.Page> pages, int firstPage, int lastPage) throws IOException {
+        if (pages == null || pages.size() != lastPage - firstPage + 1) {
+            throw new IOException("Shard " + firstPage + "-" + lastPage + " returned "
+                    + (pages == null ? 0 : pages.size()) + " pages");
+        }
+        for (int i = 0; i < pages.size(); i++) {
+            if (pages.get(i).pageNumber() != firstPage + i) {
+                throw new IOException("Shard " + firstPage + "-" + lastPage + " returned page "
+                        + pages.get(i).pageNumber() + " out of order");
+            }
+        }
+    }
+}
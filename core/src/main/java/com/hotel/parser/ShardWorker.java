@@ -0,0 +1,242 @@
+package com.hotel.parser;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Entry point of a shard worker process started by {@link ProcessShardRunner}. It extracts one page
+ * range of a PDF and writes the pages to a result file in a small binary format: a magic number
+ * and version, the page count, then per page its number, OCR status, OCR time, UTF-8 text and the
+ * cells of the tables found on it. The file is written under a temporary name and moved into place,
+ * so the coordinator never reads a partial result.
+ *
+ * <p>Usage: {@code ShardWorker <pdf> <firstPage> <lastPage> <resultFile> [options]}, where the
+ * options are produced by {@link #optionArguments(PageExtractorOptions)}.</p>
+ */
+public final class ShardWorker {
+    static final int MAGIC = 0x53485244; // "SHRD"
+    static final int VERSION = 3;
+
+    static final int EXIT_FAILURE = 1;
+    static final int EXIT_USAGE = 2;
+
+    private ShardWorker() {
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 4) {
+            System.err.println("Usage: ShardWorker <pdf> <firstPage> <lastPage> <resultFile> [options]");
+            System.exit(EXIT_USAGE);
+        }
+        try {
+            File pdf = new File(args[0]);
+            int firstPage = Integer.parseInt(args[1]);
+            int lastPage = Integer.parseInt(args[2]);
+            Path resultFile = Path.of(args[3]);
+            PageExtractorOptions options = parseOptions(List.of(args).subList(4, args.length));
+
+            List<PageExtractor.Page> pages;
+            try (PDDocument document = Loader.loadPDF(pdf);
+                 PageExtractor extractor = new PageExtractor(options)) {
+                pages = extractor.extractPages(document, firstPage, lastPage);
+            }
+            writePages(pages, resultFile);
+            System.exit(0);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Shard worker: " + e.getMessage());
+            System.exit(EXIT_USAGE);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Shard worker failed: " + e);
+            System.exit(EXIT_FAILURE);
+        }
+    }
+
+    /**
+     * Command-line arguments that recreate {@code options} in a worker. The order is canonical, so
+     * equal options always produce the same arguments.
+     */
+    static List<String> optionArguments(PageExtractorOptions options) {
+        List<String> args = new ArrayList<>();
+        args.add("--dpi=" + options.ocrDpi());
+        if (options.tessDataDir() != null) {
+            args.add("--tess-data-dir=" + options.tessDataDir().getAbsolutePath());
+        }
+        args.add("--min-native-text-length=" + options.minNativeTextLength());
+        for (ImagePreprocessor.Step step : ImagePreprocessor.Step.values()) {
+            if (!options.preprocessSteps().contains(step)) {
+                continue;
+            }
+            args.add("--preprocess=" + step.name());
+        }
+        args.add("--ocr-page-timeout-ms=" + options.ocrPageTimeout().toMillis());
+        OcrProfile profile = options.ocrProfile();
+        // One argument per field, so no profile name can be mistaken for a separator
+        args.add("--ocr-profile=" + profile.name());
+        args.add("--ocr-engine-mode=" + profile.engineMode());
+        args.add("--ocr-page-seg-mode=" + profile.pageSegMode());
+        args.add("--ocr-models=" + profile.models().name());
+        args.add("--ocr-use-dictionary=" + profile.useDictionary());
+        if (profile.charWhitelist() != null) {
+            args.add("--ocr-whitelist=" + profile.charWhitelist());
+        }
+        if (!options.ocrLanguages().equals(PageExtractorOptions.DEFAULT_OCR_LANGUAGES)) {
+            args.add("--ocr-languages=" + String.join(",", options.ocrLanguages()));
+        }
+        if (!options.extractTables()) {
+            args.add("--extract-tables=false");
+        }
+        return args;
+    }
+
+    /**
+     * Inverse of {@link #optionArguments(PageExtractorOptions)}.
+     *
+     * @throws IllegalArgumentException on an unknown or malformed argument
+     */
+    static PageExtractorOptions parseOptions(List<String> args) {
+        PageExtractorOptions defaults = PageExtractorOptions.defaults();
+        int dpi = defaults.ocrDpi();
+        File tessDataDir = null;
+        int minNativeTextLength = defaults.minNativeTextLength();
+        Set<ImagePreprocessor.Step> steps = EnumSet.noneOf(ImagePreprocessor.Step.class);
+        Duration timeout = defaults.ocrPageTimeout();
+        OcrProfile profile = defaults.ocrProfile();
+        String profileName = profile.name();
+        int engineMode = profile.engineMode();
+        int pageSegMode = profile.pageSegMode();
+        OcrProfile.Models models = profile.models();
+        boolean useDictionary = profile.useDictionary();
+        String whitelist = null;
+        List<String> languages = defaults.ocrLanguages();
+        boolean extractTables = defaults.extractTables();
+
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("Malformed option: " + arg);
+            }
+            String value = arg.substring(eq + 1);
+            switch (arg.substring(0, eq)) {
+                case "--dpi" -> dpi = Integer.parseInt(value);
+                case "--tess-data-dir" -> tessDataDir = new File(value);
+                case "--min-native-text-length" -> minNativeTextLength = Integer.parseInt(value);
+                case "--preprocess" -> steps.add(ImagePreprocessor.Step.valueOf(value));
+                case "--ocr-page-timeout-ms" -> timeout = Duration.ofMillis(Long.parseLong(value));
+                case "--ocr-profile" -> profileName = value;
+                case "--ocr-engine-mode" -> engineMode = Integer.parseInt(value);
+                case "--ocr-page-seg-mode" -> pageSegMode = Integer.parseInt(value);
+                case "--ocr-models" -> models = OcrProfile.Models.valueOf(value);
+                case "--ocr-use-dictionary" -> useDictionary = Boolean.parseBoolean(value);
+                case "--ocr-whitelist" -> whitelist = value;
+                case "--ocr-languages" -> languages = List.of(value.split(","));
+                case "--extract-tables" -> extractTables = Boolean.parseBoolean(value);
+                default -> throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+        profile = new OcrProfile(profileName, engineMode, pageSegMode, models, whitelist, useDictionary);
+        return new PageExtractorOptions(dpi, tessDataDir, minNativeTextLength, steps, timeout, profile,
+                languages, extractTables);
+    }
+
+    static void writePages(List<PageExtractor.Page> pages, Path resultFile) throws IOException {
+        Path temp = resultFile.resolveSibling(resultFile.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(pages.size());
+            for (PageExtractor.Page page : pages) {
+                writePage(out, page);
+            }
+        }
+        Files.move(temp, resultFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    static List<PageExtractor.Page> readPages(Path resultFile) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(resultFile)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not a shard result file: " + resultFile);
+            }
+            int count = in.readInt();
+            List<PageExtractor.Page> pages = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                pages.add(readPage(in));
+            }
+            return pages;
+        }
+    }
+
+    /**
+     * Encode one page; shared with {@link PageJournal}.
+     */
+    static void writePage(DataOutput out, PageExtractor.Page page) throws IOException {
+        out.writeInt(page.pageNumber());
+        out.writeUTF(page.ocrStatus().name());
+        out.writeLong(page.ocrMillis());
+        out.writeLong(page.preprocessMillis());
+        writeString(out, page.text());
+        out.writeInt(page.tables().size());
+        for (TableExtractor.Table table : page.tables()) {
+            out.writeInt(table.rows().size());
+            out.writeInt(table.columnCount());
+            for (List<String> row : table.rows()) {
+                for (String cell : row) {
+                    writeString(out, cell);
+                }
+            }
+        }
+    }
+
+    static PageExtractor.Page readPage(DataInput in) throws IOException {
+        int pageNumber = in.readInt();
+        PageExtractor.OcrStatus status = PageExtractor.OcrStatus.valueOf(in.readUTF());
+        long ocrMillis = in.readLong();
+        long preprocessMillis = in.readLong();
+        String text = readString(in);
+        int tableCount = in.readInt();
+        List<TableExtractor.Table> tables = new ArrayList<>(tableCount);
+        for (int t = 0; t < tableCount; t++) {
+            int rowCount = in.readInt();
+            int columnCount = in.readInt();
+            List<List<String>> rows = new ArrayList<>(rowCount);
+            for (int r = 0; r < rowCount; r++) {
+                List<String> row = new ArrayList<>(columnCount);
+                for (int c = 0; c < columnCount; c++) {
+                    row.add(readString(in));
+                }
+                rows.add(row);
+            }
+            tables.add(new TableExtractor.Table(pageNumber, rows));
+        }
+        return new PageExtractor.Page(pageNumber, text, status, ocrMillis, preprocessMillis, tables);
+    }
+
+    private static void writeString(DataOutput out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,399 @@
+package com.hotel.parser;
+
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSObject;
+import org.apache.pdfbox.pdmodel.DefaultResourceCache;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType3Font;
+import org.apache.pdfbox.pdmodel.graphics.color.PDColorSpace;
+import org.apache.pdfbox.pdmodel.graphics.color.PDICCBased;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImage;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.apache.pdfbox.rendering.PageDrawer;
+import org.apache.pdfbox.rendering.PageDrawerParameters;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Cross-document cache of parsed fonts, ICC colour spaces and decoded images, keyed by a
+ * {@link ResourceDigest} of their content. Contracts from the same vendor embed the same fonts and
+ * logos; with this cache they are parsed and decoded once per batch instead of once per document.
+ *
+ * <p>PDFBox fonts and colour spaces keep mutable internal caches, so they are lent exclusively to one
+ * open document at a time: {@link #attach} installs a {@link DocumentResources} that borrows matching
+ * idle instances, and closing it returns them (and anything newly parsed) to the pool. Decoded images
+ * are only read by the renderer and are shared directly. Idle instances and images are evicted least
+ * recently used first once the estimated size exceeds the budget.</p>
+ *
+ * <p>Instances are thread-safe and meant to be shared by all workers of a batch.</p>
+ */
+public class SharedResourceCache {
+    private static final Logger logger = LoggerFactory.getLogger(SharedResourceCache.class);
+
+    /** Rough in-memory size of a parsed font or profile relative to its encoded stream bytes. */
+    private static final int PARSED_SIZE_FACTOR = 3;
+    private static final long PARSED_SIZE_OVERHEAD = 4 * 1024;
+    private static final int MAX_IDLE_PER_RESOURCE = 8;
+    private static final Set<COSName> DEVICE_COLOR_SPACES = Set.of(
+            COSName.DEVICEGRAY, COSName.DEVICERGB, COSName.DEVICECMYK);
+
+    /**
+     * Kind of cached resource.
+     */
+    public enum Kind {
+        FONT,
+        COLOR_SPACE,
+        IMAGE
+    }
+
+    private final long budgetBytes;
+    private final LinkedHashMap<Key, ArrayDeque<Cached>> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private final long[] hits = new long[Kind.values().length];
+    private final long[] misses = new long[Kind.values().length];
+    private long usedBytes;
+    private long evictions;
+
+    /**
+     * @param budgetBytes estimated memory the cache may hold on to
+     */
+    public SharedResourceCache(long budgetBytes) {
+        if (budgetBytes <= 0) {
+            throw new IllegalArgumentException("budgetBytes must be positive");
+        }
+        this.budgetBytes = budgetBytes;
+    }
+
+    /**
+     * Route {@code document}'s font and colour-space lookups through this cache. Must be called before
+     * any page of the document is accessed; close the returned scope when done with the document.
+     */
+    public DocumentResources attach(PDDocument document) {
+        DocumentResources resources = new DocumentResources();
+        document.setResourceCache(resources);
+        return resources;
+    }
+
+    /**
+     * Renderer for {@code document} that takes decoded images from the cache when the document was
+     * {@linkplain #attach attached}, or a plain renderer otherwise.
+     */
+    public static PDFRenderer createRenderer(PDDocument document) {
+        if (document.getResourceCache() instanceof DocumentResources resources) {
+            return new CachingRenderer(document, resources);
+        }
+        return new PDFRenderer(document);
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(
+                hits[Kind.FONT.ordinal()], misses[Kind.FONT.ordinal()],
+                hits[Kind.COLOR_SPACE.ordinal()], misses[Kind.COLOR_SPACE.ordinal()],
+                hits[Kind.IMAGE.ordinal()], misses[Kind.IMAGE.ordinal()],
+                evictions, usedBytes, budgetBytes);
+    }
+
+    private synchronized Object borrow(Kind kind, String digest) {
+        ArrayDeque<Cached> idle = entries.get(new Key(kind, digest));
+        if (idle == null || idle.isEmpty()) {
+            misses[kind.ordinal()]++;
+            return null;
+        }
+        hits[kind.ordinal()]++;
+        Cached cached = idle.pop();
+        if (idle.isEmpty()) {
+            entries.remove(new Key(kind, digest));
+        }
+        usedBytes -= cached.bytes();
+        return cached.value();
+    }
+
+    private synchronized void giveBack(Kind kind, String digest, Object value, long bytes) {
+        if (bytes > budgetBytes / 4) {
+            return;
+        }
+        ArrayDeque<Cached> idle = entries.computeIfAbsent(new Key(kind, digest), k -> new ArrayDeque<>());
+        if (idle.size() >= MAX_IDLE_PER_RESOURCE) {
+            return;
+        }
+        idle.push(new Cached(value, bytes));
+        usedBytes += bytes;
+        evictToBudget();
+    }
+
+    private synchronized BufferedImage sharedImage(String digest) {
+        ArrayDeque<Cached> slot = entries.get(new Key(Kind.IMAGE, digest));
+        if (slot == null || slot.isEmpty()) {
+            misses[Kind.IMAGE.ordinal()]++;
+            return null;
+        }
+        hits[Kind.IMAGE.ordinal()]++;
+        return (BufferedImage) slot.peek().value();
+    }
+
+    private synchronized void putImage(String digest, BufferedImage image) {
+        long bytes = imageBytes(image);
+        Key key = new Key(Kind.IMAGE, digest);
+        if (bytes > budgetBytes / 4 || entries.containsKey(key)) {
+            return;
+        }
+        ArrayDeque<Cached> slot = new ArrayDeque<>(1);
+        slot.push(new Cached(image, bytes));
+        entries.put(key, slot);
+        usedBytes += bytes;
+        evictToBudget();
+    }
+
+    private void evictToBudget() {
+        Iterator<Map.Entry<Key, ArrayDeque<Cached>>> eldest = entries.entrySet().iterator();
+        while (usedBytes > budgetBytes && eldest.hasNext()) {
+            ArrayDeque<Cached> slot = eldest.next().getValue();
+            usedBytes -= slot.removeLast().bytes();
+            evictions++;
+            if (slot.isEmpty()) {
+                eldest.remove();
+            }
+        }
+    }
+
+    private static long imageBytes(BufferedImage image) {
+        DataBuffer buffer = image.getRaster().getDataBuffer();
+        return (long) buffer.getSize() * buffer.getNumBanks() * DataBuffer.getDataTypeSize(buffer.getDataType()) / 8;
+    }
+
+    private static long parsedBytes(ResourceDigest.Result digest) {
+        return digest.streamBytes() * PARSED_SIZE_FACTOR + PARSED_SIZE_OVERHEAD;
+    }
+
+    private record Key(Kind kind, String digest) {
+    }
+
+    private record Cached(Object value, long bytes) {
+    }
+
+    /**
+     * Cumulative hit and miss counters and the current estimated size.
+     */
+    public record Stats(long fontHits, long fontMisses, long colorSpaceHits, long colorSpaceMisses,
+                        long imageHits, long imageMisses, long evictions, long usedBytes, long budgetBytes) {
+
+        public long hits() {
+            return fontHits + colorSpaceHits + imageHits;
+        }
+
+        public long misses() {
+            return fontMisses + colorSpaceMisses + imageMisses;
+        }
+
+        public String summary() {
+            return String.format(Locale.ROOT,
+                    "Resource cache: %d hits, %d misses (fonts %d/%d, colour spaces %d/%d, images %d/%d), "
+                            + "%d evictions, %.1f of %.1f MB",
+                    hits(), misses(), fontHits, fontMisses, colorSpaceHits, colorSpaceMisses, imageHits, imageMisses,
+                    evictions, usedBytes / 1048576.0, budgetBytes / 1048576.0);
+        }
+    }
+
+    /**
+     * Per-document view installed by {@link #attach}. Behaves like PDFBox's default per-document cache,
+     * except that fonts and ICC colour spaces are first looked up in, and finally returned to, the
+     * shared pool. Used from the thread processing the document only.
+     */
+    public final class DocumentResources extends DefaultResourceCache implements Closeable {
+        private final Map<COSObject, PDFont> fonts = new HashMap<>();
+        private final Map<COSObject, PDColorSpace> colorSpaces = new HashMap<>();
+        private final Map<COSObject, ResourceDigest.Result> digests = new HashMap<>();
+        private final Map<Object, ResourceDigest.Result> imageDigests = new IdentityHashMap<>();
+        private final List<Lent> lent = new ArrayList<>();
+        private boolean closed;
+
+        private DocumentResources() {
+        }
+
+        @Override
+        public PDFont getFont(COSObject indirect) {
+            PDFont font = fonts.get(indirect);
+            if (font == null) {
+                font = (PDFont) borrowFor(Kind.FONT, indirect);
+                if (font != null) {
+                    fonts.put(indirect, font);
+                }
+            }
+            return font;
+        }
+
+        @Override
+        public void put(COSObject indirect, PDFont font) {
+            fonts.put(indirect, font);
+            // Type 3 glyphs are content streams read lazily from the source document.
+            if (!(font instanceof PDType3Font)) {
+                lend(Kind.FONT, indirect, font);
+            }
+        }
+
+        @Override
+        public PDColorSpace getColorSpace(COSObject indirect) {
+            PDColorSpace colorSpace = colorSpaces.get(indirect);
+            if (colorSpace == null) {
+                colorSpace = (PDColorSpace) borrowFor(Kind.COLOR_SPACE, indirect);
+                if (colorSpace != null) {
+                    colorSpaces.put(indirect, colorSpace);
+                }
+            }
+            return colorSpace;
+        }
+
+        @Override
+        public void put(COSObject indirect, PDColorSpace colorSpace) {
+            colorSpaces.put(indirect, colorSpace);
+            if (colorSpace instanceof PDICCBased) {
+                lend(Kind.COLOR_SPACE, indirect, colorSpace);
+            }
+        }
+
+        /**
+         * Return every font and colour space used by the document to the shared pool.
+         */
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            for (Lent item : lent) {
+                giveBack(item.kind(), item.digest().hex(), item.value(), parsedBytes(item.digest()));
+            }
+            lent.clear();
+        }
+
+        private Object borrowFor(Kind kind, COSObject indirect) {
+            ResourceDigest.Result digest = digest(indirect);
+            if (digest == null) {
+                return null;
+            }
+            Object value = borrow(kind, digest.hex());
+            if (value != null) {
+                lent.add(new Lent(kind, digest, value));
+            }
+            return value;
+        }
+
+        private void lend(Kind kind, COSObject indirect, Object value) {
+            ResourceDigest.Result digest = digest(indirect);
+            if (digest != null) {
+                lent.add(new Lent(kind, digest, value));
+            }
+        }
+
+        private ResourceDigest.Result digest(COSObject indirect) {
+            if (indirect == null) {
+                return null;
+            }
+            ResourceDigest.Result digest = digests.get(indirect);
+            if (digest == null && !digests.containsKey(indirect)) {
+                try {
+                    digest = ResourceDigest.of(indirect);
+                } catch (IOException | RuntimeException e) {
+                    logger.debug("Not caching unreadable resource {}: {}", indirect, e.getMessage());
+                }
+                digests.put(indirect, digest);
+            }
+            return digest;
+        }
+
+        BufferedImage image(PDImageXObject image, int subsampling, ImageDecoder decoder) throws IOException {
+            ResourceDigest.Result digest = imageDigests.get(image.getCOSObject());
+            if (digest == null) {
+                digest = ResourceDigest.of(image.getCOSObject());
+                imageDigests.put(image.getCOSObject(), digest);
+            }
+            String colorSpace;
+            try {
+                colorSpace = namedColorSpaceKey(image);
+            } catch (IOException | RuntimeException e) {
+                logger.debug("Not caching image with unresolvable colour space: {}", e.getMessage());
+                return decoder.decode();
+            }
+            String key = digest.hex() + colorSpace + "@" + subsampling;
+            BufferedImage cached = sharedImage(key);
+            if (cached != null) {
+                return cached;
+            }
+            BufferedImage decoded = decoder.decode();
+            putImage(key, decoded);
+            return decoded;
+        }
+
+        private record Lent(Kind kind, ResourceDigest.Result digest, Object value) {
+        }
+    }
+
+    /**
+     * An image's {@code /ColorSpace} given by name is looked up in the resources of the page that
+     * draws it, so identical image bytes can decode differently per page or document; the resolved
+     * definition then becomes part of the cache key. Device colour space names mean the same
+     * everywhere and add nothing.
+     */
+    static String namedColorSpaceKey(PDImageXObject image) throws IOException {
+        COSBase colorSpace = image.getCOSObject().getDictionaryObject(COSName.COLORSPACE);
+        if (!(colorSpace instanceof COSName name) || DEVICE_COLOR_SPACES.contains(name)) {
+            return "";
+        }
+        return "/" + ResourceDigest.of(image.getColorSpace().getCOSObject()).hex();
+    }
+
+    @FunctionalInterface
+    interface ImageDecoder {
+        BufferedImage decode() throws IOException;
+    }
+
+    private static final class CachingRenderer extends PDFRenderer {
+        private final DocumentResources resources;
+
+        CachingRenderer(PDDocument document, DocumentResources resources) {
+            super(document);
+            this.resources = resources;
+        }
+
+        @Override
+        protected PageDrawer createPageDrawer(PageDrawerParameters parameters) throws IOException {
+            return new CachingPageDrawer(parameters, resources);
+        }
+    }
+
+    private static final class CachingPageDrawer extends PageDrawer {
+        private final DocumentResources resources;
+
+        CachingPageDrawer(PageDrawerParameters parameters, DocumentResources resources) throws IOException {
+            super(parameters);
+            this.resources = resources;
+        }
+
+        @Override
+        public void drawImage(PDImage image) throws IOException {
+            // Optional-content images keep the default path so PageDrawer can still hide them.
+            if (image instanceof PDImageXObject xObject && !xObject.isStencil() && xObject.getOptionalContent() == null) {
+                super.drawImage(new CachedImage(xObject, resources));
+            } else {
+                super.drawImage(image);
+            }
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package com.hotel.parser;
+
+import org.apache.pdfbox.cos.COSArray;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSString;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDDocumentInformation;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.apache.pdfbox.pdmodel.graphics.image.JPEGFactory;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+
+/**
+ * Generates a reproducible corpus of synthetic hotel contracts for load testing. Each document mixes
+ * native-text pages, image-only scans and scans with a short native footer in the proportions of a
+ * {@link Spec}; the same spec always produces byte-identical files, so runs can be compared across
+ * releases. A spec can also have some documents re-sent: an earlier contract again, unchanged but
+ * behind a new cover page, as vendors do.
+ */
+public class SyntheticContractCorpus {
+    private static final Logger logger = LoggerFactory.getLogger(SyntheticContractCorpus.class);
+
+    private static final String[] ROOM_TYPES = {
+        "Standard Double", "Superior Double", "Deluxe King", "Junior Suite", "Family Room", "Single Economy"
+    };
+    private static final String[] SEASONS = {"Low season", "Shoulder season", "High season", "Peak / events"};
+    private static final String[] CLAUSES = {
+        "Cancellations received less than %d days before arrival are charged one night.",
+        "Allotment of %d rooms is released 21 days prior to arrival unless confirmed in writing.",
+        "Rates are net, non-commissionable and include %d%% VAT.",
+        "Children under %d years stay free of charge when sharing existing bedding.",
+        "Early check-in before %d:00 is subject to availability and a half-day supplement.",
+        "Payment is due within %d days of invoice date by bank transfer.",
+    };
+
+    /**
+     * Kind of synthetic page.
+     */
+    public enum PageKind {
+        /** Text drawn with a standard font, extracted without OCR. */
+        NATIVE,
+        /** Rasterized page embedded as a JPEG with no text layer. */
+        SCANNED,
+        /** Scanned page with a short native footer, still below the native-text threshold. */
+        MIXED
+    }
+
+    /**
+     * Corpus shape.
+     *
+     * @param documentCount number of PDFs to generate
+     * @param minPages minimum pages per document
+     * @param maxPages maximum pages per document
+     * @param pageMix relative weight of each page kind; absent kinds are never generated
+     * @param scanDpi resolution at which scanned pages are rasterized, which controls their size
+     * @param seed random seed; equal specs produce identical corpora
+     * @param resendPercent chance, in percent, that a document after the first re-sends an earlier one
+     */
+    public record Spec(int documentCount, int minPages, int maxPages, Map<PageKind, Integer> pageMix,
+                       int scanDpi, long seed, int resendPercent) {
+        public Spec {
+            if (documentCount <= 0) {
+                throw new IllegalArgumentException("documentCount must be positive");
+            }
+            if (minPages <= 0 || maxPages < minPages) {
+                throw new IllegalArgumentException("page range must satisfy 0 < minPages <= maxPages");
+            }
+            if (scanDpi <= 0) {
+                throw new IllegalArgumentException("scanDpi must be positive");
+            }
+            if (resendPercent < 0 || resendPercent > 100) {
+                throw new IllegalArgumentException("resendPercent must be between 0 and 100");
+            }
+            Objects.requireNonNull(pageMix, "pageMix");
+            int total = 0;
+            for (int weight : pageMix.values()) {
+                if (weight < 0) {
+                    throw new IllegalArgumentException("page mix weights must not be negative");
+                }
+                total += weight;
+            }
+            if (total == 0) {
+                throw new IllegalArgumentException("page mix must contain at least one positive weight");
+            }
+            pageMix = Map.copyOf(pageMix);
+        }
+
+        public Spec(int documentCount, int minPages, int maxPages, Map<PageKind, Integer> pageMix,
+                    int scanDpi, long seed) {
+            this(documentCount, minPages, maxPages, pageMix, scanDpi, seed, 0);
+        }
+    }
+
+    private final Spec spec;
+
+    public SyntheticContractCorpus(Spec spec) {
+        this.spec = Objects.requireNonNull(spec, "spec");
+    }
+
+    /**
+     * Write the corpus into {@code directory}, creating it if needed.
+     *
+     * @return the generated files in generation order
+     * @throws IOException if a file cannot be written
+     */
+    public List<File> generate(File directory) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Cannot create corpus directory: " + directory.getAbsolutePath());
+        }
+
+        Random random = new Random(spec.seed());
+        List<Original> originals = new ArrayList<>();
+        List<File> files = new ArrayList<>(spec.documentCount());
+        for (int doc = 1; doc <= spec.documentCount(); doc++) {
+            File file = new File(directory, String.format("contract-%04d.pdf", doc));
+            // Only roll for a re-send when enabled, so corpora without re-sends stay as they were.
+            if (spec.resendPercent() > 0 && !originals.isEmpty() && random.nextInt(100) < spec.resendPercent()) {
+                Original original = originals.get(random.nextInt(originals.size()));
+                writeDocument(file, original.docNumber(), original.pageCount(), new Random(original.seed()), doc);
+            } else {
+                int pageCount = spec.minPages() + random.nextInt(spec.maxPages() - spec.minPages() + 1);
+                long seed = random.nextLong();
+                writeDocument(file, doc, pageCount, new Random(seed), 0);
+                originals.add(new Original(doc, pageCount, seed));
+            }
+            files.add(file);
+        }
+        logger.info("Generated {} synthetic contracts in {}", files.size(), directory.getAbsolutePath());
+        return files;
+    }
+
+    /**
+     * @param resentAs number of the document re-sending this contract behind a cover page, or 0
+     */
+    private void writeDocument(File file, int docNumber, int pageCount, Random random, int resentAs)
+            throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            PDDocumentInformation info = new PDDocumentInformation();
+            info.setTitle("Synthetic Hotel Contract " + docNumber);
+            document.setDocumentInformation(info);
+            // PDFBox derives a missing file ID from the clock; a seeded one keeps the output byte-identical.
+            byte[] id = new byte[16];
+            random.nextBytes(id);
+            COSArray fileId = new COSArray();
+            fileId.add(new COSString(id));
+            fileId.add(new COSString(id));
+            document.getDocument().getTrailer().setItem(COSName.ID, fileId);
+
+            if (resentAs > 0) {
+                PDPage cover = new PDPage(PDRectangle.A4);
+                document.addPage(cover);
+                writeNativePage(document, cover, List.of("Cover letter " + resentAs,
+                        "Please find attached hotel contract " + docNumber + " again for countersignature."));
+            }
+            for (int pageNumber = 1; pageNumber <= pageCount; pageNumber++) {
+                PDPage page = new PDPage(PDRectangle.A4);
+                document.addPage(page);
+                List<String> lines = pageLines(docNumber, pageNumber, random);
+                switch (pickKind(random)) {
+                    case NATIVE -> writeNativePage(document, page, lines);
+                    case SCANNED -> writeScannedPage(document, page, lines, random, null);
+                    case MIXED -> writeScannedPage(document, page, lines, random,
+                            "Page " + pageNumber + "/" + pageCount);
+                }
+            }
+            document.save(file);
+        }
+    }
+
+    private PageKind pickKind(Random random) {
+        int total = 0;
+        for (PageKind kind : PageKind.values()) {
+            total += spec.pageMix().getOrDefault(kind, 0);
+        }
+        int roll = random.nextInt(total);
+        for (PageKind kind : PageKind.values()) {
+            roll -= spec.pageMix().getOrDefault(kind, 0);
+            if (roll < 0) {
+                return kind;
+            }
+        }
+        throw new IllegalStateException("unreachable");
+    }
+
+    private static List<String> pageLines(int docNumber, int pageNumber, Random random) {
+        List<String> lines = new ArrayList<>();
+        lines.add("Hotel Contract " + docNumber + " - Section " + pageNumber);
+        lines.add("");
+        for (String season : SEASONS) {
+            lines.add(season);
+            for (String room : ROOM_TYPES) {
+                lines.add(String.format("  %-18s %4d EUR   BB %3d EUR   HB %3d EUR",
+                        room, 60 + random.nextInt(240), 8 + random.nextInt(20), 18 + random.nextInt(35)));
+            }
+        }
+        lines.add("");
+        for (int i = 0; i < 4; i++) {
+            String clause = CLAUSES[random.nextInt(CLAUSES.length)];
+            lines.add(String.format("%d.%d " + clause, pageNumber, i + 1, 2 + random.nextInt(28)));
+        }
+        return lines;
+    }
+
+    private record Original(int docNumber, int pageCount, long seed) {
+    }
+
+    private static void writeNativePage(PDDocument document, PDPage page, List<String> lines) throws IOException {
+        try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+            content.beginText();
+            content.setFont(new PDType1Font(Standard14Fonts.FontName.COURIER), 9);
+            content.setLeading(12);
+            content.newLineAtOffset(50, page.getMediaBox().getHeight() - 60);
+            for (String line : lines) {
+                content.showText(line);
+                content.newLine();
+            }
+            content.endText();
+        }
+    }
+
+    private void writeScannedPage(PDDocument document, PDPage page, List<String> lines, Random random,
+                                  String footer) throws IOException {
+        PDRectangle box = page.getMediaBox();
+        float scale = spec.scanDpi() / 72f;
+        int width = Math.round(box.getWidth() * scale);
+        int height = Math.round(box.getHeight() * scale);
+
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            // A slight rotation and speckle noise make the page look like a real scan.
+            g.rotate(Math.toRadians(random.nextDouble() - 0.5), width / 2.0, height / 2.0);
+            g.setColor(Color.BLACK);
+            g.setFont(new Font(Font.MONOSPACED, Font.PLAIN, Math.round(9 * scale)));
+            float y = 60 * scale;
+            for (String line : lines) {
+                g.drawString(line, 50 * scale, y);
+                y += 12 * scale;
+            }
+        } finally {
+            g.dispose();
+        }
+        byte[] pixels = ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+        for (int i = 0; i < pixels.length / 2000; i++) {
+            pixels[random.nextInt(pixels.length)] = (byte) random.nextInt(128);
+        }
+
+        PDImageXObject scan = JPEGFactory.createFromImage(document, image, 0.75f);
+        try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+            content.drawImage(scan, 0, 0, box.getWidth(), box.getHeight());
+            if (footer != null) {
+                content.beginText();
+                content.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 8);
+                content.newLineAtOffset(box.getWidth() - 90, 20);
+                content.showText(footer);
+                content.endText();
+            }
+        }
+    }
+}
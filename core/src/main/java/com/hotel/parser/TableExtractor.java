@@ -0,0 +1,348 @@
+package com.hotel.parser;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.apache.pdfbox.text.TextPosition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Finds tables such as room-rate grids in the native text of a document. Sorted text extraction
+ * turns a grid into lines of text and loses its columns; this stage works from glyph positions
+ * instead.
+ *
+ * <p>Per page, glyphs are joined into text chunks with a {@link GlyphGrid} and the chunks are grouped
+ * into lines by baseline. A run of at least {@link #MIN_ROWS} closely spaced lines that each hold two
+ * or more chunks is a table candidate. Its columns come from the gaps between chunks that the rows
+ * agree on: a chunk inside which at least half of the other rows have a gap, such as a season header
+ * centred over two price columns, straddles a column boundary and is left out when the remaining
+ * chunks' horizontal extents are merged into columns. A candidate whose cells mostly hold more than
+ * {@link #MAX_CELL_WORDS} words is running text set in columns, such as a two-column page of
+ * clauses, and is not a table. Everything after the grid is sorting and a Fenwick tree, so a page is
+ * processed in O(n log n) for n glyphs.</p>
+ *
+ * <p>{@link PageExtractor} finds tables during its native text pass through {@link TableCollector};
+ * {@link #extractTables(PDDocument)} is for callers that only want the tables. Scanned pages have no
+ * glyphs, so only tables in born-digital text are found.</p>
+ */
+public class TableExtractor {
+    private static final Logger logger = LoggerFactory.getLogger(TableExtractor.class);
+
+    /** Fewest lines, header included, that make a table. */
+    static final int MIN_ROWS = 3;
+    /** Largest baseline distance, in em, between consecutive lines of one table. */
+    private static final float MAX_ROW_GAP_EMS = 2.5f;
+    /** Most words a typical cell holds; lines of prose columns hold more. */
+    static final int MAX_CELL_WORDS = 5;
+
+    /**
+     * A table found on a page.
+     *
+     * @param pageNumber 1-based page number
+     * @param rows cell text by row then column, top to bottom and left to right; every row has
+     *             the same number of cells, empty where the row has no text in that column
+     */
+    public record Table(int pageNumber, List<List<String>> rows) {
+        public Table {
+            if (pageNumber < 1) {
+                throw new IllegalArgumentException("pageNumber must be 1 or greater");
+            }
+            Objects.requireNonNull(rows, "rows");
+            if (rows.isEmpty()) {
+                throw new IllegalArgumentException("rows must not be empty");
+            }
+            int columns = rows.get(0).size();
+            List<List<String>> copy = new ArrayList<>(rows.size());
+            for (List<String> row : rows) {
+                if (row.size() != columns) {
+                    throw new IllegalArgumentException("every row must have " + columns + " cells");
+                }
+                copy.add(List.copyOf(row));
+            }
+            rows = Collections.unmodifiableList(copy);
+        }
+
+        public int columnCount() {
+            return rows.get(0).size();
+        }
+    }
+
+    /**
+     * Find the tables on every page of {@code document}, in page order and top to bottom.
+     *
+     * @throws IOException if the page content cannot be read
+     */
+    public List<Table> extractTables(PDDocument document) throws IOException {
+        Objects.requireNonNull(document, "document");
+        TableCollector collector = new TableCollector(false);
+        collector.writeText(document, Writer.nullWriter());
+        List<Table> tables = collector.takeTables();
+        logger.debug("Found {} tables in {} pages", tables.size(), document.getNumberOfPages());
+        return tables;
+    }
+
+    /**
+     * Find the tables among the text chunks of one page.
+     */
+    static List<Table> findTables(List<GlyphGrid.Chunk> chunks, int pageNumber) {
+        List<Table> tables = new ArrayList<>();
+        List<List<GlyphGrid.Chunk>> block = new ArrayList<>();
+        for (List<GlyphGrid.Chunk> line : lines(chunks)) {
+            boolean continues = line.size() >= 2 && (block.isEmpty() || closeBelow(last(block), line));
+            if (!continues) {
+                addTable(tables, block, pageNumber);
+                block = new ArrayList<>();
+            }
+            if (line.size() >= 2) {
+                block.add(line);
+            }
+        }
+        addTable(tables, block, pageNumber);
+        return tables;
+    }
+
+    /**
+     * Group chunks into lines by baseline, top to bottom, each sorted left to right.
+     */
+    private static List<List<GlyphGrid.Chunk>> lines(List<GlyphGrid.Chunk> chunks) {
+        List<GlyphGrid.Chunk> sorted = new ArrayList<>(chunks);
+        sorted.sort(Comparator.comparingDouble(GlyphGrid.Chunk::baseline));
+        List<List<GlyphGrid.Chunk>> lines = new ArrayList<>();
+        List<GlyphGrid.Chunk> line = new ArrayList<>();
+        for (GlyphGrid.Chunk chunk : sorted) {
+            if (!line.isEmpty()
+                    && chunk.baseline() - line.get(0).baseline() > GlyphGrid.BASELINE_TOLERANCE_EMS * chunk.em()) {
+                lines.add(line);
+                line = new ArrayList<>();
+            }
+            line.add(chunk);
+        }
+        if (!line.isEmpty()) {
+            lines.add(line);
+        }
+        for (List<GlyphGrid.Chunk> sortedLine : lines) {
+            sortedLine.sort(Comparator.comparingDouble(GlyphGrid.Chunk::x0));
+        }
+        return lines;
+    }
+
+    private static boolean closeBelow(List<GlyphGrid.Chunk> previous, List<GlyphGrid.Chunk> line) {
+        float em = Math.max(previous.get(0).em(), line.get(0).em());
+        return line.get(0).baseline() - previous.get(0).baseline() <= MAX_ROW_GAP_EMS * em;
+    }
+
+    private static void addTable(List<Table> tables, List<List<GlyphGrid.Chunk>> block, int pageNumber) {
+        if (block.size() < MIN_ROWS) {
+            return;
+        }
+        float[][] columns = columns(block);
+        if (columns.length < 2) {
+            return;
+        }
+        List<List<String>> rows = new ArrayList<>(block.size());
+        int rowsWithSeveralCells = 0;
+        for (List<GlyphGrid.Chunk> line : block) {
+            String[] cells = new String[columns.length];
+            int filled = 0;
+            for (GlyphGrid.Chunk chunk : line) {
+                int column = columnOf(columns, chunk.x0());
+                if (cells[column] == null) {
+                    cells[column] = chunk.text();
+                    filled++;
+                } else {
+                    cells[column] = cells[column] + " " + chunk.text();
+                }
+            }
+            if (filled >= 2) {
+                rowsWithSeveralCells++;
+            }
+            List<String> row = new ArrayList<>(columns.length);
+            for (String cell : cells) {
+                row.add(cell == null ? "" : cell);
+            }
+            rows.add(row);
+        }
+        if (rowsWithSeveralCells >= MIN_ROWS && !isRunningText(rows)) {
+            tables.add(new Table(pageNumber, rows));
+        }
+    }
+
+    /**
+     * Whether more than half of the non-empty cells hold more than {@link #MAX_CELL_WORDS} words.
+     */
+    private static boolean isRunningText(List<List<String>> rows) {
+        int cells = 0;
+        int wordyCells = 0;
+        for (List<String> row : rows) {
+            for (String cell : row) {
+                if (cell.isBlank()) {
+                    continue;
+                }
+                cells++;
+                if (cell.strip().split("\\s+").length > MAX_CELL_WORDS) {
+                    wordyCells++;
+                }
+            }
+        }
+        return 2 * wordyCells > cells;
+    }
+
+    /**
+     * Column intervals of the block, left to right: the merged horizontal extents of its chunks,
+     * leaving out chunks that straddle a column boundary.
+     */
+    private static float[][] columns(List<List<GlyphGrid.Chunk>> block) {
+        List<GlyphGrid.Chunk> chunks = new ArrayList<>();
+        List<float[]> gaps = new ArrayList<>();
+        for (List<GlyphGrid.Chunk> line : block) {
+            chunks.addAll(line);
+            for (int i = 1; i < line.size(); i++) {
+                gaps.add(new float[]{line.get(i - 1).x1(), line.get(i).x0()});
+            }
+        }
+        chunks.sort(Comparator.comparingDouble(GlyphGrid.Chunk::x0));
+        int[] inside = gapsInside(chunks, gaps);
+        int quorum = Math.max(1, block.size() / 2);
+
+        List<float[]> columns = new ArrayList<>();
+        float[] current = null;
+        for (int k = 0; k < chunks.size(); k++) {
+            GlyphGrid.Chunk chunk = chunks.get(k);
+            if (inside[k] >= quorum) {
+                continue;
+            }
+            if (current != null && chunk.x0() <= current[1]) {
+                current[1] = Math.max(current[1], chunk.x1());
+            } else {
+                current = new float[]{chunk.x0(), chunk.x1()};
+                columns.add(current);
+            }
+        }
+        return columns.toArray(new float[0][]);
+    }
+
+    /**
+     * For each chunk, sorted by left edge, the number of gaps lying wholly inside it. Gaps are added
+     * by descending start to a Fenwick tree over their ends, so each chunk is one prefix count.
+     */
+    private static int[] gapsInside(List<GlyphGrid.Chunk> chunks, List<float[]> gaps) {
+        float[] ends = new float[gaps.size()];
+        for (int g = 0; g < ends.length; g++) {
+            ends[g] = gaps.get(g)[1];
+        }
+        Arrays.sort(ends);
+        gaps.sort(Comparator.comparingDouble((float[] gap) -> gap[0]).reversed());
+
+        int[] tree = new int[ends.length + 1];
+        int[] inside = new int[chunks.size()];
+        int added = 0;
+        for (int k = chunks.size() - 1; k >= 0; k--) {
+            GlyphGrid.Chunk chunk = chunks.get(k);
+            for (; added < gaps.size() && gaps.get(added)[0] >= chunk.x0(); added++) {
+                for (int i = countAtMost(ends, gaps.get(added)[1]); i < tree.length; i += i & -i) {
+                    tree[i]++;
+                }
+            }
+            for (int i = countAtMost(ends, chunk.x1()); i > 0; i -= i & -i) {
+                inside[k] += tree[i];
+            }
+        }
+        return inside;
+    }
+
+    private static int countAtMost(float[] sorted, float value) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] <= value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * The first column ending right of {@code x}, or the last column. A chunk left out of the column
+     * extents thereby lands in the first column it overlaps.
+     */
+    private static int columnOf(float[][] columns, float x) {
+        int low = 0;
+        int high = columns.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (columns[mid][1] > x) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    private static <T> T last(List<T> list) {
+        return list.get(list.size() - 1);
+    }
+
+    /**
+     * Text stripper that also feeds every glyph of a page into a {@link GlyphGrid} and looks for
+     * tables when the page ends, so tables come out of the same pass as the text. Without text
+     * output only the glyph positions are kept.
+     */
+    static final class TableCollector extends PDFTextStripper {
+        private final boolean writeText;
+        private final GlyphGrid grid = new GlyphGrid();
+        private final List<Table> tables = new ArrayList<>();
+
+        TableCollector(boolean writeText) {
+            this.writeText = writeText;
+        }
+
+        /**
+         * The tables found since the last call, in page order.
+         */
+        List<Table> takeTables() {
+            List<Table> taken = List.copyOf(tables);
+            tables.clear();
+            return taken;
+        }
+
+        @Override
+        protected void startPage(PDPage page) {
+            grid.clear();
+        }
+
+        @Override
+        protected void processTextPosition(TextPosition text) {
+            if (writeText) {
+                super.processTextPosition(text);
+            }
+            grid.add(text);
+        }
+
+        @Override
+        protected void writePage() throws IOException {
+            if (writeText) {
+                super.writePage();
+            }
+        }
+
+        @Override
+        protected void endPage(PDPage page) {
+            tables.addAll(findTables(grid.chunks(), getCurrentPageNo()));
+            grid.clear();
+        }
+    }
+}
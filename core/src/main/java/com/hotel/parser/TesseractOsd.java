@@ -0,0 +1,142 @@
+package com.hotel.parser;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.util.Map;
+
+/**
+ * Tesseract orientation and script detection (OSD) through the Tess4J C API, called by reflection
+ * like the rest of the OCR code. Tess4J's {@code Tesseract} wrapper does not expose OSD results, so
+ * this drives {@code TessAPI1} directly: an engine is initialised once with the small {@code osd}
+ * model in page segmentation mode 0 (OSD only) and then asked for the script of each page.
+ *
+ * <p>An instance owns a native engine until {@link #close()} and must not be used from two threads
+ * at once.</p>
+ */
+final class TesseractOsd implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(TesseractOsd.class);
+
+    static final String MODEL = "osd";
+    private static final int PSM_OSD_ONLY = 0;
+
+    /** OSD script names that are not Unicode script names. */
+    private static final Map<String, Character.UnicodeScript> SCRIPT_ALIASES = Map.of(
+            "HanS", Character.UnicodeScript.HAN,
+            "HanT", Character.UnicodeScript.HAN,
+            "Japanese", Character.UnicodeScript.HAN,
+            "Korean", Character.UnicodeScript.HANGUL,
+            "Fraktur", Character.UnicodeScript.LATIN);
+
+    private final Object handle;
+    private final Class<?> referenceClass;
+    private final Method setImage;
+    private final Method detect;
+    private final Method clear;
+    private final Method end;
+    private final Method delete;
+
+    private TesseractOsd(Object handle, Class<?> api, Class<?> handleClass, Class<?> referenceClass)
+            throws NoSuchMethodException {
+        this.handle = handle;
+        this.referenceClass = referenceClass;
+        this.setImage = api.getMethod("TessBaseAPISetImage", handleClass, ByteBuffer.class, int.class, int.class,
+                int.class, int.class);
+        this.detect = api.getMethod("TessBaseAPIDetectOrientationScript", handleClass, IntBuffer.class,
+                FloatBuffer.class, referenceClass, FloatBuffer.class);
+        this.clear = api.getMethod("TessBaseAPIClear", handleClass);
+        this.end = api.getMethod("TessBaseAPIEnd", handleClass);
+        this.delete = api.getMethod("TessBaseAPIDelete", handleClass);
+    }
+
+    /**
+     * Whether {@code dataPath} holds the OSD model.
+     */
+    static boolean isInstalled(File dataPath) {
+        return dataPath != null && new File(dataPath, MODEL + ".traineddata").isFile();
+    }
+
+    /**
+     * Create and initialise an engine with the OSD model in {@code dataPath}.
+     *
+     * @return the engine, or {@code null} if the model does not load
+     * @throws ReflectiveOperationException if Tess4J is missing or its API differs
+     */
+    static TesseractOsd open(File dataPath) throws ReflectiveOperationException {
+        Class<?> api = Class.forName("net.sourceforge.tess4j.TessAPI1");
+        Class<?> handleClass = Class.forName("net.sourceforge.tess4j.ITessAPI$TessBaseAPI");
+        Class<?> referenceClass = Class.forName("com.sun.jna.ptr.PointerByReference");
+
+        Object handle = api.getMethod("TessBaseAPICreate").invoke(null);
+        TesseractOsd osd = new TesseractOsd(handle, api, handleClass, referenceClass);
+        int initResult = (Integer) api.getMethod("TessBaseAPIInit3", handleClass, String.class, String.class)
+                .invoke(null, handle, dataPath.getAbsolutePath(), MODEL);
+        if (initResult != 0) {
+            osd.close();
+            return null;
+        }
+        api.getMethod("TessBaseAPISetPageSegMode", handleClass, int.class).invoke(null, handle, PSM_OSD_ONLY);
+        return osd;
+    }
+
+    /**
+     * Detect the dominant script of an 8-bit gray image.
+     *
+     * @param pixels direct buffer of {@code width * height} gray bytes
+     * @return the script, or {@code null} when the page holds too little text to tell
+     * @throws ReflectiveOperationException if the Tess4J API differs
+     */
+    Character.UnicodeScript detectScript(ByteBuffer pixels, int width, int height)
+            throws ReflectiveOperationException {
+        setImage.invoke(null, handle, pixels, width, height, 1, width);
+        try {
+            Object scriptName = referenceClass.getDeclaredConstructor().newInstance();
+            int detected = (Integer) detect.invoke(null, handle, IntBuffer.allocate(1), FloatBuffer.allocate(1),
+                    scriptName, FloatBuffer.allocate(1));
+            if (detected == 0) {
+                return null;
+            }
+            Object pointer = referenceClass.getMethod("getValue").invoke(scriptName);
+            if (pointer == null) {
+                return null;
+            }
+            return toScript((String) pointer.getClass().getMethod("getString", long.class).invoke(pointer, 0L));
+        } finally {
+            // Drop the engine's copy of the image until the next page.
+            clear.invoke(null, handle);
+        }
+    }
+
+    /**
+     * Free the native engine.
+     */
+    @Override
+    public void close() {
+        try {
+            end.invoke(null, handle);
+            delete.invoke(null, handle);
+        } catch (ReflectiveOperationException e) {
+            logger.debug("Failed to free the OSD engine: {}", e.toString());
+        }
+    }
+
+    static Character.UnicodeScript toScript(String osdName) {
+        if (osdName == null || osdName.isBlank()) {
+            return null;
+        }
+        Character.UnicodeScript alias = SCRIPT_ALIASES.get(osdName);
+        if (alias != null) {
+            return alias;
+        }
+        try {
+            return Character.UnicodeScript.forName(osdName);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
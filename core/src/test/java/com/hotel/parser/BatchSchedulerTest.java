@@ -0,0 +1,205 @@
+package com.hotel.parser;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BatchSchedulerTest {
+
+    @Test
+    void estimateSeparatesNativeFromScannedDocuments(@TempDir Path tempDir) throws IOException {
+        File nativeDocument = corpus(tempDir.resolve("native"), SyntheticContractCorpus.PageKind.NATIVE, 1, 3).get(0);
+        File scannedDocument = corpus(tempDir.resolve("scanned"), SyntheticContractCorpus.PageKind.SCANNED, 1, 3).get(0);
+        File mixedDocument = corpus(tempDir.resolve("mixed"), SyntheticContractCorpus.PageKind.MIXED, 1, 3).get(0);
+
+        BatchScheduler.DocumentCost nativeCost = estimate(nativeDocument);
+        BatchScheduler.DocumentCost scannedCost = estimate(scannedDocument);
+        BatchScheduler.DocumentCost mixedCost = estimate(mixedDocument);
+
+        assertEquals(BatchScheduler.Tier.NATIVE, nativeCost.tier());
+        assertEquals(3 * BatchScheduler.NATIVE_MILLIS_PER_PAGE, nativeCost.estimatedMillis());
+        assertEquals(BatchScheduler.Tier.OCR, scannedCost.tier());
+        assertEquals(3, scannedCost.ocrPages());
+        assertEquals(3, mixedCost.ocrPages(), "a footer does not make a scanned page native");
+        assertTrue(scannedCost.estimatedMillis() > 100 * nativeCost.estimatedMillis());
+    }
+
+    @Test
+    void nativeDocumentsDoNotQueueBehindScans(@TempDir Path tempDir) throws Exception {
+        List<File> scans = corpus(tempDir.resolve("scanned"), SyntheticContractCorpus.PageKind.SCANNED, 2, 1);
+        List<File> natives = corpus(tempDir.resolve("native"), SyntheticContractCorpus.PageKind.NATIVE, 3, 1);
+        CountDownLatch releaseScans = new CountDownLatch(1);
+
+        try (BatchScheduler scheduler = new BatchScheduler(PDFParser::new, 1, 1)) {
+            List<CompletableFuture<String>> scanResults = new ArrayList<>();
+            for (File scan : scans) {
+                scanResults.add(scheduler.submit(scan, (parser, file) -> {
+                    await(releaseScans);
+                    return file.getName();
+                }));
+            }
+            List<CompletableFuture<PDFParser.ParseResult>> nativeResults = new ArrayList<>();
+            for (File document : natives) {
+                nativeResults.add(scheduler.submit(document));
+            }
+
+            for (CompletableFuture<PDFParser.ParseResult> result : nativeResults) {
+                assertEquals(1, result.get(30, TimeUnit.SECONDS).getPageCount());
+            }
+            assertFalse(scanResults.get(0).isDone(), "scans are still blocked");
+            releaseScans.countDown();
+            for (CompletableFuture<String> result : scanResults) {
+                result.get(30, TimeUnit.SECONDS);
+            }
+        }
+    }
+
+    @Test
+    void idleNativeWorkersDrainScansButKeepOneFreeForNativeDocuments(@TempDir Path tempDir) throws Exception {
+        List<File> scans = corpus(tempDir.resolve("scanned"), SyntheticContractCorpus.PageKind.SCANNED, 3, 1);
+        File nativeDocument = corpus(tempDir.resolve("native"), SyntheticContractCorpus.PageKind.NATIVE, 1, 1).get(0);
+        CountDownLatch started = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        BatchScheduler.DocumentTask<String> block = (parser, file) -> {
+            started.countDown();
+            await(release);
+            return Thread.currentThread().getName();
+        };
+
+        try (BatchScheduler scheduler = new BatchScheduler(PDFParser::new, 2, 1)) {
+            CompletableFuture<String> first = scheduler.submit(scans.get(0), block);
+            CompletableFuture<String> second = scheduler.submit(scans.get(1), block);
+            assertTrue(started.await(30, TimeUnit.SECONDS), "a native worker took the second scan");
+            CompletableFuture<String> third = scheduler.submit(scans.get(2), (parser, file) -> "third");
+
+            assertEquals(1, scheduler.submit(nativeDocument).get(30, TimeUnit.SECONDS).getPageCount());
+            assertFalse(third.isDone(), "the other native worker stays free for native documents");
+            release.countDown();
+            List<String> threads = new ArrayList<>(List.of(first.get(30, TimeUnit.SECONDS),
+                    second.get(30, TimeUnit.SECONDS)));
+            threads.replaceAll(name -> name.substring(0, name.lastIndexOf('-')));
+            Collections.sort(threads);
+            assertEquals(List.of("batch-native-worker", "batch-ocr-worker"), threads);
+            assertEquals("third", third.get(30, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void failingTasksAndParserFactoryFailOnlyTheirOwnDocuments(@TempDir Path tempDir) throws Exception {
+        List<File> natives = corpus(tempDir.resolve("native"), SyntheticContractCorpus.PageKind.NATIVE, 3, 1);
+        AtomicInteger parsers = new AtomicInteger();
+        Supplier<PDFParser> flakyFactory = () -> {
+            if (parsers.getAndIncrement() == 0) {
+                throw new IllegalStateException("no tessdata");
+            }
+            return new PDFParser();
+        };
+
+        try (BatchScheduler scheduler = new BatchScheduler(flakyFactory, 1, 1)) {
+            CompletableFuture<String> noParser = scheduler.submit(natives.get(0), (parser, file) -> "parsed");
+            ExecutionException e = assertThrows(ExecutionException.class, () -> noParser.get(30, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, e.getCause());
+
+            CompletableFuture<String> outOfMemory = scheduler.submit(natives.get(1), (parser, file) -> {
+                throw new OutOfMemoryError("page too large");
+            });
+            e = assertThrows(ExecutionException.class, () -> outOfMemory.get(30, TimeUnit.SECONDS));
+            assertInstanceOf(OutOfMemoryError.class, e.getCause());
+
+            assertEquals(1, scheduler.submit(natives.get(2)).get(30, TimeUnit.SECONDS).getPageCount());
+        }
+    }
+
+    @Test
+    void cheapestDocumentRunsFirstUnlessOthersHaveWaitedTooLong(@TempDir Path tempDir) throws Exception {
+        List<File> documents = new ArrayList<>(corpus(tempDir.resolve("native"),
+                SyntheticContractCorpus.PageKind.NATIVE, 6, 1, 8));
+        File scan = corpus(tempDir.resolve("scanned"), SyntheticContractCorpus.PageKind.SCANNED, 1, 1).get(0);
+        File blocker = documents.remove(0);
+        List<File> byCost = new ArrayList<>(documents);
+        byCost.sort(Comparator.comparingLong((File file) -> estimate(file).estimatedMillis())
+                .thenComparing(documents::indexOf));
+        assertNotEquals(documents, byCost, "corpus should not already be in cost order");
+
+        assertEquals(byCost, runOrder(scan, blocker, documents, BatchScheduler.DEFAULT_MAX_WAIT));
+        assertEquals(documents, runOrder(scan, blocker, documents, Duration.ZERO), "everything is overdue: FIFO");
+    }
+
+    /**
+     * Queue {@code documents} while both workers are held busy, then report the order they ran in.
+     */
+    private static List<File> runOrder(File scan, File blocker, List<File> documents, Duration maxWait)
+            throws Exception {
+        List<File> order = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch started = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        BatchScheduler.DocumentTask<File> block = (parser, file) -> {
+            started.countDown();
+            await(release);
+            return file;
+        };
+        try (BatchScheduler scheduler = new BatchScheduler(PDFParser::new, 1, 1, 300, maxWait)) {
+            scheduler.submit(scan, block);
+            scheduler.submit(blocker, block);
+            assertTrue(started.await(30, TimeUnit.SECONDS));
+            for (File document : documents) {
+                scheduler.submit(document, (parser, file) -> order.add(file));
+            }
+            release.countDown();
+        }
+        return order;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static BatchScheduler.DocumentCost estimate(File file) {
+        try (PDDocument document = Loader.loadPDF(file)) {
+            return BatchScheduler.estimate(document, 300);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static List<File> corpus(Path dir, SyntheticContractCorpus.PageKind kind, int documents, int pages)
+            throws IOException {
+        return corpus(dir, kind, documents, pages, pages);
+    }
+
+    private static List<File> corpus(Path dir, SyntheticContractCorpus.PageKind kind, int documents,
+                                     int minPages, int maxPages) throws IOException {
+        SyntheticContractCorpus.Spec spec = new SyntheticContractCorpus.Spec(documents, minPages, maxPages,
+                Map.of(kind, 1), 50, 11L);
+        return new SyntheticContractCorpus(spec).generate(dir.toFile());
+    }
+}
@@ -0,0 +1,163 @@
+package com.hotel.parser;
+
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ContractDiffTest {
+
+    @Test
+    void identicalVersionsHaveNoChanges() {
+        PDFParser.ParseResult result = contract("a.pdf", 5, 10);
+
+        ContractDiff.DiffResult diff = new ContractDiff().diff(result, contract("b.pdf", 5, 10));
+
+        assertFalse(diff.hasChanges());
+        assertEquals(5, diff.unchangedPages());
+    }
+
+    @Test
+    void whitespaceDifferencesAreIgnored() {
+        PDFParser.ParseResult oldResult = result("old.pdf", List.of("Room  rate: 120 EUR\nBreakfast included"));
+        PDFParser.ParseResult newResult = result("new.pdf", List.of("Room rate: 120 EUR \n\nBreakfast included"));
+
+        assertFalse(new ContractDiff().diff(oldResult, newResult).hasChanges());
+    }
+
+    @Test
+    void reportsModifiedAddedAndRemovedLinesWithPositions() {
+        List<String> oldPages = pagesOf(4, 6);
+        List<String> newPages = new ArrayList<>(oldPages);
+        newPages.set(1, newPages.get(1).replace("Clause 2.3", "Clause 2.3 amended"));
+        newPages.set(2, newPages.get(2) + "\nNew clause 3.7");
+        newPages.set(3, newPages.get(3).replace("Clause 4.3\n", ""));
+
+        ContractDiff.DiffResult diff = new ContractDiff().diff(result("old.pdf", oldPages), result("new.pdf", newPages));
+
+        assertEquals(3, diff.changes().size());
+        assertEquals(1, diff.unchangedPages());
+
+        ContractDiff.Change modified = diff.changes().get(0);
+        assertEquals(ContractDiff.ChangeType.MODIFIED, modified.type());
+        assertEquals(2, modified.oldPage());
+        assertEquals(3, modified.oldLine());
+        assertEquals(List.of("Clause 2.3 amended"), modified.newLines());
+
+        ContractDiff.Change added = diff.changes().get(1);
+        assertEquals(ContractDiff.ChangeType.ADDED, added.type());
+        assertEquals(3, added.newPage());
+        assertEquals(7, added.newLine());
+        assertEquals(List.of("New clause 3.7"), added.newLines());
+
+        ContractDiff.Change removed = diff.changes().get(2);
+        assertEquals(ContractDiff.ChangeType.REMOVED, removed.type());
+        assertEquals(4, removed.oldPage());
+        assertEquals(3, removed.oldLine());
+        assertEquals(List.of("Clause 4.3"), removed.oldLines());
+    }
+
+    @Test
+    void insertedPageIsOneAddition() {
+        List<String> oldPages = pagesOf(3, 4);
+        List<String> newPages = new ArrayList<>(oldPages);
+        newPages.add(1, "Addendum A\nSeasonal surcharge");
+
+        ContractDiff.DiffResult diff = new ContractDiff().diff(result("old.pdf", oldPages), result("new.pdf", newPages));
+
+        assertEquals(1, diff.changes().size());
+        assertEquals(ContractDiff.ChangeType.ADDED, diff.changes().get(0).type());
+        assertEquals(2, diff.changes().get(0).newPage());
+        assertEquals(3, diff.unchangedPages());
+    }
+
+    @Test
+    void largeContractsWithFewChangesReportOnlyThoseChanges() {
+        List<String> oldPages = pagesOf(500, 40);
+        List<String> newPages = new ArrayList<>(oldPages);
+        for (int page = 10; page < 500; page += 50) {
+            newPages.set(page, newPages.get(page).replace("Clause " + (page + 1) + ".5", "Changed"));
+        }
+
+        ContractDiff.DiffResult diff = new ContractDiff().diff(result("old.pdf", oldPages), result("new.pdf", newPages));
+
+        assertEquals(10, diff.changes().size());
+        assertEquals(490, diff.unchangedPages());
+    }
+
+    @Test
+    void rewriteBeyondEditBoundIsDiffedPageByPage() {
+        List<String> oldPages = pagesOf(4, 400);
+        List<String> newPages = new ArrayList<>(oldPages);
+        for (int page : new int[]{0, 2, 3}) {
+            newPages.set(page, newPages.get(page).replace("Clause", "Article"));
+        }
+        newPages.set(1, newPages.get(1).replace("Clause 2.17\n", "Clause 2.17 amended\n"));
+
+        ContractDiff.DiffResult diff = new ContractDiff().diff(result("old.pdf", oldPages), result("new.pdf", newPages));
+
+        assertEquals(4, diff.changes().size());
+        ContractDiff.Change amended = diff.changes().get(1);
+        assertEquals(2, amended.oldPage());
+        assertEquals(17, amended.oldLine());
+        assertEquals(List.of("Clause 2.17 amended"), amended.newLines());
+        assertEquals(4, diff.changes().get(3).newPage());
+        assertEquals(400, diff.changes().get(3).newLines().size());
+    }
+
+    @Test
+    void writersProduceDocxAndJson(@TempDir Path tempDir) throws IOException {
+        List<String> newPages = new ArrayList<>(pagesOf(2, 3));
+        newPages.set(0, newPages.get(0) + "\nRate \"A\" \\ 10%");
+        ContractDiff.DiffResult diff = new ContractDiff().diff(result("old.pdf", pagesOf(2, 3)), result("new.pdf", newPages));
+
+        File docx = tempDir.resolve("diff.docx").toFile();
+        new DocxWriter().writeDiff(diff, docx);
+        try (FileInputStream in = new FileInputStream(docx);
+             XWPFDocument doc = new XWPFDocument(in)) {
+            assertEquals("Changes: old.pdf -> new.pdf", doc.getParagraphs().get(0).getText());
+            assertEquals(1, doc.getTables().size());
+        }
+
+        File json = tempDir.resolve("diff.json").toFile();
+        new DiffJsonWriter().write(diff, json);
+        String content = Files.readString(json.toPath());
+        assertTrue(content.contains("\"type\": \"ADDED\""));
+        assertTrue(content.contains("Rate \\\"A\\\" \\\\ 10%"));
+    }
+
+    private static PDFParser.ParseResult contract(String name, int pageCount, int linesPerPage) {
+        return result(name, pagesOf(pageCount, linesPerPage));
+    }
+
+    private static List<String> pagesOf(int pageCount, int linesPerPage) {
+        List<String> pages = new ArrayList<>(pageCount);
+        for (int page = 1; page <= pageCount; page++) {
+            StringBuilder text = new StringBuilder();
+            for (int line = 1; line <= linesPerPage; line++) {
+                text.append("Clause ").append(page).append('.').append(line).append('\n');
+            }
+            pages.add(text.toString());
+        }
+        return pages;
+    }
+
+    private static PDFParser.ParseResult result(String name, List<String> texts) {
+        List<PageExtractor.Page> pages = new ArrayList<>(texts.size());
+        for (int i = 0; i < texts.size(); i++) {
+            pages.add(new PageExtractor.Page(i + 1, texts.get(i)));
+        }
+        return new PDFParser.ParseResult(pages, name, name);
+    }
+}
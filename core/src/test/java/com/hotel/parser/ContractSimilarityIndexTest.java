@@ -0,0 +1,241 @@
+package com.hotel.parser;
+
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.apache.pdfbox.pdmodel.graphics.image.LosslessFactory;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ContractSimilarityIndexTest {
+
+    @Test
+    void reusesScannedPagesAfterInsertedCoverPage() {
+        ContractSimilarityIndex index = new ContractSimilarityIndex();
+        List<DocumentFingerprint.PageFingerprint> scans = List.of(scan(1), scan(2), scan(3));
+        index.add("2024.pdf", document(scans), List.of(
+                ocrPage(1, "rates 2024", 900),
+                ocrPage(2, "terms", 1100),
+                ocrPage(3, "signatures", 1000)));
+
+        List<DocumentFingerprint.PageFingerprint> resent = new ArrayList<>();
+        resent.add(scan(99));
+        resent.addAll(scans);
+        Optional<ContractSimilarityIndex.Match> match = index.lookup(document(resent));
+
+        assertTrue(match.isPresent());
+        assertEquals("2024.pdf", match.get().sourceName());
+        assertEquals(3, match.get().reusablePages().size());
+        assertEquals("rates 2024", match.get().reusablePages().get(2).text());
+        assertEquals("signatures", match.get().reusablePages().get(4).text());
+        assertFalse(match.get().reusablePages().containsKey(1));
+        assertEquals(3000, index.stats().ocrMillisAvoided());
+        assertEquals(3, index.stats().reusedPages());
+    }
+
+    @Test
+    void changedScanIsNotReused() {
+        ContractSimilarityIndex index = new ContractSimilarityIndex();
+        index.add("a.pdf", document(List.of(scan(1), scan(2))), List.of(ocrPage(1, "one", 10), ocrPage(2, "two", 10)));
+
+        DocumentFingerprint.PageFingerprint amended = amend(scan(2));
+        Optional<ContractSimilarityIndex.Match> match = index.lookup(document(List.of(scan(1), amended)));
+
+        assertTrue(match.isPresent());
+        assertEquals(1, match.get().reusablePages().size());
+        assertTrue(match.get().reusablePages().containsKey(1));
+    }
+
+    @Test
+    void unrelatedDocumentHasNoMatch() {
+        ContractSimilarityIndex index = new ContractSimilarityIndex();
+        index.add("a.pdf", document(List.of(scan(1), scan(2))), List.of(ocrPage(1, "one", 10), ocrPage(2, "two", 10)));
+
+        assertTrue(index.lookup(document(List.of(scan(7), scan(8)))).isEmpty());
+        assertEquals(0, index.stats().matchedDocuments());
+    }
+
+    @Test
+    void reusesRenderedScanOfResentDocument() throws IOException {
+        ContractSimilarityIndex index = new ContractSimilarityIndex();
+        DocumentFingerprint original = fingerprint(false, "Standard Double 120 EUR", "Junior Suite 210 EUR");
+        index.add("2024.pdf", original, List.of(ocrPage(1, "doubles", 800), ocrPage(2, "suites", 900)));
+
+        DocumentFingerprint resent = fingerprint(true, "Standard Double 120 EUR", "Junior Suite 210 EUR");
+        Optional<ContractSimilarityIndex.Match> match = index.lookup(resent);
+
+        assertTrue(match.isPresent());
+        assertEquals(2, match.get().reusablePages().size());
+        assertEquals("doubles", match.get().reusablePages().get(2).text());
+        assertEquals(1700, index.stats().ocrMillisAvoided());
+    }
+
+    @Test
+    void changedRateDigitOnScanIsNotReused() throws IOException {
+        ContractSimilarityIndex index = new ContractSimilarityIndex();
+        DocumentFingerprint original = fingerprint(false, "Standard Double 120 EUR", "Junior Suite 210 EUR");
+        index.add("2024.pdf", original, List.of(ocrPage(1, "doubles", 800), ocrPage(2, "suites", 900)));
+
+        DocumentFingerprint amended = fingerprint(false, "Standard Double 126 EUR", "Junior Suite 210 EUR");
+        assertTrue(amended.pages().get(0).matches(original.pages().get(0)),
+                "a one-digit change is below the perceptual hash's resolution");
+        Optional<ContractSimilarityIndex.Match> match = index.lookup(amended);
+
+        assertTrue(match.isPresent());
+        assertEquals(1, match.get().reusablePages().size());
+        assertEquals("suites", match.get().reusablePages().get(2).text());
+    }
+
+    @Test
+    void changedScanDoesNotChangeDigestOfPagesSharingItsResources() throws IOException {
+        DocumentFingerprint original = fingerprintSharingResources("Standard Double 120 EUR", "Junior Suite 210 EUR");
+        DocumentFingerprint amended = fingerprintSharingResources("Standard Double 120 EUR", "Junior Suite 260 EUR");
+
+        assertEquals(original.pages().get(0).contentDigest(), amended.pages().get(0).contentDigest());
+        assertNotEquals(original.pages().get(1).contentDigest(), amended.pages().get(1).contentDigest());
+    }
+
+    @Test
+    void reusedPagesStayReusableAfterTheirSourceIsEvicted() {
+        ContractSimilarityIndex index = new ContractSimilarityIndex(ContractSimilarityIndex.DEFAULT_MIN_SIMILARITY, 1);
+        List<DocumentFingerprint.PageFingerprint> scans = List.of(scan(1), scan(2));
+        index.add("a.pdf", document(scans), List.of(ocrPage(1, "one", 10), ocrPage(2, "two", 10)));
+
+        ContractSimilarityIndex.Match first = index.lookup(document(scans)).orElseThrow();
+        index.add("b.pdf", document(scans), List.of(first.reusablePages().get(1), first.reusablePages().get(2)));
+        ContractSimilarityIndex.Match second = index.lookup(document(scans)).orElseThrow();
+
+        assertEquals("b.pdf", second.sourceName());
+        assertEquals(2, second.reusablePages().size());
+        assertEquals(1, index.stats().indexedDocuments());
+        assertEquals(1, index.stats().evictions());
+    }
+
+    @Test
+    void nativeTextShinglesAreStableUnderFormatting() {
+        long[] a = DocumentFingerprinter.shingleHashes("Room rate: 120 EUR per night, breakfast included.");
+        long[] b = DocumentFingerprinter.shingleHashes("room  rate 120 eur\nper night breakfast included");
+
+        assertTrue(Arrays.equals(a, b));
+        assertEquals(DocumentFingerprinter.simHash(a), DocumentFingerprinter.simHash(b));
+    }
+
+    private static DocumentFingerprint document(List<DocumentFingerprint.PageFingerprint> pages) {
+        long[] minHash = new long[DocumentFingerprinter.MIN_HASH_SIZE];
+        Arrays.fill(minHash, Long.MAX_VALUE);
+        return new DocumentFingerprint(minHash, pages);
+    }
+
+    private static DocumentFingerprint.PageFingerprint scan(int seed) {
+        int[] grid = new int[32 * 32];
+        byte[] thumbnail = new byte[grid.length];
+        for (int i = 0; i < grid.length; i++) {
+            grid[i] = (int) (DocumentFingerprinter.mix(seed * 1024L + i) & 0xFF);
+            thumbnail[i] = (byte) grid[i];
+        }
+        return new DocumentFingerprint.PageFingerprint(0L, DocumentFingerprinter.differenceHash(grid), thumbnail,
+                "scan-" + seed);
+    }
+
+    private static DocumentFingerprint.PageFingerprint amend(DocumentFingerprint.PageFingerprint page) {
+        byte[] thumbnail = page.thumbnail().clone();
+        thumbnail[500] = (byte) ((thumbnail[500] & 0xFF) > 128 ? 0 : 255);
+        return new DocumentFingerprint.PageFingerprint(page.textSimHash(), page.imageHash(), thumbnail,
+                page.contentDigest() + "-amended");
+    }
+
+    /**
+     * Fingerprint a document of image-only pages, one per line of text, optionally behind a native
+     * cover page.
+     */
+    private static DocumentFingerprint fingerprint(boolean coverPage, String... scannedLines) throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            List<String> nativeTexts = new ArrayList<>();
+            if (coverPage) {
+                PDPage cover = new PDPage(PDRectangle.A4);
+                document.addPage(cover);
+                try (PDPageContentStream content = new PDPageContentStream(document, cover)) {
+                    content.beginText();
+                    content.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 12);
+                    content.newLineAtOffset(72, 700);
+                    content.showText("Cover letter for the resent contract");
+                    content.endText();
+                }
+                nativeTexts.add("Cover letter for the resent contract");
+            }
+            for (String line : scannedLines) {
+                PDPage page = new PDPage(PDRectangle.A4);
+                document.addPage(page);
+                PDImageXObject scan = LosslessFactory.createFromImage(document, scanOf(line));
+                try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                    content.drawImage(scan, 0, 0, PDRectangle.A4.getWidth(), PDRectangle.A4.getHeight());
+                }
+                nativeTexts.add("");
+            }
+            return new DocumentFingerprinter().fingerprint(document, nativeTexts, String::isEmpty);
+        }
+    }
+
+    /**
+     * Fingerprint a document of image-only pages that all draw from one resource dictionary.
+     */
+    private static DocumentFingerprint fingerprintSharingResources(String... scannedLines) throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            PDResources shared = new PDResources();
+            List<String> nativeTexts = new ArrayList<>();
+            for (String line : scannedLines) {
+                PDPage page = new PDPage(PDRectangle.A4);
+                page.setResources(shared);
+                document.addPage(page);
+                PDImageXObject scan = LosslessFactory.createFromImage(document, scanOf(line));
+                try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                    content.drawImage(scan, 0, 0, PDRectangle.A4.getWidth(), PDRectangle.A4.getHeight());
+                }
+                nativeTexts.add("");
+            }
+            assertEquals(scannedLines.length, shared.getCOSObject().getCOSDictionary(COSName.XOBJECT).size());
+            return new DocumentFingerprinter().fingerprint(document, nativeTexts, String::isEmpty);
+        }
+    }
+
+    private static BufferedImage scanOf(String line) {
+        BufferedImage image = new BufferedImage(620, 877, BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, image.getWidth(), image.getHeight());
+            g.setColor(Color.BLACK);
+            g.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+            for (int row = 0; row < 20; row++) {
+                g.drawString(row == 4 ? line : "Clause " + row + " applies to every booking.", 60, 80 + row * 18);
+            }
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+
+    private static PageExtractor.Page ocrPage(int number, String text, long millis) {
+        return new PageExtractor.Page(number, text, PageExtractor.OcrStatus.COMPLETED, millis);
+    }
+}
@@ -1,6 +1,7 @@
 package com.hotel.parser;
 
 import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
@@ -45,6 +46,32 @@ class DocxWriterTest {
         }
     }
 
+    @Test
+    void testTablesAreWrittenAsWordTables(@TempDir Path tempDir) throws IOException {
+        TableExtractor.Table rates = new TableExtractor.Table(2, List.of(
+                List.of("Room type", "Low", "High"),
+                List.of("Standard Double", "95 EUR", "120 EUR"),
+                List.of("Junior Suite", "", "175 EUR")));
+        PDFParser.ParseResult result = new PDFParser.ParseResult(
+                List.of(new PageExtractor.Page(1, "Terms"), new PageExtractor.Page(2, "Rates")),
+                "test.pdf",
+                "Test Document",
+                List.of(rates));
+
+        File outputFile = tempDir.resolve("tables.docx").toFile();
+        new DocxWriter().write(result, outputFile);
+
+        try (FileInputStream fis = new FileInputStream(outputFile);
+             XWPFDocument doc = new XWPFDocument(fis)) {
+            // The summary table comes first.
+            assertEquals(2, doc.getTables().size());
+            XWPFTable table = doc.getTables().get(1);
+            assertEquals(3, table.getNumberOfRows());
+            assertEquals("Standard Double", table.getRow(1).getCell(0).getText());
+            assertEquals("175 EUR", table.getRow(2).getCell(2).getText());
+        }
+    }
+
     @Test
     void testWriteToInvalidDirectory() {
         PDFParser.ParseResult result = new PDFParser.ParseResult(
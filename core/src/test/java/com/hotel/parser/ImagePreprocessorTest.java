@@ -0,0 +1,97 @@
+package com.hotel.parser;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ImagePreprocessorTest {
+
+    @Test
+    void binarizeRemovesUnevenBackgroundButKeepsText() {
+        GrayRaster raster = new GrayRaster(new byte[200 * 100], 200, 100);
+        for (int y = 0; y < 100; y++) {
+            for (int x = 0; x < 200; x++) {
+                raster.pixels()[y * 200 + x] = (byte) (150 + x / 4);
+            }
+        }
+        for (int x = 40; x < 160; x++) {
+            raster.pixels()[50 * 200 + x] = 20;
+        }
+
+        new ImagePreprocessor(Set.of(ImagePreprocessor.Step.BINARIZE)).process(raster);
+
+        assertEquals(0, raster.pixels()[50 * 200 + 100]);
+        assertEquals((byte) 0xFF, raster.pixels()[10 * 200 + 10]);
+        assertEquals((byte) 0xFF, raster.pixels()[90 * 200 + 190]);
+    }
+
+    @Test
+    void denoiseDropsIsolatedPixelsOnly() {
+        GrayRaster raster = whiteRaster(20, 20);
+        raster.pixels()[5 * 20 + 5] = 0;
+        raster.pixels()[10 * 20 + 10] = 0;
+        raster.pixels()[10 * 20 + 11] = 0;
+
+        new ImagePreprocessor(Set.of(ImagePreprocessor.Step.DENOISE)).process(raster);
+
+        assertEquals((byte) 0xFF, raster.pixels()[5 * 20 + 5]);
+        assertEquals(0, raster.pixels()[10 * 20 + 10]);
+        assertEquals(0, raster.pixels()[10 * 20 + 11]);
+    }
+
+    @Test
+    void cropShrinksToContentWithPadding() {
+        GrayRaster raster = whiteRaster(400, 300);
+        raster.pixels()[100 * 400 + 200] = 0;
+        raster.pixels()[150 * 400 + 250] = 0;
+
+        GrayRaster cropped = new ImagePreprocessor(Set.of(ImagePreprocessor.Step.CROP_MARGINS)).process(raster);
+
+        assertEquals(51 + 32, cropped.width());
+        assertEquals(51 + 32, cropped.height());
+        assertEquals(0, cropped.pixels()[16 * cropped.width() + 16]);
+        assertEquals(0, cropped.pixels()[66 * cropped.width() + 66]);
+    }
+
+    @Test
+    void deskewStraightensRotatedLines() {
+        GrayRaster raster = whiteRaster(600, 400);
+        Graphics2D graphics = raster.asImage().createGraphics();
+        graphics.setColor(Color.BLACK);
+        graphics.setStroke(new BasicStroke(3));
+        graphics.rotate(Math.toRadians(3), 300, 200);
+        for (int y = 60; y < 360; y += 30) {
+            graphics.drawLine(80, y, 520, y);
+        }
+        graphics.dispose();
+
+        ImagePreprocessor preprocessor = new ImagePreprocessor(EnumSet.of(ImagePreprocessor.Step.DESKEW));
+        double before = preprocessor.estimateSkewDegrees(raster);
+        preprocessor.process(raster);
+        double after = preprocessor.estimateSkewDegrees(raster);
+
+        assertEquals(3.0, before, 0.3);
+        assertEquals(0.0, after, 0.3);
+    }
+
+    @Test
+    void emptyStepSetIsDisabled() {
+        assertFalse(new ImagePreprocessor(Set.of()).isEnabled());
+        assertTrue(new ImagePreprocessor(Set.of(ImagePreprocessor.Step.DESKEW)).isEnabled());
+    }
+
+    private static GrayRaster whiteRaster(int width, int height) {
+        byte[] pixels = new byte[width * height];
+        Arrays.fill(pixels, (byte) 0xFF);
+        return new GrayRaster(pixels, width, height);
+    }
+}
@@ -0,0 +1,73 @@
+package com.hotel.parser;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OcrCircuitBreakerTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final OcrCircuitBreaker breaker = new OcrCircuitBreaker(2, Duration.ofSeconds(10), clock::get);
+
+    @Test
+    void opensAfterConsecutiveFailures() {
+        assertTrue(breaker.tryAcquire());
+        breaker.recordFailure();
+        assertEquals(OcrCircuitBreaker.State.CLOSED, breaker.state());
+
+        assertTrue(breaker.tryAcquire());
+        breaker.recordFailure();
+        assertEquals(OcrCircuitBreaker.State.OPEN, breaker.state());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    void successResetsFailureCount() {
+        breaker.tryAcquire();
+        breaker.recordFailure();
+        breaker.tryAcquire();
+        breaker.recordSuccess();
+        breaker.tryAcquire();
+        breaker.recordFailure();
+
+        assertEquals(OcrCircuitBreaker.State.CLOSED, breaker.state());
+    }
+
+    @Test
+    void halfOpensAfterCooldownAndAllowsSingleTrial() {
+        tripBreaker();
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        assertTrue(breaker.tryAcquire());
+        assertEquals(OcrCircuitBreaker.State.HALF_OPEN, breaker.state());
+        assertFalse(breaker.tryAcquire());
+
+        breaker.recordSuccess();
+        assertEquals(OcrCircuitBreaker.State.CLOSED, breaker.state());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    void failedTrialReopens() {
+        tripBreaker();
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        assertTrue(breaker.tryAcquire());
+        breaker.recordFailure();
+
+        assertEquals(OcrCircuitBreaker.State.OPEN, breaker.state());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    private void tripBreaker() {
+        for (int i = 0; i < 2; i++) {
+            breaker.tryAcquire();
+            breaker.recordFailure();
+        }
+    }
+}
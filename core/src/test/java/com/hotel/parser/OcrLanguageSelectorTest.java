@@ -0,0 +1,76 @@
+package com.hotel.parser;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OcrLanguageSelectorTest {
+    private static final List<String> CONTRACT_LANGUAGES = List.of("eng", "deu", "spa", "rus");
+
+    private static final String ENGLISH = "The hotel shall provide the rooms listed below to the tour operator "
+            + "for the whole season, and all rates include breakfast with taxes.";
+    private static final String GERMAN = "Das Hotel stellt dem Reiseveranstalter die unten aufgeführten Zimmer "
+            + "für die gesamte Saison zur Verfügung, und alle Preise enthalten das Frühstück.";
+    private static final String SPANISH = "El hotel pondrá a disposición del operador las habitaciones indicadas "
+            + "para toda la temporada, y los precios incluyen el desayuno y los impuestos.";
+    private static final String RUSSIAN = "Гостиница предоставляет туроператору перечисленные ниже номера "
+            + "на весь сезон, и все цены включают завтрак и налоги.";
+
+    @Test
+    void nativeTextPicksOneLanguage() {
+        assertEquals("eng", OcrLanguageSelector.detect(ENGLISH, CONTRACT_LANGUAGES));
+        assertEquals("deu", OcrLanguageSelector.detect(GERMAN, CONTRACT_LANGUAGES));
+        assertEquals("spa", OcrLanguageSelector.detect(SPANISH, CONTRACT_LANGUAGES));
+        assertEquals("rus", OcrLanguageSelector.detect(RUSSIAN, CONTRACT_LANGUAGES));
+        assertNull(OcrLanguageSelector.detect("Page 3 of 12", CONTRACT_LANGUAGES), "too few letters");
+        assertNull(OcrLanguageSelector.detect(RUSSIAN, List.of("eng", "deu")), "no Cyrillic candidate");
+    }
+
+    @Test
+    void pageTextWinsAndOsdOnlyRunsWithoutIt() {
+        OcrLanguageSelector selector = new OcrLanguageSelector(CONTRACT_LANGUAGES);
+        AtomicInteger osdRuns = new AtomicInteger();
+
+        assertEquals("spa", selector.select(SPANISH, () -> {
+            osdRuns.incrementAndGet();
+            return Character.UnicodeScript.CYRILLIC;
+        }));
+        assertEquals(0, osdRuns.get());
+        assertEquals("rus", selector.select("", () -> Character.UnicodeScript.CYRILLIC));
+    }
+
+    @Test
+    void documentLanguageNarrowsLatinScans() {
+        OcrLanguageSelector selector = new OcrLanguageSelector(CONTRACT_LANGUAGES);
+        assertEquals("eng+deu+spa", selector.select("", () -> Character.UnicodeScript.LATIN));
+        assertEquals("eng+deu+spa+rus", selector.select("", () -> null));
+
+        selector.observe(GERMAN);
+        assertEquals("deu", selector.select("", () -> Character.UnicodeScript.LATIN));
+        assertEquals("deu", selector.select("", () -> null));
+        assertEquals("rus", selector.select("", () -> Character.UnicodeScript.CYRILLIC),
+                "a Cyrillic annex is not read with the German model");
+    }
+
+    @Test
+    void singleLanguageNeedsNoDetection() {
+        OcrLanguageSelector selector = new OcrLanguageSelector(List.of("eng"));
+        assertEquals("eng", selector.select(GERMAN, () -> {
+            throw new AssertionError("OSD must not run");
+        }));
+        assertThrows(IllegalArgumentException.class, () -> new OcrLanguageSelector(List.of()));
+    }
+
+    @Test
+    void osdScriptNamesMapToUnicodeScripts() {
+        assertEquals(Character.UnicodeScript.LATIN, TesseractOsd.toScript("Latin"));
+        assertEquals(Character.UnicodeScript.CYRILLIC, TesseractOsd.toScript("Cyrillic"));
+        assertEquals(Character.UnicodeScript.HAN, TesseractOsd.toScript("Japanese"));
+        assertNull(TesseractOsd.toScript("NULL"));
+    }
+}
@@ -0,0 +1,100 @@
+package com.hotel.parser;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OcrProfileTest {
+
+    @Test
+    void presetsCarryTheirEngineSettings() {
+        assertEquals(OcrProfile.OEM_DEFAULT, OcrProfile.DEFAULT.engineMode());
+        assertEquals(OcrProfile.UNSET, OcrProfile.DEFAULT.pageSegMode());
+        assertEquals(OcrProfile.Models.STANDARD, OcrProfile.DEFAULT.models());
+        assertTrue(OcrProfile.DEFAULT.useDictionary());
+
+        assertEquals(OcrProfile.OEM_LSTM_ONLY, OcrProfile.FAST.engineMode());
+        assertEquals(OcrProfile.PSM_AUTO, OcrProfile.FAST.pageSegMode());
+        assertEquals(OcrProfile.Models.FAST, OcrProfile.FAST.models());
+        assertFalse(OcrProfile.FAST.useDictionary());
+
+        assertEquals(OcrProfile.OEM_LSTM_ONLY, OcrProfile.ACCURATE.engineMode());
+        assertEquals(OcrProfile.Models.BEST, OcrProfile.ACCURATE.models());
+        assertTrue(OcrProfile.ACCURATE.useDictionary());
+
+        assertSame(OcrProfile.FAST, OcrProfile.forName("Fast"));
+        assertThrows(IllegalArgumentException.class, () -> OcrProfile.forName("turbo"));
+        assertThrows(IllegalArgumentException.class,
+                () -> new OcrProfile("bad", 4, OcrProfile.UNSET, OcrProfile.Models.STANDARD, null, true));
+        assertNull(OcrProfile.FAST.withCharWhitelist("").charWhitelist());
+    }
+
+    @Test
+    void applyProfileSetsEngineModesWhitelistAndNoDictionaryConfig() throws IOException {
+        RecordingEngine engine = new RecordingEngine();
+        PageExtractor.applyProfile(RecordingEngine.class, engine, OcrProfile.FAST.withCharWhitelist("0123456789"));
+
+        assertEquals(List.of("oem=1", "psm=3", "tessedit_char_whitelist=0123456789"), engine.calls);
+        assertEquals(1, engine.configs.size());
+        String config = Files.readString(Path.of(engine.configs.get(0)));
+        assertTrue(config.contains("load_system_dawg F"), config);
+        assertTrue(config.contains("load_freq_dawg F"), config);
+
+        RecordingEngine defaults = new RecordingEngine();
+        PageExtractor.applyProfile(RecordingEngine.class, defaults, OcrProfile.DEFAULT);
+        assertEquals(List.of("oem=3"), defaults.calls, "unset modes are left to Tesseract");
+        assertTrue(defaults.configs.isEmpty());
+    }
+
+    @Test
+    void modelDirectoryIsFoundBesideOrInsideTessdata(@TempDir Path tempDir) throws IOException {
+        File tessdata = Files.createDirectories(tempDir.resolve("tessdata")).toFile();
+        assertEquals(tessdata, PageExtractor.resolveModelDir(tessdata, OcrProfile.Models.FAST),
+                "falls back when no variant is installed");
+
+        File beside = Files.createDirectories(tempDir.resolve("tessdata_fast")).toFile();
+        assertEquals(beside.getAbsoluteFile(), PageExtractor.resolveModelDir(tessdata, OcrProfile.Models.FAST)
+                .getAbsoluteFile());
+
+        File inside = Files.createDirectories(tempDir.resolve("tessdata").resolve("tessdata_best")).toFile();
+        assertEquals(inside, PageExtractor.resolveModelDir(tessdata, OcrProfile.Models.BEST));
+        assertEquals(tessdata, PageExtractor.resolveModelDir(tessdata, OcrProfile.Models.STANDARD));
+    }
+
+    /**
+     * Records the setters {@link PageExtractor#applyProfile} calls on a Tess4J {@code Tesseract}.
+     */
+    public static final class RecordingEngine {
+        final List<String> calls = new ArrayList<>();
+        final List<String> configs = new ArrayList<>();
+
+        public void setOcrEngineMode(int mode) {
+            calls.add("oem=" + mode);
+        }
+
+        public void setPageSegMode(int mode) {
+            calls.add("psm=" + mode);
+        }
+
+        public void setVariable(String key, String value) {
+            calls.add(key + "=" + value);
+        }
+
+        public void setConfigs(List<String> configFiles) {
+            configs.addAll(configFiles);
+        }
+    }
+}
@@ -87,6 +87,19 @@ public class PDFParserIntegrationTest {
         }
     }
 
+    @Test
+    void similarityIndexRecognisesResentDocument() throws IOException {
+        ContractSimilarityIndex index = new ContractSimilarityIndex();
+        PDFParser parser = new PDFParser(new PageExtractor(), index);
+
+        PDFParser.ParseResult first = parser.parse(createSamplePdf(4).toFile());
+        PDFParser.ParseResult second = parser.parse(createSamplePdf(4).toFile());
+
+        assertEquals(2, index.stats().indexedDocuments());
+        assertEquals(1, index.stats().matchedDocuments());
+        assertEquals(first.getPages().get(3).text(), second.getPages().get(3).text());
+    }
+
     private Path createSamplePdf(int pageCount) throws IOException {
         Path pdfPath = Files.createTempFile("pdf-parser-test-", ".pdf");
         tempFiles.add(pdfPath);
@@ -0,0 +1,138 @@
+package com.hotel.parser;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.awt.Rectangle;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PageExtractorTest {
+
+    @Test
+    void overrunOcrCallReleasesItsResourcesWhenItReturns() throws Exception {
+        BlockingEngine engine = new BlockingEngine();
+        AtomicInteger released = new AtomicInteger();
+        GrayRaster raster = new GrayRaster(new byte[16], 4, 4);
+
+        try (PageExtractor extractor = new PageExtractor()) {
+            assertThrows(TimeoutException.class, () -> extractor.invokeOcrWithin(engine, raster,
+                    TimeUnit.MILLISECONDS.toNanos(50), released::incrementAndGet));
+            assertEquals(1, extractor.abandonedOcrCalls());
+            assertEquals(0, released.get(), "the native call still uses the raster");
+
+            engine.release.countDown();
+            assertTrue(engine.returned.await(10, TimeUnit.SECONDS));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (released.get() == 0 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(1, released.get());
+            assertEquals(0, extractor.abandonedOcrCalls());
+
+            assertEquals("fast", extractor.invokeOcrWithin(new FastEngine(), raster,
+                    TimeUnit.SECONDS.toNanos(10), released::incrementAndGet));
+            assertEquals(1, released.get(), "a call within budget leaves release to the caller");
+        }
+    }
+
+    @Test
+    void overrunCallIsNotReleasedWhileOtherCallsAreQueuedBehindIt() throws Exception {
+        BlockingEngine engine = new BlockingEngine();
+        AtomicInteger released = new AtomicInteger();
+        GrayRaster raster = new GrayRaster(new byte[16], 4, 4);
+
+        try (PageExtractor extractor = new PageExtractor()) {
+            CompletableFuture<Object> queued = CompletableFuture.supplyAsync(() -> {
+                try {
+                    engine.entered.await();
+                    return extractor.invokeOcrWithin(new FastEngine(), raster, TimeUnit.SECONDS.toNanos(10), () -> { });
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+            });
+            assertThrows(TimeoutException.class, () -> extractor.invokeOcrWithin(engine, raster,
+                    TimeUnit.MILLISECONDS.toNanos(500), released::incrementAndGet));
+            assertEquals(0, released.get(), "the native call still uses the raster");
+            assertEquals("fast", queued.get(10, TimeUnit.SECONDS), "the queued call moves to a fresh worker");
+
+            engine.release.countDown();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (released.get() == 0 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(1, released.get());
+        }
+    }
+
+    @Test
+    void checkpointAndPageRangesGiveTheSamePagesAsOnePass(@TempDir Path tempDir) throws IOException {
+        SyntheticContractCorpus.Spec spec = new SyntheticContractCorpus.Spec(1, 4, 4,
+                Map.of(SyntheticContractCorpus.PageKind.NATIVE, 1), 72, 5L);
+        File pdf = new SyntheticContractCorpus(spec).generate(tempDir.toFile()).get(0);
+        PageExtractorOptions options = PageExtractorOptions.defaults().withOcrLanguages(List.of("eng", "deu"));
+
+        try (PDDocument document = Loader.loadPDF(pdf);
+             PageExtractor extractor = new PageExtractor(options)) {
+            List<PageExtractor.Page> onePass = extractor.extractPages(document);
+            List<PageExtractor.Page> resumed = extractor.extractPages(document, Map.of(2, onePass.get(1)), page -> { });
+            List<PageExtractor.Page> ranges = new ArrayList<>(extractor.extractPages(document, 1, 2));
+            ranges.addAll(extractor.extractPages(document, 3, 4));
+
+            assertFalse(onePass.get(0).tables().isEmpty());
+            assertEquals(onePass, resumed);
+            assertEquals(onePass, ranges);
+        }
+    }
+
+    /**
+     * Stands in for Tesseract: blocks in {@code doOCR} until released, like a hung native call.
+     */
+    public static final class BlockingEngine {
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch returned = new CountDownLatch(1);
+
+        public String doOCR(int width, int height, ByteBuffer pixels, Rectangle region, int bitsPerPixel) {
+            entered.countDown();
+            try {
+                while (true) {
+                    try {
+                        // Ignore interrupts, as a native call would.
+                        if (release.await(10, TimeUnit.SECONDS)) {
+                            return "late";
+                        }
+                    } catch (InterruptedException e) {
+                        // keep waiting
+                    }
+                }
+            } finally {
+                returned.countDown();
+            }
+        }
+    }
+
+    public static final class FastEngine {
+        public String doOCR(int width, int height, ByteBuffer pixels, Rectangle region, int bitsPerPixel) {
+            return "fast";
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.hotel.parser;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PageJournalTest {
+
+    @Test
+    void reopenedJournalReturnsAppendedPages(@TempDir Path tempDir) throws IOException {
+        File pdf = contract(tempDir, 3);
+        PageExtractor.Page first = new PageExtractor.Page(1, "Rates 2025 — €120", PageExtractor.OcrStatus.COMPLETED, 1500);
+        PageExtractor.Page second = new PageExtractor.Page(2, "Terms");
+
+        try (PageJournal journal = PageJournal.open(tempDir.toFile(), pdf, PageExtractorOptions.defaults())) {
+            assertTrue(journal.completedPages().isEmpty());
+            journal.append(first);
+            journal.append(second);
+        }
+
+        try (PageJournal journal = PageJournal.open(tempDir.toFile(), pdf, PageExtractorOptions.defaults())) {
+            assertEquals(Map.of(1, first, 2, second), journal.completedPages());
+        }
+    }
+
+    @Test
+    void tornTrailingRecordIsDiscarded(@TempDir Path tempDir) throws IOException {
+        File pdf = contract(tempDir, 3);
+        Path file;
+        try (PageJournal journal = PageJournal.open(tempDir.toFile(), pdf, PageExtractorOptions.defaults())) {
+            journal.append(new PageExtractor.Page(1, "one"));
+            journal.append(new PageExtractor.Page(2, "two"));
+            file = journal.file();
+        }
+        long intact = Files.size(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(intact - 3);
+        }
+
+        try (PageJournal journal = PageJournal.open(tempDir.toFile(), pdf, PageExtractorOptions.defaults())) {
+            assertEquals(Map.of(1, new PageExtractor.Page(1, "one")), journal.completedPages());
+            journal.append(new PageExtractor.Page(2, "two"));
+        }
+        assertEquals(intact, Files.size(file));
+    }
+
+    @Test
+    void differentOptionsUseSeparateJournals(@TempDir Path tempDir) throws IOException {
+        File pdf = contract(tempDir, 3);
+        try (PageJournal journal = PageJournal.open(tempDir.toFile(), pdf, PageExtractorOptions.defaults())) {
+            journal.append(new PageExtractor.Page(1, "one"));
+        }
+
+        PageExtractorOptions fast = PageExtractorOptions.defaults().withOcrProfile(OcrProfile.FAST);
+        try (PageJournal journal = PageJournal.open(tempDir.toFile(), pdf, fast)) {
+            assertTrue(journal.completedPages().isEmpty());
+        }
+    }
+
+    @Test
+    void resumedParseMatchesUninterruptedParse(@TempDir Path tempDir) throws IOException {
+        File pdf = contract(tempDir, 6);
+        File checkpoints = tempDir.resolve("checkpoints").toFile();
+        List<PageExtractor.Page> uninterrupted = new PDFParser().parse(pdf).getPages();
+
+        // Simulate a run that died after page 4 had been journaled.
+        try (PageJournal journal = PageJournal.open(checkpoints, pdf, PageExtractorOptions.defaults())) {
+            for (PageExtractor.Page page : uninterrupted.subList(0, 4)) {
+                journal.append(page);
+            }
+        }
+
+        PDFParser parser = new PDFParser(new PageExtractor(), null, null, checkpoints);
+        PDFParser.ParseResult resumed = parser.parse(pdf);
+
+        assertEquals(uninterrupted, resumed.getPages());
+        assertFalse(Files.list(checkpoints.toPath()).findAny().isPresent(), "journal is deleted once complete");
+    }
+
+    private static File contract(Path tempDir, int pages) throws IOException {
+        SyntheticContractCorpus.Spec spec = new SyntheticContractCorpus.Spec(1, pages, pages,
+                Map.of(SyntheticContractCorpus.PageKind.NATIVE, 1), 72, 3L);
+        return new SyntheticContractCorpus(spec).generate(tempDir.resolve("corpus").toFile()).get(0);
+    }
+}
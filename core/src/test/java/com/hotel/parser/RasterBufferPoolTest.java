@@ -0,0 +1,98 @@
+package com.hotel.parser;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RasterBufferPoolTest {
+
+    @Test
+    void releasedRasterIsReusedForSameOrSmallerPage() {
+        RasterBufferPool pool = new RasterBufferPool();
+        GrayRaster first = pool.acquireRaster(100, 80);
+        pool.releaseRaster(first);
+
+        GrayRaster second = pool.acquireRaster(90, 80);
+
+        assertSame(first.pixels(), second.pixels());
+        assertEquals(1, pool.allocationCount());
+        assertEquals(1, pool.reuseCount());
+        assertEquals(90, second.bytesPerLine());
+    }
+
+    @Test
+    void imageViewWritesIntoPixelArray() {
+        RasterBufferPool pool = new RasterBufferPool();
+        GrayRaster raster = pool.acquireRaster(4, 3);
+
+        Graphics2D graphics = raster.asImage().createGraphics();
+        graphics.setColor(Color.WHITE);
+        graphics.fillRect(0, 0, 4, 3);
+        graphics.dispose();
+
+        for (int i = 0; i < raster.byteCount(); i++) {
+            assertEquals((byte) 0xFF, raster.pixels()[i]);
+        }
+    }
+
+    @Test
+    void directCopyHasExactPixelCount() {
+        RasterBufferPool pool = new RasterBufferPool();
+        GrayRaster raster = pool.acquireRaster(5, 2);
+        raster.pixels()[7] = 42;
+
+        ByteBuffer direct = pool.toDirect(raster);
+
+        assertTrue(direct.isDirect());
+        assertEquals(10, direct.remaining());
+        assertEquals(42, direct.get(7));
+
+        pool.releaseDirect(direct);
+        ByteBuffer reused = pool.acquireDirect(8);
+        assertSame(direct, reused);
+        assertEquals(8, reused.limit());
+    }
+
+    @Test
+    void retainedBuffersAreCappedByBytesAndNotReusedForMuchSmallerPages() {
+        RasterBufferPool pool = new RasterBufferPool(1000);
+        GrayRaster small = pool.acquireRaster(20, 20);
+        GrayRaster medium = pool.acquireRaster(25, 20);
+        GrayRaster large = pool.acquireRaster(40, 30);
+        pool.releaseRaster(small);
+        pool.releaseRaster(medium);
+        pool.releaseRaster(large);
+
+        assertEquals(900, pool.retainedBytes(), "the 1200-byte raster is over the cap");
+
+        pool.acquireRaster(10, 10);
+        assertEquals(4, pool.allocationCount(), "pooled rasters are over twice the size");
+        assertEquals(900, pool.retainedBytes());
+    }
+
+    @Test
+    void retainedBuffersCountAgainstTheGovernorAndAreReclaimedForRenders() {
+        RenderMemoryGovernor governor = new RenderMemoryGovernor(10_000, RenderMemoryGovernor.Policy.BLOCK);
+        RasterBufferPool pool = new RasterBufferPool();
+        pool.chargeTo(governor);
+        pool.releaseRaster(pool.acquireRaster(80, 50));
+        assertEquals(4000, governor.retainedBytes());
+
+        // 8000 bytes at 72 DPI only fit once the retained raster is given back.
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            try (RenderMemoryGovernor.Permit permit = governor.admit(80f, 50f, 72f)) {
+                assertEquals(8000, permit.bytes());
+                assertEquals(0, pool.retainedBytes());
+                assertEquals(0, governor.retainedBytes());
+            }
+        });
+    }
+}
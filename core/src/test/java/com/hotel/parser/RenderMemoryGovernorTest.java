@@ -0,0 +1,110 @@
+package com.hotel.parser;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RenderMemoryGovernorTest {
+
+    private static final float LETTER_WIDTH = 612f;
+    private static final float LETTER_HEIGHT = 792f;
+
+    @Test
+    void tracksCurrentAndPeakUsage() throws InterruptedException {
+        RenderMemoryGovernor governor = new RenderMemoryGovernor(100L * 1024 * 1024, RenderMemoryGovernor.Policy.BLOCK);
+        long letterAt300 = RenderMemoryGovernor.estimateBytes(LETTER_WIDTH, LETTER_HEIGHT, 300f);
+
+        try (RenderMemoryGovernor.Permit first = governor.admit(LETTER_WIDTH, LETTER_HEIGHT, 300f);
+             RenderMemoryGovernor.Permit second = governor.admit(LETTER_WIDTH, LETTER_HEIGHT, 300f)) {
+            assertEquals(300f, first.dpi());
+            assertEquals(2 * letterAt300, governor.usedBytes());
+        }
+
+        assertEquals(0, governor.usedBytes());
+        assertEquals(2 * letterAt300, governor.peakBytes());
+    }
+
+    @Test
+    void downscalesRenderLargerThanBudget() throws InterruptedException {
+        long budget = RenderMemoryGovernor.estimateBytes(LETTER_WIDTH, LETTER_HEIGHT, 150f);
+        RenderMemoryGovernor governor = new RenderMemoryGovernor(budget, RenderMemoryGovernor.Policy.BLOCK);
+
+        try (RenderMemoryGovernor.Permit permit = governor.admit(LETTER_WIDTH, LETTER_HEIGHT, 300f)) {
+            assertTrue(permit.dpi() <= 150f);
+            assertTrue(permit.bytes() <= budget);
+        }
+    }
+
+    @Test
+    void downscalePolicyFitsRemainingBudget() throws InterruptedException {
+        long budget = RenderMemoryGovernor.estimateBytes(LETTER_WIDTH, LETTER_HEIGHT, 300f) * 3 / 2;
+        RenderMemoryGovernor governor = new RenderMemoryGovernor(budget, RenderMemoryGovernor.Policy.DOWNSCALE);
+
+        try (RenderMemoryGovernor.Permit first = governor.admit(LETTER_WIDTH, LETTER_HEIGHT, 300f);
+             RenderMemoryGovernor.Permit second = governor.admit(LETTER_WIDTH, LETTER_HEIGHT, 300f)) {
+            assertEquals(300f, first.dpi());
+            assertTrue(second.dpi() < 300f);
+            assertTrue(governor.usedBytes() <= budget);
+        }
+    }
+
+    @Test
+    void blockPolicyWaitsForRelease() throws Exception {
+        long budget = RenderMemoryGovernor.estimateBytes(LETTER_WIDTH, LETTER_HEIGHT, 300f);
+        RenderMemoryGovernor governor = new RenderMemoryGovernor(budget, RenderMemoryGovernor.Policy.BLOCK);
+        RenderMemoryGovernor.Permit first = governor.admit(LETTER_WIDTH, LETTER_HEIGHT, 300f);
+
+        CountDownLatch admitted = new CountDownLatch(1);
+        AtomicReference<RenderMemoryGovernor.Permit> second = new AtomicReference<>();
+        Thread waiter = new Thread(() -> {
+            try {
+                second.set(governor.admit(LETTER_WIDTH, LETTER_HEIGHT, 300f));
+                admitted.countDown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        waiter.start();
+
+        assertFalse(admitted.await(200, TimeUnit.MILLISECONDS));
+        first.close();
+        assertTrue(admitted.await(5, TimeUnit.SECONDS));
+        assertEquals(300f, second.get().dpi());
+        second.get().close();
+        waiter.join();
+    }
+
+    @Test
+    void renderOverBudgetAtMinimumDpiIsChargedInFullAndRunsAlone() throws Exception {
+        long letterAt72 = RenderMemoryGovernor.estimateBytes(LETTER_WIDTH, LETTER_HEIGHT, RenderMemoryGovernor.MIN_DPI);
+        RenderMemoryGovernor governor = new RenderMemoryGovernor(letterAt72 / 2, RenderMemoryGovernor.Policy.DOWNSCALE);
+        RenderMemoryGovernor.Permit small = governor.admit(100f, 100f, 72f);
+
+        CountDownLatch admitted = new CountDownLatch(1);
+        AtomicReference<RenderMemoryGovernor.Permit> large = new AtomicReference<>();
+        Thread waiter = new Thread(() -> {
+            try {
+                large.set(governor.admit(LETTER_WIDTH, LETTER_HEIGHT, 300f));
+                admitted.countDown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        waiter.start();
+
+        assertFalse(admitted.await(200, TimeUnit.MILLISECONDS));
+        small.close();
+        assertTrue(admitted.await(5, TimeUnit.SECONDS));
+        assertEquals(RenderMemoryGovernor.MIN_DPI, large.get().dpi());
+        assertEquals(letterAt72, large.get().bytes());
+        assertEquals(letterAt72, governor.usedBytes());
+        large.get().close();
+        waiter.join();
+    }
+}
@@ -0,0 +1,107 @@
+package com.hotel.parser;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShardCoordinatorTest {
+
+    @Test
+    void mergedShardsMatchSingleProcessExtraction(@TempDir Path tempDir) throws IOException {
+        File pdf = nativeContract(tempDir, 11);
+        ShardCoordinator coordinator = new ShardCoordinator(ShardCoordinatorTest::extractInProcess, 3, 4, 1);
+
+        List<PageExtractor.Page> sharded = coordinator.extract(pdf, 11);
+
+        assertEquals(extractAll(pdf), sharded);
+    }
+
+    @Test
+    void failedShardIsRetriedAlone(@TempDir Path tempDir) throws IOException {
+        File pdf = nativeContract(tempDir, 9);
+        Map<Integer, AtomicInteger> attempts = new ConcurrentHashMap<>();
+        ShardCoordinator coordinator = new ShardCoordinator((file, first, last) -> {
+            if (attempts.computeIfAbsent(first, k -> new AtomicInteger()).incrementAndGet() == 1 && first == 4) {
+                throw new IOException("worker crashed");
+            }
+            return extractInProcess(file, first, last);
+        }, 2, 3, 3);
+
+        List<PageExtractor.Page> pages = coordinator.extract(pdf, 9);
+
+        assertEquals(9, pages.size());
+        assertEquals(2, attempts.get(4).get());
+        assertEquals(1, attempts.get(1).get());
+        assertEquals(1, attempts.get(7).get());
+        assertEquals(1, coordinator.retryCount());
+    }
+
+    @Test
+    void shardFailingEveryAttemptFailsTheDocument(@TempDir Path tempDir) throws IOException {
+        File pdf = nativeContract(tempDir, 4);
+        ShardCoordinator coordinator = new ShardCoordinator((file, first, last) -> {
+            if (first == 3) {
+                return List.of(new PageExtractor.Page(3, "only one page"));
+            }
+            return extractInProcess(file, first, last);
+        }, 2, 2, 2);
+
+        IOException e = assertThrows(IOException.class, () -> coordinator.extract(pdf, 4));
+        assertTrue(e.getMessage().contains("3-4"));
+    }
+
+    @Test
+    void workerProcessExtractsItsRange(@TempDir Path tempDir) throws Exception {
+        File pdf = nativeContract(tempDir, 5);
+        PageExtractorOptions options = PageExtractorOptions.defaults()
+                .withPreprocessSteps(Set.of(ImagePreprocessor.Step.BINARIZE))
+                .withOcrProfile(OcrProfile.FAST.withCharWhitelist("0123456789"))
+                .withOcrLanguages(List.of("eng", "deu"));
+        assertEquals(options, ShardWorker.parseOptions(ShardWorker.optionArguments(options)));
+        PageExtractorOptions withoutTables = options.withExtractTables(false);
+        assertEquals(withoutTables, ShardWorker.parseOptions(ShardWorker.optionArguments(withoutTables)));
+        PageExtractorOptions commaProfile = options.withOcrProfile(new OcrProfile("scans, 300 dpi",
+                OcrProfile.OEM_LSTM_ONLY, 6, OcrProfile.Models.BEST, "0123456789,.", false));
+        assertEquals(commaProfile, ShardWorker.parseOptions(ShardWorker.optionArguments(commaProfile)));
+
+        List<PageExtractor.Page> pages = new ProcessShardRunner(options, List.of("-Xmx256m"), Duration.ofMinutes(2))
+                .run(pdf, 2, 4);
+
+        assertEquals(extractAll(pdf).subList(1, 4), pages);
+    }
+
+    private static List<PageExtractor.Page> extractInProcess(File pdf, int first, int last) throws IOException {
+        try (PDDocument document = Loader.loadPDF(pdf)) {
+            return new PageExtractor().extractPages(document, first, last);
+        }
+    }
+
+    private static List<PageExtractor.Page> extractAll(File pdf) throws IOException {
+        try (PDDocument document = Loader.loadPDF(pdf)) {
+            return new PageExtractor().extractPages(document);
+        }
+    }
+
+    private static File nativeContract(Path tempDir, int pages) throws IOException {
+        SyntheticContractCorpus.Spec spec = new SyntheticContractCorpus.Spec(1, pages, pages,
+                Map.of(SyntheticContractCorpus.PageKind.NATIVE, 1), 72, pages);
+        List<File> files = new ArrayList<>(new SyntheticContractCorpus(spec).generate(tempDir.toFile()));
+        return files.get(0);
+    }
+}
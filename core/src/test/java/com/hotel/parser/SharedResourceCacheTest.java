@@ -0,0 +1,197 @@
+package com.hotel.parser;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.cos.COSArray;
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSInteger;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSStream;
+import org.apache.pdfbox.cos.COSString;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.common.PDStream;
+import org.apache.pdfbox.pdmodel.font.PDTrueTypeFont;
+import org.apache.pdfbox.pdmodel.font.encoding.WinAnsiEncoding;
+import org.apache.pdfbox.pdmodel.graphics.image.LosslessFactory;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SharedResourceCacheTest {
+    private static final String FONT = "/org/apache/pdfbox/resources/ttf/LiberationSans-Regular.ttf";
+
+    @Test
+    void embeddedFontIsParsedOncePerBatch(@TempDir Path tempDir) throws IOException {
+        File first = contract(tempDir, "first.pdf", "Room rate 2025: 120 EUR per night");
+        File second = contract(tempDir, "second.pdf", "Room rate 2026: 135 EUR per night");
+        SharedResourceCache cache = new SharedResourceCache(64L * 1024 * 1024);
+        PDFParser cached = parser(cache);
+
+        List<PageExtractor.Page> firstPages = cached.parse(first).getPages();
+        List<PageExtractor.Page> secondPages = cached.parse(second).getPages();
+
+        assertEquals(new PDFParser().parse(first).getPages(), firstPages);
+        assertEquals(new PDFParser().parse(second).getPages(), secondPages);
+        SharedResourceCache.Stats stats = cache.stats();
+        assertEquals(1, stats.fontMisses());
+        assertEquals(1, stats.fontHits());
+    }
+
+    @Test
+    void decodedImagesAreSharedAcrossDocuments(@TempDir Path tempDir) throws IOException {
+        File first = contract(tempDir, "first.pdf", "Terms");
+        File second = contract(tempDir, "second.pdf", "Other terms");
+        SharedResourceCache cache = new SharedResourceCache(64L * 1024 * 1024);
+
+        render(cache, first);
+        BufferedImage cachedRender = render(cache, second);
+
+        BufferedImage plainRender;
+        try (PDDocument document = Loader.loadPDF(second)) {
+            plainRender = new PDFRenderer(document).renderImageWithDPI(0, 72);
+        }
+        assertArrayEquals(pixels(plainRender), pixels(cachedRender));
+        SharedResourceCache.Stats stats = cache.stats();
+        assertEquals(1, stats.imageMisses(), "logo is decoded once");
+        assertTrue(stats.imageHits() > 0);
+    }
+
+    @Test
+    void imagesWithNamedColourSpacesAreKeyedByTheirDefinition(@TempDir Path tempDir) throws IOException {
+        File red = stamp(tempDir, "red.pdf", new byte[]{(byte) 0xC0, 0x20, 0x20});
+        File blue = stamp(tempDir, "blue.pdf", new byte[]{0x20, 0x20, (byte) 0xC0});
+        SharedResourceCache cache = new SharedResourceCache(64L * 1024 * 1024);
+
+        render(cache, red);
+        BufferedImage cachedRender = render(cache, blue);
+
+        BufferedImage plainRender;
+        try (PDDocument document = Loader.loadPDF(blue)) {
+            plainRender = new PDFRenderer(document).renderImageWithDPI(0, 72);
+        }
+        assertArrayEquals(pixels(plainRender), pixels(cachedRender));
+        assertEquals(2, cache.stats().imageMisses());
+    }
+
+    @Test
+    void resourcesLargerThanTheBudgetAreNotRetained(@TempDir Path tempDir) throws IOException {
+        File first = contract(tempDir, "first.pdf", "Rates");
+        SharedResourceCache cache = new SharedResourceCache(64 * 1024);
+        PDFParser parser = parser(cache);
+
+        parser.parse(first);
+        parser.parse(first);
+
+        SharedResourceCache.Stats stats = cache.stats();
+        assertEquals(0, stats.fontHits());
+        assertTrue(stats.usedBytes() <= stats.budgetBytes());
+    }
+
+    private static PDFParser parser(SharedResourceCache cache) {
+        return new PDFParser(new PageExtractor(PageExtractorOptions.defaults(), new RasterBufferPool(),
+                new OcrCircuitBreaker(), RenderMemoryGovernor.shared(), cache));
+    }
+
+    private static BufferedImage render(SharedResourceCache cache, File pdf) throws IOException {
+        try (PDDocument document = Loader.loadPDF(pdf);
+             SharedResourceCache.DocumentResources resources = cache.attach(document)) {
+            return SharedResourceCache.createRenderer(document).renderImageWithDPI(0, 72);
+        }
+    }
+
+    private static int[] pixels(BufferedImage image) {
+        return image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+    }
+
+    /**
+     * A one-page contract with the same embedded font and letterhead logo as every other one.
+     */
+    private static File contract(Path tempDir, String name, String text) throws IOException {
+        File file = tempDir.resolve(name).toFile();
+        try (PDDocument document = new PDDocument();
+             InputStream fontData = SharedResourceCacheTest.class.getResourceAsStream(FONT)) {
+            PDPage page = new PDPage(PDRectangle.A6);
+            document.addPage(page);
+            PDTrueTypeFont font = PDTrueTypeFont.load(document, fontData, WinAnsiEncoding.INSTANCE);
+            PDImageXObject logo = LosslessFactory.createFromImage(document, logo());
+            try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                content.drawImage(logo, 20, 320, 64, 64);
+                content.beginText();
+                content.setFont(font, 10);
+                content.newLineAtOffset(20, 280);
+                content.showText(text);
+                content.endText();
+            }
+            document.save(file);
+        }
+        return file;
+    }
+
+    /**
+     * A page showing a one-pixel image whose {@code /ColorSpace /CS0} names a single-colour palette
+     * in the page resources; the image bytes are the same in every document.
+     */
+    private static File stamp(Path tempDir, String name, byte[] rgb) throws IOException {
+        File file = tempDir.resolve(name).toFile();
+        try (PDDocument document = new PDDocument()) {
+            PDPage page = new PDPage(PDRectangle.A6);
+            document.addPage(page);
+            COSArray palette = new COSArray();
+            palette.add(COSName.INDEXED);
+            palette.add(COSName.DEVICERGB);
+            palette.add(COSInteger.ZERO);
+            palette.add(new COSString(rgb));
+            COSDictionary colorSpaces = new COSDictionary();
+            colorSpaces.setItem(COSName.getPDFName("CS0"), palette);
+            PDResources resources = new PDResources();
+            resources.getCOSObject().setItem(COSName.COLORSPACE, colorSpaces);
+            page.setResources(resources);
+
+            COSStream stream = document.getDocument().createCOSStream();
+            try (OutputStream out = stream.createRawOutputStream()) {
+                out.write(0);
+            }
+            stream.setItem(COSName.TYPE, COSName.XOBJECT);
+            stream.setItem(COSName.SUBTYPE, COSName.IMAGE);
+            stream.setInt(COSName.WIDTH, 1);
+            stream.setInt(COSName.HEIGHT, 1);
+            stream.setInt(COSName.BITS_PER_COMPONENT, 8);
+            stream.setItem(COSName.COLORSPACE, COSName.getPDFName("CS0"));
+            PDImageXObject image = new PDImageXObject(new PDStream(stream), resources);
+            try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                content.drawImage(image, 20, 20, 200, 200);
+            }
+            document.save(file);
+        }
+        return file;
+    }
+
+    private static BufferedImage logo() {
+        BufferedImage image = new BufferedImage(64, 64, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, 64, 64);
+        g.setColor(new Color(0x1F4E79));
+        g.fillOval(8, 8, 48, 48);
+        g.dispose();
+        return image;
+    }
+}
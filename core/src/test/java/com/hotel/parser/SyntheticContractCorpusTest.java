@@ -0,0 +1,62 @@
+package com.hotel.parser;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SyntheticContractCorpusTest {
+
+    private static final SyntheticContractCorpus.Spec SPEC = new SyntheticContractCorpus.Spec(
+            4, 2, 4,
+            Map.of(SyntheticContractCorpus.PageKind.NATIVE, 2,
+                    SyntheticContractCorpus.PageKind.SCANNED, 1,
+                    SyntheticContractCorpus.PageKind.MIXED, 1),
+            50, 7L);
+
+    @Test
+    void corpusIsReproducible(@TempDir Path tempDir) throws IOException {
+        List<File> first = new SyntheticContractCorpus(SPEC).generate(tempDir.resolve("a").toFile());
+        List<File> second = new SyntheticContractCorpus(SPEC).generate(tempDir.resolve("b").toFile());
+
+        assertEquals(4, first.size());
+        for (int i = 0; i < first.size(); i++) {
+            assertArrayEquals(Files.readAllBytes(first.get(i).toPath()), Files.readAllBytes(second.get(i).toPath()));
+            try (PDDocument document = Loader.loadPDF(first.get(i))) {
+                int pages = document.getNumberOfPages();
+                assertTrue(pages >= 2 && pages <= 4);
+            }
+        }
+    }
+
+    @Test
+    void resentContractsRepeatTheOriginalScansBehindACoverPage(@TempDir Path tempDir) throws IOException {
+        SyntheticContractCorpus.Spec spec = new SyntheticContractCorpus.Spec(2, 2, 2,
+                Map.of(SyntheticContractCorpus.PageKind.SCANNED, 1), 50, 7L, 100);
+        List<File> corpus = new SyntheticContractCorpus(spec).generate(tempDir.toFile());
+
+        try (PDDocument original = Loader.loadPDF(corpus.get(0));
+             PDDocument resent = Loader.loadPDF(corpus.get(1))) {
+            DocumentFingerprinter fingerprinter = new DocumentFingerprinter();
+            List<DocumentFingerprint.PageFingerprint> originalPages =
+                    fingerprinter.fingerprint(original, List.of("", ""), String::isEmpty).pages();
+            List<DocumentFingerprint.PageFingerprint> resentPages =
+                    fingerprinter.fingerprint(resent, List.of("cover", "", ""), String::isEmpty).pages();
+
+            assertEquals(3, resentPages.size());
+            assertTrue(resentPages.get(1).sameContent(originalPages.get(0)));
+            assertTrue(resentPages.get(2).sameContent(originalPages.get(1)));
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.hotel.parser;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TableExtractorTest {
+
+    @Test
+    void rateGridKeepsItsColumns(@TempDir Path tempDir) throws IOException {
+        File pdf = tempDir.resolve("rates.pdf").toFile();
+        try (PDDocument document = new PDDocument()) {
+            PDPage page = new PDPage(PDRectangle.A4);
+            document.addPage(page);
+            PDType1Font font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+            try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                text(content, font, 50, 780, "The hotel grants the following net rates per room and night, breakfast included.");
+                String[][] grid = {
+                    {"Room type", "Low", "High", "Peak"},
+                    {"Standard Double", "95 EUR", "120 EUR", "180 EUR"},
+                    {"Junior Suite", "140 EUR", "175 EUR", "260 EUR"},
+                    {"Family Room", "130 EUR", "160 EUR", "230 EUR"}
+                };
+                float[] columnX = {50, 220, 320, 420};
+                for (int row = 0; row < grid.length; row++) {
+                    for (int column = 0; column < grid[row].length; column++) {
+                        text(content, font, columnX[column], 740 - row * 14, grid[row][column]);
+                    }
+                }
+                text(content, font, 50, 650, "Rates are valid for stays between 1 April and 31 October.");
+            }
+            document.save(pdf);
+        }
+
+        List<TableExtractor.Table> tables;
+        try (PDDocument document = Loader.loadPDF(pdf)) {
+            tables = new TableExtractor().extractTables(document);
+        }
+
+        assertEquals(1, tables.size());
+        assertEquals(new TableExtractor.Table(1, List.of(
+                List.of("Room type", "Low", "High", "Peak"),
+                List.of("Standard Double", "95 EUR", "120 EUR", "180 EUR"),
+                List.of("Junior Suite", "140 EUR", "175 EUR", "260 EUR"),
+                List.of("Family Room", "130 EUR", "160 EUR", "230 EUR"))), tables.get(0));
+    }
+
+    @Test
+    void seasonHeaderSpanningTwoPriceColumnsDoesNotMergeThem(@TempDir Path tempDir) throws IOException {
+        String[][] grid = {
+            {"Room", "High season", null},
+            {"Standard", "120 EUR", "150 EUR"},
+            {"Superior", "140 EUR", "175 EUR"},
+            {"Suite", "210 EUR", "260 EUR"}
+        };
+        // The header starts over the first price column and ends over the second.
+        float[][] columnX = {{50, 240, 0}, {50, 220, 290}, {50, 220, 290}, {50, 220, 290}};
+
+        List<TableExtractor.Table> tables = tablesOf(tempDir, grid, columnX);
+
+        assertEquals(1, tables.size());
+        assertEquals(List.of(
+                List.of("Room", "High season", ""),
+                List.of("Standard", "120 EUR", "150 EUR"),
+                List.of("Superior", "140 EUR", "175 EUR"),
+                List.of("Suite", "210 EUR", "260 EUR")), tables.get(0).rows());
+    }
+
+    @Test
+    void priceColumnsLessThanAnEmApartStaySeparate(@TempDir Path tempDir) throws IOException {
+        String[][] grid = {
+            {"Room", "Low", "High", "Peak"},
+            {"Standard", "120.00", "135.00", "180.00"},
+            {"Superior", "140.00", "175.00", "260.00"},
+            {"Suite", "210.00", "245.00", "330.00"}
+        };
+        // "120.00" is about 31 pt wide at 10 pt, so the columns are some 8 pt (0.8 em) apart.
+        float[] x = {50, 150, 189, 228};
+
+        List<TableExtractor.Table> tables = tablesOf(tempDir, grid, new float[][]{x, x, x, x});
+
+        assertEquals(1, tables.size());
+        assertEquals(4, tables.get(0).columnCount());
+        assertEquals(List.of("Superior", "140.00", "175.00", "260.00"), tables.get(0).rows().get(2));
+    }
+
+    @Test
+    void twoColumnProsePageIsNotATable(@TempDir Path tempDir) throws IOException {
+        String[][] grid = {
+            {"The hotel reserves the rooms listed", "Cancellations made later than"},
+            {"below for the agent's guests for the", "fourteen days before arrival are"},
+            {"whole contract period, subject to", "charged at the first night's rate,"},
+            {"the release dates set out in the", "and no-shows at the full rate of"},
+            {"annex, after which unsold rooms", "the booked stay unless the agent"},
+            {"return to the hotel's inventory.", "proves the guest could not travel."}
+        };
+        float[][] columnX = new float[grid.length][];
+        Arrays.fill(columnX, new float[]{50, 310});
+
+        assertTrue(tablesOf(tempDir, grid, columnX).isEmpty());
+    }
+
+    @Test
+    void parseResultCarriesTablesOfSyntheticContract(@TempDir Path tempDir) throws IOException {
+        SyntheticContractCorpus.Spec spec = new SyntheticContractCorpus.Spec(1, 2, 2,
+                Map.of(SyntheticContractCorpus.PageKind.NATIVE, 1), 72, 5L);
+        File pdf = new SyntheticContractCorpus(spec).generate(tempDir.toFile()).get(0);
+
+        PDFParser.ParseResult result = new PDFParser().parse(pdf);
+
+        // Four seasons of six room types on each page; the monospaced layout leaves the BB and HB
+        // labels two or more spaces from their prices, so they form columns of their own.
+        assertEquals(8, result.getTables().size());
+        for (TableExtractor.Table table : result.getTables()) {
+            assertEquals(6, table.rows().size());
+            assertEquals(6, table.columnCount());
+            List<String> row = table.rows().get(0);
+            assertTrue(row.get(1).endsWith(" EUR"), row.toString());
+            assertEquals("BB", row.get(2));
+            assertEquals("HB", row.get(4));
+        }
+        assertEquals(2, result.getTables().get(4).pageNumber());
+        assertEquals(4, result.getPages().get(1).tables().size());
+    }
+
+    @Test
+    void tablesAreSkippedWhenDisabled(@TempDir Path tempDir) throws IOException {
+        SyntheticContractCorpus.Spec spec = new SyntheticContractCorpus.Spec(1, 1, 1,
+                Map.of(SyntheticContractCorpus.PageKind.NATIVE, 1), 72, 5L);
+        File pdf = new SyntheticContractCorpus(spec).generate(tempDir.toFile()).get(0);
+
+        try (PDFParser parser = new PDFParser(PageExtractorOptions.defaults().withExtractTables(false))) {
+            PDFParser.ParseResult result = parser.parse(pdf);
+
+            assertTrue(result.getTables().isEmpty());
+            assertTrue(result.getPages().get(0).text().contains("EUR"));
+        }
+    }
+
+    @Test
+    void denseGridIsClusteredInNearLinearTime() {
+        int rows = 400;
+        int columns = 8;
+        int charsPerCell = 12;
+        GlyphGrid grid = new GlyphGrid();
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                for (int c = 0; c < charsPerCell; c++) {
+                    grid.add(20 + column * 70 + c * 4, 20 + row * 6, 3.5f, 6, String.valueOf((char) ('a' + c)));
+                }
+            }
+        }
+        assertEquals(rows * columns * charsPerCell, grid.size());
+
+        List<TableExtractor.Table> tables = assertTimeoutPreemptively(Duration.ofSeconds(5),
+                () -> TableExtractor.findTables(grid.chunks(), 1));
+
+        assertEquals(1, tables.size());
+        assertEquals(rows, tables.get(0).rows().size());
+        assertEquals(columns, tables.get(0).columnCount());
+        assertEquals("abcdefghijkl", tables.get(0).rows().get(rows - 1).get(columns - 1));
+    }
+
+    /**
+     * Lay out {@code grid} on one page, cell {@code [row][column]} at x {@code columnX[row][column]};
+     * {@code null} cells are left out.
+     */
+    private static List<TableExtractor.Table> tablesOf(Path tempDir, String[][] grid, float[][] columnX)
+            throws IOException {
+        File pdf = tempDir.resolve("grid.pdf").toFile();
+        try (PDDocument document = new PDDocument()) {
+            PDPage page = new PDPage(PDRectangle.A4);
+            document.addPage(page);
+            PDType1Font font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+            try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                for (int row = 0; row < grid.length; row++) {
+                    for (int column = 0; column < grid[row].length; column++) {
+                        if (grid[row][column] != null) {
+                            text(content, font, columnX[row][column], 740 - row * 14, grid[row][column]);
+                        }
+                    }
+                }
+            }
+            document.save(pdf);
+        }
+        try (PDDocument document = Loader.loadPDF(pdf)) {
+            return new TableExtractor().extractTables(document);
+        }
+    }
+
+    private static void text(PDPageContentStream content, PDType1Font font, float x, float y, String text)
+            throws IOException {
+        content.beginText();
+        content.setFont(font, 10);
+        content.newLineAtOffset(x, y);
+        content.showText(text);
+        content.endText();
+    }
+}